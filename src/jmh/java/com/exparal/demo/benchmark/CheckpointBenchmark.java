@@ -0,0 +1,86 @@
+package com.exparal.demo.benchmark;
+
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.CheckpointedBatchRunner;
+import com.exparal.demo.service.FinancialCalculationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Cost of checkpointing a custom-pool batch: the plain all-or-nothing call against the
+// checkpointed runner at each chunk size, syncing after every chunk (0) or at most once a second.
+// Each checkpointed invocation starts from an empty file, so it always computes the whole book.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CheckpointBenchmark {
+
+    private static final int PORTFOLIO_COUNT = 50_000;
+    private static final int ITERATIONS = 1_000;
+
+    @Param({"1024", "4096"})
+    private int chunkRows;
+
+    @Param({"0", "1000"})
+    private long syncIntervalMillis;
+
+    private FinancialCalculationService calculationService;
+    private CheckpointedBatchRunner runner;
+    private PortfolioBook book;
+    private Path directory;
+    private Path checkpoint;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        calculationService = new FinancialCalculationService(Runtime.getRuntime().availableProcessors(), ITERATIONS);
+        runner = new CheckpointedBatchRunner(calculationService, chunkRows, Duration.ofMillis(syncIntervalMillis));
+        directory = Files.createTempDirectory("checkpoint-benchmark");
+        checkpoint = directory.resolve("batch.rcp");
+
+        book = SyntheticPortfolios.book(PORTFOLIO_COUNT); // Same data set as the performance tests
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCheckpoint() throws IOException {
+        Files.deleteIfExists(checkpoint);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        calculationService.shutdown();
+        Files.deleteIfExists(checkpoint);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public double[] customPool() {
+        double[] results = new double[book.size()];
+        calculationService.calculateRiskMetricsCustomPool(book, 7L, results);
+        return results;
+    }
+
+    @Benchmark
+    public double[] checkpointed() throws IOException {
+        return runner.run(book, 7L, checkpoint).results();
+    }
+}
@@ -0,0 +1,153 @@
+package com.exparal.demo.benchmark;
+
+import com.exparal.demo.config.RiskPoolProperties;
+import com.exparal.demo.model.BatchResult;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.PaddedResultBuffer;
+import com.exparal.demo.service.RiskWorkerThreadFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+// Cost of shared cache lines in result buffers, and of leaving workers unpinned.
+// Every worker of a pool rewrites its own rows of one buffer many times with a cheap metric,
+// so stores dominate: rows dealt out round-robin make neighbouring workers write the same
+// lines of a dense double[] (worst case), contiguous ranges share only the lines where two
+// ranges meet, and block-owned rows of a PaddedResultBuffer share none. The effect grows with
+// the core count and with the number of sockets; on a single core all three are equal.
+// Each case runs with and without pinned workers (risk.pools.custom-pool.pin-workers).
+// forkJoinEngine runs the real kernel through the fork/join engine straight into a dense array
+// with line-aligned splits; forkJoinSubmitted runs the same book into a BatchHandle's padded
+// buffer, so the two show what padding buys the engine once real kernel work sits between stores.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FalseSharingBenchmark {
+
+    private static final int ROWS = 4096;
+    private static final int PASSES = 256;
+
+    // 0 means one worker per available processor
+    @Param({"0"})
+    private int parallelism;
+
+    @Param({"false", "true"})
+    private boolean pinWorkers;
+
+    private ForkJoinPool pool;
+    private int workers;
+    private double[] dense;
+    private PaddedResultBuffer padded;
+    private FinancialCalculationService calculationService;
+    private PortfolioBook book;
+    private double[] results;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RiskPoolProperties properties = new RiskPoolProperties();
+        properties.getCustomPool().setParallelism(parallelism);
+        properties.getCustomPool().setPinWorkers(pinWorkers);
+        calculationService = new FinancialCalculationService(Optional.empty(), properties);
+        workers = properties.getCustomPool().resolvedParallelism();
+        pool = new RiskWorkerThreadFactory("FalseSharing-", pinWorkers).newPool(workers, false);
+        dense = new double[ROWS];
+        padded = new PaddedResultBuffer(ROWS);
+
+        book = SyntheticPortfolios.book(1000); // Same data set as the performance tests
+        results = new double[book.size()];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+        calculationService.shutdown();
+    }
+
+    @Benchmark
+    public double[] denseRoundRobinRows() {
+        runPerWorker(worker -> {
+            for (int pass = 0; pass < PASSES; pass++) {
+                for (int row = worker; row < ROWS; row += workers) {
+                    dense[row] += metric(row, pass);
+                }
+            }
+        });
+        return dense;
+    }
+
+    @Benchmark
+    public double[] denseContiguousRanges() {
+        runPerWorker(worker -> {
+            int from = (int) ((long) ROWS * worker / workers);
+            int to = (int) ((long) ROWS * (worker + 1) / workers);
+            for (int pass = 0; pass < PASSES; pass++) {
+                for (int row = from; row < to; row++) {
+                    dense[row] += metric(row, pass);
+                }
+            }
+        });
+        return dense;
+    }
+
+    @Benchmark
+    public PaddedResultBuffer paddedOwnedBlocks() {
+        int blocks = PaddedResultBuffer.blockCount(ROWS);
+        runPerWorker(worker -> {
+            int from = (int) ((long) blocks * worker / workers) * PaddedResultBuffer.BLOCK_ROWS;
+            int to = Math.min(ROWS, (int) ((long) blocks * (worker + 1) / workers) * PaddedResultBuffer.BLOCK_ROWS);
+            for (int pass = 0; pass < PASSES; pass++) {
+                for (int row = from; row < to; row++) {
+                    padded.set(row, padded.get(row) + metric(row, pass));
+                }
+            }
+        });
+        return padded;
+    }
+
+    @Benchmark
+    public double[] forkJoinEngine() {
+        calculationService.calculateRiskMetricsForkJoin(book, results);
+        return results;
+    }
+
+    @Benchmark
+    public BatchResult forkJoinSubmitted() {
+        return calculationService.submitRiskMetrics(book).await();
+    }
+
+    private void runPerWorker(IntConsumer work) {
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[workers];
+        for (int worker = 0; worker < workers; worker++) {
+            int id = worker;
+            tasks[worker] = pool.submit(() -> work.accept(id));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    private static double metric(int row, int pass) {
+        return Math.sqrt(row + pass);
+    }
+}
@@ -0,0 +1,135 @@
+package com.exparal.demo.benchmark;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.RiskEstimate;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.PrecisionTarget;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JMH replacement for the System.nanoTime timings in the performance tests.
+// Run with: ./mvnw -Pjmh test-compile exec:exec
+// Results (throughput, average time and gc.alloc.rate) are written to target/jmh-result.json
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FinancialCalculationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int portfolioCount;
+
+    @Param({"1000", "100000"})
+    private int iterations;
+
+    // 0 means one worker per available processor
+    @Param({"0"})
+    private int parallelism;
+
+    private FinancialCalculationService calculationService;
+    private List<Portfolio> portfolios;
+    private PortfolioBook book;
+    private double[] results;
+    private DoubleBuffer offHeapResults;
+    private PrecisionTarget precisionTarget;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        calculationService = new FinancialCalculationService(workers, iterations);
+        portfolios = SyntheticPortfolios.generate(portfolioCount);
+        book = PortfolioBook.of(portfolios);
+        results = new double[portfolioCount];
+        precisionTarget = calculationService.precisionTarget(1e-3);
+        offHeapResults = ByteBuffer.allocateDirect(portfolioCount * Double.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asDoubleBuffer();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Benchmark
+    public List<BigDecimal> sequential() {
+        return calculationService.calculateRiskMetricsSequential(portfolios);
+    }
+
+    @Benchmark
+    public List<BigDecimal> parallelCommonPool() {
+        return calculationService.calculateRiskMetricsParallel(portfolios);
+    }
+
+    @Benchmark
+    public List<BigDecimal> parallelCustomPool() {
+        return calculationService.calculateRiskMetricsCustomPool(portfolios);
+    }
+
+    @Benchmark
+    public List<BigDecimal> adaptive() {
+        return calculationService.calculateRiskMetrics(portfolios);
+    }
+
+    @Benchmark
+    public double[] sequentialBook() {
+        return calculationService.calculateRiskMetricsSequential(book);
+    }
+
+    @Benchmark
+    public double[] parallelCommonPoolBook() {
+        return calculationService.calculateRiskMetricsParallel(book);
+    }
+
+    @Benchmark
+    public double[] parallelCustomPoolBook() {
+        return calculationService.calculateRiskMetricsCustomPool(book);
+    }
+
+    // Stops each portfolio at 0.1% relative standard error instead of running every iteration
+    @Benchmark
+    public RiskEstimate[] precisionTargetedBook() {
+        return calculationService.calculateRiskMetricsToTarget(book, precisionTarget);
+    }
+
+    // Caller-supplied buffers: gc.alloc.rate.norm should stay flat as portfolioCount grows
+    @Benchmark
+    public double[] sequentialBookIntoArray() {
+        calculationService.calculateRiskMetricsSequential(book, results);
+        return results;
+    }
+
+    @Benchmark
+    public DoubleBuffer sequentialBookIntoDirectBuffer() {
+        calculationService.calculateRiskMetricsSequential(book, offHeapResults);
+        return offHeapResults;
+    }
+
+    @Benchmark
+    public double[] parallelCustomPoolBookIntoArray() {
+        calculationService.calculateRiskMetricsCustomPool(book, results);
+        return results;
+    }
+}
@@ -0,0 +1,92 @@
+package com.exparal.demo.benchmark;
+
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Stream-based book paths against the range-splitting fork/join engine,
+// with uniform and skewed per-portfolio iteration counts.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ForkJoinEngineBenchmark {
+
+    @Param({"1000", "10000"})
+    private int portfolioCount;
+
+    @Param({"10000"})
+    private int iterations;
+
+    @Param({"1", "8", "64"})
+    private int leafSize;
+
+    // 0 means one worker per available processor
+    @Param({"0"})
+    private int parallelism;
+
+    private FinancialCalculationService calculationService;
+    private PortfolioBook book;
+    private int[] skewedIterations;
+    private double[] results;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        calculationService = new FinancialCalculationService(workers, iterations);
+        book = SyntheticPortfolios.book(portfolioCount); // Same data set as the performance tests
+        skewedIterations = new int[portfolioCount];
+        results = new double[portfolioCount];
+
+        for (int i = 0; i < portfolioCount; i++) {
+            // Same total work as the uniform case, concentrated in the last tenth of the book
+            skewedIterations[i] = i >= portfolioCount * 9 / 10 ? iterations * 55 / 10 : iterations / 2;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Benchmark
+    public double[] streamCommonPool() {
+        calculationService.calculateRiskMetricsParallel(book, results);
+        return results;
+    }
+
+    @Benchmark
+    public double[] streamCustomPool() {
+        calculationService.calculateRiskMetricsCustomPool(book, results);
+        return results;
+    }
+
+    @Benchmark
+    public double[] forkJoinEngine() {
+        calculationService.calculateRiskMetricsForkJoin(book, results, leafSize);
+        return results;
+    }
+
+    @Benchmark
+    public double[] forkJoinEngineSkewedCosts() {
+        calculationService.calculateRiskMetricsForkJoin(book, skewedIterations, results, leafSize);
+        return results;
+    }
+}
@@ -0,0 +1,100 @@
+package com.exparal.demo.benchmark;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.RiskResult;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.SimulatedIoStage;
+import com.exparal.demo.service.VirtualThreadRiskPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Fetch -> compute -> publish per portfolio with simulated I/O latency.
+// The virtual-thread pipeline overlaps I/O and keeps the kernel on the core-sized pool;
+// the inline variant runs all three stages on the platform ForkJoinPool workers, as the
+// existing strategies would, so I/O waits hold a worker each.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class IoPipelineBenchmark {
+
+    @Param({"1000"})
+    private int portfolioCount;
+
+    @Param({"10000"})
+    private int iterations;
+
+    @Param({"0", "5", "20"})
+    private int ioLatencyMillis;
+
+    private FinancialCalculationService calculationService;
+    private SimulatedIoStage ioStage;
+    private VirtualThreadRiskPipeline pipeline;
+    private ForkJoinPool platformPool;
+    private List<Portfolio> portfolios;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        calculationService = new FinancialCalculationService(cores, iterations);
+        ioStage = new SimulatedIoStage(Duration.ofMillis(ioLatencyMillis), Duration.ofMillis(ioLatencyMillis));
+        pipeline = new VirtualThreadRiskPipeline(calculationService, ioStage, 10_000);
+        platformPool = new ForkJoinPool(cores);
+
+        portfolios = SyntheticPortfolios.generate(portfolioCount); // Same data set as the performance tests
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platformPool.shutdownNow();
+        calculationService.shutdown();
+    }
+
+    @Benchmark
+    public List<RiskResult> virtualThreadPipeline() {
+        return pipeline.process(portfolios);
+    }
+
+    @Benchmark
+    public List<RiskResult> platformPoolInline() throws InterruptedException, ExecutionException {
+        return platformPool.submit(() -> portfolios.parallelStream()
+                .map(this::processInline)
+                .collect(Collectors.toList())
+        ).get();
+    }
+
+    private RiskResult processInline(Portfolio portfolio) {
+        try {
+            Portfolio priced = ioStage.fetch(portfolio);
+            BigDecimal metric = calculationService.calculateRiskMetricsSequential(List.of(priced)).get(0);
+            RiskResult result = new RiskResult(priced.getId(), metric);
+            ioStage.publish(result);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
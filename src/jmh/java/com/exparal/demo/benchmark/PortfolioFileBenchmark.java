@@ -0,0 +1,99 @@
+package com.exparal.demo.benchmark;
+
+import com.exparal.demo.io.MappedPortfolioFile;
+import com.exparal.demo.io.PortfolioFileWriter;
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.PortfolioColumns;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Time (and, with -prof gc, heap) to get a book ready for calculation:
+// parsing NDJSON into a PortfolioBook against mapping the binary file and scanning its columns.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PortfolioFileBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int portfolioCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Path directory;
+    private Path binaryFile;
+    private Path ndjsonFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("portfolio-file-benchmark");
+        binaryFile = directory.resolve("book.pfb");
+        ndjsonFile = directory.resolve("book.ndjson");
+
+        PortfolioBook book = SyntheticPortfolios.book(portfolioCount); // Same data set as the performance tests
+
+        PortfolioFileWriter.write(binaryFile, book);
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n")
+                .writeValues(ndjsonFile.toFile())) {
+            for (int row = 0; row < book.size(); row++) {
+                writer.write(book.toPortfolio(row));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(binaryFile);
+        Files.deleteIfExists(ndjsonFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public double loadNdjson() throws IOException {
+        PortfolioBook book = new PortfolioBook(portfolioCount);
+        try (MappingIterator<Portfolio> portfolios = objectMapper.readerFor(Portfolio.class)
+                .readValues(ndjsonFile.toFile())) {
+            while (portfolios.hasNext()) {
+                book.add(portfolios.next());
+            }
+        }
+        return sumColumns(book);
+    }
+
+    @Benchmark
+    public double loadMapped() throws IOException {
+        MappedPortfolioFile file = MappedPortfolioFile.open(binaryFile);
+        return sumColumns(file);
+    }
+
+    // Touches every row so the mapped pages are actually read
+    private static double sumColumns(PortfolioColumns portfolios) {
+        double sum = 0;
+        for (int row = 0; row < portfolios.size(); row++) {
+            sum += portfolios.getNotional(row) + portfolios.getExpectedReturn(row) + portfolios.getVolatility(row);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,50 @@
+package com.exparal.demo.benchmark;
+
+import com.exparal.demo.service.RiskKernel;
+import com.exparal.demo.service.RiskKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Single-core cost of one portfolio simulation per kernel.
+// The vector kernel needs the 'vector' profile: ./mvnw -Pjmh,vector test-compile exec:exec
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class RiskKernelBenchmark {
+
+    @Param({"scalar", "vector"})
+    private String kernelName;
+
+    @Param({"100000"})
+    private int iterations;
+
+    private RiskKernel kernel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        kernel = RiskKernels.select(kernelName);
+        if (!kernel.name().equals(kernelName)) {
+            throw new IllegalStateException("Kernel '" + kernelName + "' is not available in this build");
+        }
+    }
+
+    @Benchmark
+    public double simulate() {
+        return kernel.simulate(5_000_000, 0.12, 0.25, iterations);
+    }
+}
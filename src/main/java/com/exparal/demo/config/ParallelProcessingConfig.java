@@ -1,27 +1,92 @@
 package com.exparal.demo.config;
 
+import com.exparal.demo.distributed.RiskCoordinator;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.PortfolioIoStage;
+import com.exparal.demo.service.RiskResultCache;
+import com.exparal.demo.service.RiskWarmup;
+import com.exparal.demo.service.SimulatedIoStage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.RejectedExecutionHandler;
 
 // Configuration class
 @Configuration
+@EnableConfigurationProperties({RiskPoolProperties.class, RiskCacheProperties.class, RiskIoProperties.class,
+        RiskDistributedProperties.class, RiskWarmupProperties.class})
 public class ParallelProcessingConfig {
 
     @Bean
     @Primary
-    public TaskExecutor taskExecutor() {
+    public ThreadPoolTaskExecutor taskExecutor(RiskPoolProperties poolProperties, MeterRegistry meterRegistry) {
+        RiskPoolProperties.TaskExecutor settings = poolProperties.getTaskExecutor();
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
-        executor.setMaxPoolSize(Runtime.getRuntime().availableProcessors() * 2);
-        executor.setQueueCapacity(1000);
-        executor.setThreadNamePrefix("FinancialCalc-");
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setCorePoolSize(settings.resolvedCorePoolSize());
+        executor.setMaxPoolSize(settings.resolvedMaxPoolSize());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setThreadNamePrefix(settings.getThreadNamePrefix());
+        // A full queue is never run on the submitting (servlet) thread: ABORT turns into a 429,
+        // and the DISCARD policies cancel the dropped batch, which the API answers with 503.
+        // Actuator already publishes executor.* gauges for this bean; rejections are counted here.
+        Counter rejections = Counter.builder("executor.rejected")
+                .tag("name", "taskExecutor")
+                .description("Tasks rejected because the queue was full")
+                .register(meterRegistry);
+        RejectedExecutionHandler policy = settings.getRejectionPolicy().newHandler();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejections.increment();
+            policy.rejectedExecution(task, pool);
+        });
         executor.initialize();
         return executor;
     }
+
+    // Optional result cache, bounded by heap budget and entry age
+    @Bean
+    @ConditionalOnProperty(name = "risk.cache.enabled", havingValue = "true")
+    public RiskResultCache riskResultCache(RiskCacheProperties properties) {
+        return RiskResultCache.withMemoryBudget(properties.maxMemoryBytes(), properties.maxAge());
+    }
+
+    // Batch latency, throughput, sampled per-portfolio time and custom pool gauges
+    @Bean
+    public MeterBinder calculationMetrics(FinancialCalculationService calculationService) {
+        return calculationService.getMetrics();
+    }
+
+    // Stand-in I/O for VirtualThreadRiskPipeline until a real market-data stage is wired in
+    @Bean
+    public PortfolioIoStage portfolioIoStage(RiskIoProperties properties) {
+        return new SimulatedIoStage(properties.fetchLatency(), properties.publishLatency());
+    }
+
+    // Coordinator mode: unseeded /api/risk/batches requests are shipped to the RiskWorker JVMs
+    // listed in risk.distributed.workers
+    @Bean
+    @ConditionalOnProperty(name = "risk.distributed.workers")
+    public RiskCoordinator riskCoordinator(RiskDistributedProperties properties,
+                                           FinancialCalculationService calculationService) {
+        return new RiskCoordinator(RiskCoordinator.parseAddresses(properties.workers()),
+                calculationService.getIterations(), properties.toOptions());
+    }
+
+    // Startup warm-up until the JIT settles. Runners finish before ApplicationReadyEvent, so
+    // /actuator/health/readiness keeps reporting REFUSING_TRAFFIC until the warm-up is done.
+    @Bean
+    @ConditionalOnProperty(name = "risk.warmup.enabled", havingValue = "true", matchIfMissing = true)
+    public ApplicationRunner riskWarmup(FinancialCalculationService calculationService,
+                                        RiskWarmupProperties properties) {
+        RiskWarmup warmup = new RiskWarmup(calculationService, properties.portfolios(), properties.maxRounds(),
+                properties.stableRounds(), properties.tolerance(), properties.maxDuration());
+        return args -> warmup.run();
+    }
 }
@@ -0,0 +1,23 @@
+package com.exparal.demo.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+// Result cache under risk.cache.*; the cache itself is switched on by risk.cache.enabled.
+// A max age of 0 keeps entries until they are evicted.
+@Validated
+@ConfigurationProperties(prefix = "risk.cache")
+public record RiskCacheProperties(
+        @DefaultValue("64") @Positive long maxMemoryMb,
+        @DefaultValue("15m") @NotNull @DurationMin(nanos = 0) Duration maxAge) {
+
+    public long maxMemoryBytes() {
+        return maxMemoryMb * 1024 * 1024;
+    }
+}
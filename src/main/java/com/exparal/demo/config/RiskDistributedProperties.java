@@ -0,0 +1,32 @@
+package com.exparal.demo.config;
+
+import com.exparal.demo.distributed.RiskCoordinator;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.List;
+
+// Coordinator mode under risk.distributed.*: the host:port list of RiskWorker JVMs and the
+// RiskCoordinator options. With no workers listed the API computes every batch locally.
+@Validated
+@ConfigurationProperties(prefix = "risk.distributed")
+public record RiskDistributedProperties(
+        List<String> workers,
+        @DefaultValue("256") @Positive int chunkSize,
+        @DefaultValue("2") @Positive int connectionsPerWorker,
+        @DefaultValue("3") @Positive int maxAttempts,
+        @DefaultValue("60s") @NotNull @DurationMin(nanos = 1) Duration chunkTimeout,
+        @DefaultValue("2.0") @DecimalMin("1.0") double speculationFactor,
+        @DefaultValue("200ms") @NotNull @DurationMin(nanos = 0) Duration minSpeculationDelay) {
+
+    public RiskCoordinator.Options toOptions() {
+        return new RiskCoordinator.Options(chunkSize, connectionsPerWorker, maxAttempts, chunkTimeout,
+                speculationFactor, minSpeculationDelay);
+    }
+}
@@ -0,0 +1,17 @@
+package com.exparal.demo.config;
+
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+// Simulated per-portfolio I/O latency of the virtual-thread pipeline under risk.io.*
+@Validated
+@ConfigurationProperties(prefix = "risk.io")
+public record RiskIoProperties(
+        @DefaultValue("0ms") @NotNull @DurationMin(nanos = 0) Duration fetchLatency,
+        @DefaultValue("0ms") @NotNull @DurationMin(nanos = 0) Duration publishLatency) {
+}
@@ -0,0 +1,111 @@
+package com.exparal.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Thread pool topology under risk.pools.*: the custom ForkJoinPool behind FinancialCalculationService
+// and the FinancialCalc- executor behind the REST API. A size of 0 means "derive from the
+// processors the JVM sees", which follows container CPU quotas. Sizes can be changed at runtime
+// through the riskpools actuator endpoint; these values only set the starting point.
+@ConfigurationProperties(prefix = "risk.pools")
+public class RiskPoolProperties {
+
+    private final CustomPool customPool = new CustomPool();
+    private final TaskExecutor taskExecutor = new TaskExecutor();
+
+    public CustomPool getCustomPool() {
+        return customPool;
+    }
+
+    public TaskExecutor getTaskExecutor() {
+        return taskExecutor;
+    }
+
+    public static class CustomPool {
+
+        // 0: availableProcessors()
+        private int parallelism;
+        // FIFO scheduling of forked tasks that are never joined; LIFO (false) suits the fork/join paths
+        private boolean asyncMode;
+        private String threadNamePrefix = "RiskPool-";
+        // Linux only: bind each worker to one allowed CPU, filling a NUMA node before the next
+        private boolean pinWorkers;
+
+        public int getParallelism() { return parallelism; }
+        public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+        public boolean isAsyncMode() { return asyncMode; }
+        public void setAsyncMode(boolean asyncMode) { this.asyncMode = asyncMode; }
+        public String getThreadNamePrefix() { return threadNamePrefix; }
+        public void setThreadNamePrefix(String threadNamePrefix) { this.threadNamePrefix = threadNamePrefix; }
+        public boolean isPinWorkers() { return pinWorkers; }
+        public void setPinWorkers(boolean pinWorkers) { this.pinWorkers = pinWorkers; }
+
+        public int resolvedParallelism() {
+            return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    public static class TaskExecutor {
+
+        // 0: availableProcessors()
+        private int corePoolSize;
+        // 0: twice availableProcessors()
+        private int maxPoolSize;
+        private int queueCapacity = 1000;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+        private String threadNamePrefix = "FinancialCalc-";
+
+        public int getCorePoolSize() { return corePoolSize; }
+        public void setCorePoolSize(int corePoolSize) { this.corePoolSize = corePoolSize; }
+        public int getMaxPoolSize() { return maxPoolSize; }
+        public void setMaxPoolSize(int maxPoolSize) { this.maxPoolSize = maxPoolSize; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+        public RejectionPolicy getRejectionPolicy() { return rejectionPolicy; }
+        public void setRejectionPolicy(RejectionPolicy rejectionPolicy) { this.rejectionPolicy = rejectionPolicy; }
+        public String getThreadNamePrefix() { return threadNamePrefix; }
+        public void setThreadNamePrefix(String threadNamePrefix) { this.threadNamePrefix = threadNamePrefix; }
+
+        public int resolvedCorePoolSize() {
+            return corePoolSize > 0 ? corePoolSize : Runtime.getRuntime().availableProcessors();
+        }
+
+        public int resolvedMaxPoolSize() {
+            return Math.max(resolvedCorePoolSize(),
+                    maxPoolSize > 0 ? maxPoolSize : Runtime.getRuntime().availableProcessors() * 2);
+        }
+    }
+
+    // What the executor does with a task when its queue is full. ABORT rejects the new task, which
+    // the API answers with 429. DISCARD drops the new task and DISCARD_OLDEST the longest-queued
+    // one; a dropped task that is a Future (the API's batches, submit()) is cancelled, so its
+    // request completes with 503 rather than waiting for the async timeout. There is no
+    // CALLER_RUNS: the caller is a servlet thread, which must never compute a batch.
+    public enum RejectionPolicy {
+        ABORT,
+        DISCARD,
+        DISCARD_OLDEST;
+
+        public RejectedExecutionHandler newHandler() {
+            return switch (this) {
+                case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+                case DISCARD -> (task, executor) -> cancel(task);
+                case DISCARD_OLDEST -> (task, executor) -> {
+                    if (!executor.isShutdown()) {
+                        cancel(executor.getQueue().poll());
+                        executor.execute(task);
+                    }
+                };
+            };
+        }
+
+        private static void cancel(Runnable dropped) {
+            if (dropped instanceof Future<?> future) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.exparal.demo.config;
+
+import com.exparal.demo.service.FinancialCalculationService;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// /actuator/riskpools: current size of each pool, and live resizing without a restart.
+//   GET  /actuator/riskpools
+//   POST /actuator/riskpools/customPool   {"parallelism": 6}
+//   POST /actuator/riskpools/taskExecutor {"corePoolSize": 4, "maxPoolSize": 8}
+// Queue capacity, async mode and thread names are fixed when a pool is created (risk.pools.*).
+@Component
+@Endpoint(id = "riskpools")
+public class RiskPoolsEndpoint {
+
+    public static final String CUSTOM_POOL = "customPool";
+    public static final String TASK_EXECUTOR = "taskExecutor";
+
+    private final FinancialCalculationService calculationService;
+    private final ThreadPoolTaskExecutor taskExecutor;
+
+    public RiskPoolsEndpoint(FinancialCalculationService calculationService, ThreadPoolTaskExecutor taskExecutor) {
+        this.calculationService = calculationService;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> pools() {
+        Map<String, Object> customPool = new LinkedHashMap<>();
+        customPool.put("parallelism", calculationService.getParallelism());
+        customPool.put("poolSize", calculationService.getPoolSize());
+        customPool.put("queuedTasks", calculationService.getQueuedTaskCount());
+        customPool.put("asyncMode", calculationService.isAsyncMode());
+
+        Map<String, Object> executor = new LinkedHashMap<>();
+        executor.put("corePoolSize", taskExecutor.getCorePoolSize());
+        executor.put("maxPoolSize", taskExecutor.getMaxPoolSize());
+        executor.put("poolSize", taskExecutor.getPoolSize());
+        executor.put("activeCount", taskExecutor.getActiveCount());
+        executor.put("queueSize", taskExecutor.getQueueSize());
+        executor.put("queueCapacity", taskExecutor.getQueueCapacity());
+
+        Map<String, Map<String, Object>> pools = new LinkedHashMap<>();
+        pools.put(CUSTOM_POOL, customPool);
+        pools.put(TASK_EXECUTOR, executor);
+        return pools;
+    }
+
+    @WriteOperation
+    public Map<String, Map<String, Object>> resize(@Selector String pool, @Nullable Integer parallelism,
+                                                   @Nullable Integer corePoolSize, @Nullable Integer maxPoolSize) {
+        switch (pool) {
+            case CUSTOM_POOL -> {
+                if (parallelism == null || parallelism < 1) {
+                    throw new InvalidEndpointRequestException("parallelism must be a positive integer",
+                            "Invalid parallelism: " + parallelism);
+                }
+                calculationService.setParallelism(parallelism);
+            }
+            case TASK_EXECUTOR -> resizeTaskExecutor(
+                    corePoolSize != null ? corePoolSize : taskExecutor.getCorePoolSize(),
+                    maxPoolSize != null ? maxPoolSize : taskExecutor.getMaxPoolSize());
+            default -> throw new InvalidEndpointRequestException("Unknown pool " + pool,
+                    "Pool must be " + CUSTOM_POOL + " or " + TASK_EXECUTOR);
+        }
+        return pools();
+    }
+
+    private void resizeTaskExecutor(int corePoolSize, int maxPoolSize) {
+        if (corePoolSize < 1 || maxPoolSize < corePoolSize) {
+            throw new InvalidEndpointRequestException("Need 1 <= corePoolSize <= maxPoolSize",
+                    "Invalid sizes: core " + corePoolSize + ", max " + maxPoolSize);
+        }
+        // ThreadPoolExecutor rejects core > max at every step, so grow max first and shrink core first
+        if (corePoolSize > taskExecutor.getMaxPoolSize()) {
+            taskExecutor.setMaxPoolSize(maxPoolSize);
+            taskExecutor.setCorePoolSize(corePoolSize);
+        } else {
+            taskExecutor.setCorePoolSize(corePoolSize);
+            taskExecutor.setMaxPoolSize(maxPoolSize);
+        }
+    }
+}
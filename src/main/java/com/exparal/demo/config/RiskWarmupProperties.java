@@ -0,0 +1,23 @@
+package com.exparal.demo.config;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+// Startup warm-up under risk.warmup.* (see RiskWarmup for how the rounds stop);
+// risk.warmup.enabled=false skips the warm-up altogether
+@Validated
+@ConfigurationProperties(prefix = "risk.warmup")
+public record RiskWarmupProperties(
+        @DefaultValue("32") @Positive int portfolios,
+        @DefaultValue("20") @Positive int maxRounds,
+        @DefaultValue("2") @Positive int stableRounds,
+        @DefaultValue("0.1") @DecimalMin(value = "0", inclusive = false) double tolerance,
+        @DefaultValue("30s") @NotNull @DurationMin(nanos = 0) Duration maxDuration) {
+}
@@ -0,0 +1,141 @@
+package com.exparal.demo.controller;
+
+import com.exparal.demo.distributed.DistributedBatchResult;
+import com.exparal.demo.distributed.RiskCoordinator;
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.RiskBatchResponse;
+import com.exparal.demo.model.RiskResult;
+import com.exparal.demo.service.FinancialCalculationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// HTTP entry point for risk batches.
+// Batches are computed on the FinancialCalc- executor and returned as a CompletableFuture,
+// so servlet threads are released immediately. When the executor queue is full the
+// request is rejected with 429 and the current queue depth instead of being run inline.
+// Each queued batch is its own future, so a batch dropped by a DISCARD rejection policy is
+// cancelled and answered with 503 instead of hanging until the async request timeout.
+// When risk.distributed.workers is set, unseeded batches are shipped to the RiskWorker JVMs
+// through the RiskCoordinator; seeded batches stay local, as workers do not take a seed.
+@RestController
+@RequestMapping("/api/risk")
+public class RiskCalculationController {
+
+    public static final String QUEUE_DEPTH_HEADER = "X-Queue-Depth";
+    public static final String QUEUE_CAPACITY_HEADER = "X-Queue-Capacity";
+    public static final String DISTRIBUTED_STRATEGY = "DISTRIBUTED";
+
+    private final FinancialCalculationService calculationService;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final Optional<RiskCoordinator> coordinator;
+    private final long retryAfterSeconds;
+
+    public RiskCalculationController(FinancialCalculationService calculationService,
+                                     ThreadPoolTaskExecutor taskExecutor,
+                                     Optional<RiskCoordinator> coordinator,
+                                     @Value("${risk.api.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.calculationService = calculationService;
+        this.taskExecutor = taskExecutor;
+        this.coordinator = coordinator;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @PostMapping("/batches")
+    public CompletableFuture<RiskBatchResponse> calculateBatch(@RequestBody List<Portfolio> portfolios,
+                                                               @RequestParam(required = false) Long seed) {
+        BatchTask task = new BatchTask(() -> calculate(portfolios, seed));
+        taskExecutor.execute(task);
+        return task;
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleRejected(TaskRejectedException e) {
+        int queueDepth = taskExecutor.getQueueSize();
+        int queueCapacity = taskExecutor.getQueueCapacity();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .header(QUEUE_DEPTH_HEADER, String.valueOf(queueDepth))
+                .header(QUEUE_CAPACITY_HEADER, String.valueOf(queueCapacity))
+                .body(Map.of(
+                        "error", "Risk calculation capacity exhausted, retry later",
+                        "queueDepth", queueDepth,
+                        "queueCapacity", queueCapacity));
+    }
+
+    @ExceptionHandler(CancellationException.class)
+    public ResponseEntity<Map<String, Object>> handleDiscarded(CancellationException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of("error", "Risk batch dropped from a full queue, retry later"));
+    }
+
+    // With a seed the metrics are reproducible across requests and server parallelism
+    private RiskBatchResponse calculate(List<Portfolio> portfolios, Long seed) {
+        long start = System.nanoTime();
+        List<BigDecimal> metrics;
+        if (seed != null) {
+            metrics = calculationService.calculateRiskMetrics(portfolios, seed);
+        } else if (coordinator.isPresent()) {
+            metrics = calculateDistributed(coordinator.get(), portfolios);
+        } else {
+            metrics = calculationService.calculateRiskMetrics(portfolios);
+        }
+        List<RiskResult> results = new ArrayList<>(portfolios.size());
+        for (int i = 0; i < portfolios.size(); i++) {
+            results.add(new RiskResult(portfolios.get(i).getId(), metrics.get(i)));
+        }
+        return new RiskBatchResponse(results, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<BigDecimal> calculateDistributed(RiskCoordinator coordinator, List<Portfolio> portfolios) {
+        DistributedBatchResult batch = coordinator.calculate(PortfolioBook.of(portfolios));
+        calculationService.getMetrics().recordBatch(DISTRIBUTED_STRATEGY, portfolios.size(), batch.elapsedNanos());
+        List<BigDecimal> metrics = new ArrayList<>(portfolios.size());
+        for (double metric : batch.results()) {
+            metrics.add(FinancialCalculationService.roundRiskMetric(metric));
+        }
+        return metrics;
+    }
+
+    // A queued batch that completes itself; cancelling it before it runs skips the computation
+    private static final class BatchTask extends CompletableFuture<RiskBatchResponse> implements Runnable {
+
+        private final Supplier<RiskBatchResponse> batch;
+
+        BatchTask(Supplier<RiskBatchResponse> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                return;
+            }
+            try {
+                complete(batch.get());
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.exparal.demo.controller;
+
+import com.exparal.demo.service.PortfolioStreamProcessor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// NDJSON in, NDJSON out: results are streamed back as chunks complete while the
+// request body is still being read, with bounded in-flight memory. chunkSize is checked
+// against 1 and risk.stream.max-chunk-size, since it sizes every in-flight chunk; anything
+// outside is a 400.
+@RestController
+@RequestMapping("/api/risk")
+public class RiskStreamController {
+
+    private final PortfolioStreamProcessor streamProcessor;
+    private final int maxChunkSize;
+
+    public RiskStreamController(PortfolioStreamProcessor streamProcessor,
+                                @Value("${risk.stream.max-chunk-size:10000}") int maxChunkSize) {
+        this.streamProcessor = streamProcessor;
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    @PostMapping(value = "/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBatch(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "true") boolean ordered,
+            @RequestParam(defaultValue = "" + PortfolioStreamProcessor.DEFAULT_CHUNK_SIZE) @Min(1) int chunkSize)
+            throws IOException {
+        if (chunkSize > maxChunkSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "chunkSize must be at most " + maxChunkSize + ": " + chunkSize);
+        }
+        InputStream body = request.getInputStream();
+        PortfolioStreamProcessor.Options defaults = streamProcessor.defaultOptions(ordered);
+        PortfolioStreamProcessor.Options options = new PortfolioStreamProcessor.Options(
+                chunkSize, defaults.maxInFlightChunks(), ordered);
+
+        StreamingResponseBody results = output -> streamProcessor.process(body, output, options);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results);
+    }
+}
@@ -0,0 +1,10 @@
+package com.exparal.demo.distributed;
+
+import java.util.Map;
+
+// Metrics of a distributed batch indexed by book row, with how the chunks were executed:
+// retries after failures or timeouts, speculative copies of straggling chunks, and the chunks
+// each worker (host:port) delivered first
+public record DistributedBatchResult(double[] results, int chunks, int retries, int speculativeExecutions,
+                                     Map<String, Long> chunksPerWorker, long elapsedNanos) {
+}
@@ -0,0 +1,347 @@
+package com.exparal.demo.distributed;
+
+import com.exparal.demo.model.PortfolioColumns;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Coordinator side of distributed execution.
+// Cuts a book into chunks of chunkSize rows and opens connectionsPerWorker connections to every
+// RiskWorker. Each connection runs on a virtual thread that takes the next pending chunk, ships
+// it over RiskWireProtocol and waits for the result. A chunk whose connection fails, whose worker
+// answers with a FAILURE frame or that exceeds chunkTimeout goes back to the front of the queue,
+// and the batch fails once a chunk has failed maxAttempts times. When the queue is empty, idle
+// connections re-run the oldest chunk that has been out longer than speculationFactor x the mean
+// chunk latency (and at least minSpeculationDelay), so one slow worker cannot hold up the tail
+// of the batch; the first copy to answer wins. A connection that fails maxAttempts times in a
+// row gives up on its worker, and the batch fails when no connection is left.
+public class RiskCoordinator {
+
+    public record Options(int chunkSize, int connectionsPerWorker, int maxAttempts, Duration chunkTimeout,
+                          double speculationFactor, Duration minSpeculationDelay) {
+
+        public Options {
+            if (chunkSize < 1 || connectionsPerWorker < 1 || maxAttempts < 1) {
+                throw new IllegalArgumentException("Chunk size, connections per worker and attempts must be positive");
+            }
+            if (!(speculationFactor >= 1)) {
+                throw new IllegalArgumentException("Speculation factor must be at least 1: " + speculationFactor);
+            }
+        }
+
+        public static Options defaults() {
+            return new Options(256, 2, 3, Duration.ofSeconds(60), 2.0, Duration.ofMillis(200));
+        }
+    }
+
+    private static final long POLL_MILLIS = 10;
+
+    private final List<InetSocketAddress> workers;
+    private final int iterations;
+    private final Options options;
+
+    public RiskCoordinator(List<InetSocketAddress> workers, int iterations, Options options) {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("At least one worker address is required");
+        }
+        this.workers = List.copyOf(workers);
+        this.iterations = iterations;
+        this.options = options;
+    }
+
+    // Parses "host:port" entries, as in risk.distributed.workers
+    public static List<InetSocketAddress> parseAddresses(List<String> workers) {
+        return workers.stream()
+                .map(String::trim)
+                .map(worker -> {
+                    int colon = worker.lastIndexOf(':');
+                    if (colon < 1) {
+                        throw new IllegalArgumentException("Worker address must be host:port: " + worker);
+                    }
+                    return new InetSocketAddress(worker.substring(0, colon), Integer.parseInt(worker.substring(colon + 1)));
+                })
+                .toList();
+    }
+
+    public List<InetSocketAddress> getWorkers() {
+        return workers;
+    }
+
+    public DistributedBatchResult calculate(PortfolioColumns book) {
+        Run run = new Run(book);
+        try (ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (InetSocketAddress worker : workers) {
+                for (int i = 0; i < options.connectionsPerWorker(); i++) {
+                    connections.execute(() -> run.connectionLoop(worker));
+                }
+            }
+            try {
+                run.awaitCompletion();
+            } finally {
+                run.stop();
+            }
+        }
+        if (run.failure != null) {
+            throw new RuntimeException("Distributed calculation failed", run.failure);
+        }
+        return run.result();
+    }
+
+    private static final class Chunk {
+
+        final int id;
+        final int from;
+        final int to;
+        final AtomicBoolean done = new AtomicBoolean();
+        // Copies currently out on connections: 1 normally, 2 while a speculative copy runs
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        volatile long startedNanos;
+
+        Chunk(int id, int from, int to) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    // State of one calculate() call, shared by its connection threads
+    private final class Run {
+
+        final PortfolioColumns book;
+        final double[] results;
+        final Chunk[] chunks;
+        final LinkedBlockingDeque<Chunk> pending = new LinkedBlockingDeque<>();
+        final CountDownLatch remaining;
+        final AtomicInteger liveConnections = new AtomicInteger(workers.size() * options.connectionsPerWorker());
+        final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+        final Map<String, LongAdder> chunksPerWorker = new ConcurrentHashMap<>();
+        final LongAdder completedChunkNanos = new LongAdder();
+        final LongAdder completedChunks = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder speculativeExecutions = new LongAdder();
+        final long startNanos = System.nanoTime();
+        volatile boolean stopped;
+        volatile Throwable failure;
+
+        Run(PortfolioColumns book) {
+            this.book = book;
+            this.results = new double[book.size()];
+            int chunkCount = (book.size() + options.chunkSize() - 1) / options.chunkSize();
+            this.chunks = new Chunk[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                chunks[i] = new Chunk(i, i * options.chunkSize(), Math.min(book.size(), (i + 1) * options.chunkSize()));
+                pending.add(chunks[i]);
+            }
+            this.remaining = new CountDownLatch(chunkCount);
+        }
+
+        void connectionLoop(InetSocketAddress address) {
+            String workerName = address.getHostString() + ":" + address.getPort();
+            Socket socket = null;
+            DataInputStream in = null;
+            DataOutputStream out = null;
+            int consecutiveFailures = 0;
+            try {
+                while (!stopped) {
+                    Chunk chunk = nextChunk();
+                    if (chunk == null) {
+                        continue;
+                    }
+                    boolean sent = false;
+                    boolean released = false;
+                    try {
+                        if (socket == null) {
+                            socket = connect(address);
+                            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                        }
+                        sent = true;
+                        RiskWireProtocol.writeChunk(out, chunk.id, iterations, book, chunk.from, chunk.to);
+                        RiskWireProtocol.ChunkResponse response = RiskWireProtocol.readResponse(in);
+                        if (response.failure() != null) {
+                            throw new IOException("Worker " + workerName + " failed chunk " + chunk.id + ": "
+                                    + response.failure());
+                        }
+                        if (response.chunkId() != chunk.id || response.results().length != chunk.to - chunk.from) {
+                            throw new IOException("Worker " + workerName + " answered chunk " + chunk.id
+                                    + " with chunk " + response.chunkId());
+                        }
+                        consecutiveFailures = 0;
+                        complete(chunk, response.results(), workerName);
+                    } catch (IOException e) {
+                        close(socket);
+                        socket = null;
+                        if (stopped) {
+                            return;
+                        }
+                        consecutiveFailures++;
+                        released = true;
+                        chunkFailed(chunk, sent, e);
+                        if (consecutiveFailures >= options.maxAttempts()) {
+                            return;
+                        }
+                        Thread.sleep(POLL_MILLIS * consecutiveFailures);
+                    } finally {
+                        if (!released) {
+                            chunk.running.decrementAndGet();
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close(socket);
+                if (liveConnections.decrementAndGet() == 0 && remaining.getCount() > 0) {
+                    fail(new IOException("No risk worker connection left with "
+                            + remaining.getCount() + " chunks outstanding"));
+                }
+            }
+        }
+
+        private Socket connect(InetSocketAddress address) throws IOException {
+            Socket socket = new Socket();
+            sockets.add(socket);
+            int timeoutMillis = (int) Math.min(Integer.MAX_VALUE, options.chunkTimeout().toMillis());
+            try {
+                socket.connect(address, timeoutMillis);
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(timeoutMillis);
+                if (stopped) {
+                    throw new IOException("Batch already finished");
+                }
+                return socket;
+            } catch (IOException e) {
+                close(socket);
+                throw e;
+            }
+        }
+
+        // Next queued chunk, or a speculative copy of a straggler once the queue is empty
+        private Chunk nextChunk() throws InterruptedException {
+            Chunk chunk = pending.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (chunk != null) {
+                if (chunk.done.get()) {
+                    return null;
+                }
+                chunk.running.incrementAndGet();
+                chunk.startedNanos = System.nanoTime();
+                return chunk;
+            }
+            return speculativeCandidate();
+        }
+
+        private Chunk speculativeCandidate() {
+            long completed = completedChunks.sum();
+            long meanNanos = completed > 0 ? completedChunkNanos.sum() / completed : 0;
+            long thresholdNanos = Math.max(options.minSpeculationDelay().toNanos(),
+                    (long) (options.speculationFactor() * meanNanos));
+            long now = System.nanoTime();
+            Chunk oldest = null;
+            for (Chunk chunk : chunks) {
+                if (!chunk.done.get() && chunk.running.get() == 1 && now - chunk.startedNanos > thresholdNanos
+                        && (oldest == null || chunk.startedNanos < oldest.startedNanos)) {
+                    oldest = chunk;
+                }
+            }
+            if (oldest != null && oldest.running.compareAndSet(1, 2)) {
+                speculativeExecutions.increment();
+                return oldest;
+            }
+            return null;
+        }
+
+        private void complete(Chunk chunk, double[] chunkResults, String workerName) {
+            if (chunk.done.compareAndSet(false, true)) {
+                System.arraycopy(chunkResults, 0, results, chunk.from, chunkResults.length);
+                completedChunkNanos.add(System.nanoTime() - chunk.startedNanos);
+                completedChunks.increment();
+                chunksPerWorker.computeIfAbsent(workerName, key -> new LongAdder()).increment();
+                remaining.countDown();
+            }
+        }
+
+        // Releases the failed copy. A worker that cannot be reached does not count against the chunk.
+        // The copy is released before deciding on the retry, so when two copies fail back to back
+        // the last one out always queues the chunk again.
+        private void chunkFailed(Chunk chunk, boolean sent, IOException cause) {
+            int stillRunning = chunk.running.decrementAndGet();
+            if (chunk.done.get()) {
+                return;
+            }
+            if (sent && chunk.failures.incrementAndGet() >= options.maxAttempts()) {
+                fail(new IOException("Chunk " + chunk.id + " failed " + options.maxAttempts() + " times", cause));
+                return;
+            }
+            retries.increment();
+            // A speculative copy still running elsewhere stands in for the retry
+            if (stillRunning == 0) {
+                pending.addFirst(chunk);
+            }
+        }
+
+        private void fail(Throwable cause) {
+            if (failure == null) {
+                failure = cause;
+            }
+        }
+
+        void awaitCompletion() {
+            try {
+                while (!remaining.await(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (failure != null) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+
+        // Ends every connection loop, including ones blocked reading a straggler's answer
+        void stop() {
+            stopped = true;
+            for (Socket socket : sockets) {
+                close(socket);
+            }
+        }
+
+        private void close(Socket socket) {
+            if (socket != null) {
+                sockets.remove(socket);
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+
+        DistributedBatchResult result() {
+            Map<String, Long> perWorker = new TreeMap<>();
+            chunksPerWorker.forEach((worker, count) -> perWorker.put(worker, count.sum()));
+            return new DistributedBatchResult(results, chunks.length, (int) retries.sum(),
+                    (int) speculativeExecutions.sum(), perWorker, System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.exparal.demo.distributed;
+
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.PortfolioColumns;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+// Binary frames exchanged between RiskCoordinator and RiskWorker over a socket.
+// Every frame starts with MAGIC, a type byte and the chunk id. A CHUNK frame carries the
+// iteration count and the rows (UTF id, notional, expected return, volatility). A RESULT
+// frame carries one double per row in the same order, and a FAILURE frame carries an error message.
+// Numbers are big-endian as written by DataOutputStream.
+public final class RiskWireProtocol {
+
+    public static final int MAGIC = 0x52534B31; // "RSK1"
+    public static final byte CHUNK = 1;
+    public static final byte RESULT = 2;
+    public static final byte FAILURE = 3;
+
+    // Upper bound on rows per frame, so a corrupt length cannot trigger a huge allocation
+    public static final int MAX_ROWS = 1 << 20;
+
+    private RiskWireProtocol() {
+    }
+
+    public record ChunkRequest(long chunkId, int iterations, PortfolioBook book) {
+    }
+
+    // Exactly one of results and failure is non-null
+    public record ChunkResponse(long chunkId, double[] results, String failure) {
+    }
+
+    public static void writeChunk(DataOutputStream out, long chunkId, int iterations, PortfolioColumns book,
+                                  int fromRow, int toRow) throws IOException {
+        writeHeader(out, CHUNK, chunkId);
+        out.writeInt(iterations);
+        out.writeInt(toRow - fromRow);
+        for (int row = fromRow; row < toRow; row++) {
+            out.writeUTF(book.getId(row));
+            out.writeDouble(book.getNotional(row));
+            out.writeDouble(book.getExpectedReturn(row));
+            out.writeDouble(book.getVolatility(row));
+        }
+        out.flush();
+    }
+
+    // Null when the peer closed the connection between frames
+    public static ChunkRequest readChunk(DataInputStream in) throws IOException {
+        int magic;
+        try {
+            magic = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        long chunkId = readHeader(in, magic, CHUNK);
+        int iterations = in.readInt();
+        int rows = readRowCount(in);
+        PortfolioBook book = new PortfolioBook(rows);
+        for (int row = 0; row < rows; row++) {
+            book.add(in.readUTF(), in.readDouble(), in.readDouble(), in.readDouble());
+        }
+        return new ChunkRequest(chunkId, iterations, book);
+    }
+
+    public static void writeResult(DataOutputStream out, long chunkId, double[] results) throws IOException {
+        writeHeader(out, RESULT, chunkId);
+        out.writeInt(results.length);
+        for (double result : results) {
+            out.writeDouble(result);
+        }
+        out.flush();
+    }
+
+    public static void writeFailure(DataOutputStream out, long chunkId, String message) throws IOException {
+        writeHeader(out, FAILURE, chunkId);
+        out.writeUTF(message != null ? message : "");
+        out.flush();
+    }
+
+    public static ChunkResponse readResponse(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Not a risk worker frame: bad magic " + Integer.toHexString(magic));
+        }
+        byte type = in.readByte();
+        long chunkId = in.readLong();
+        if (type == FAILURE) {
+            return new ChunkResponse(chunkId, null, in.readUTF());
+        }
+        if (type != RESULT) {
+            throw new IOException("Unexpected frame type " + type);
+        }
+        double[] results = new double[readRowCount(in)];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = in.readDouble();
+        }
+        return new ChunkResponse(chunkId, results, null);
+    }
+
+    private static void writeHeader(DataOutputStream out, byte type, long chunkId) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(type);
+        out.writeLong(chunkId);
+    }
+
+    private static long readHeader(DataInputStream in, int magic, byte expectedType) throws IOException {
+        if (magic != MAGIC) {
+            throw new IOException("Not a risk coordinator frame: bad magic " + Integer.toHexString(magic));
+        }
+        byte type = in.readByte();
+        if (type != expectedType) {
+            throw new IOException("Unexpected frame type " + type);
+        }
+        return in.readLong();
+    }
+
+    private static int readRowCount(DataInputStream in) throws IOException {
+        int rows = in.readInt();
+        if (rows < 0 || rows > MAX_ROWS) {
+            throw new IOException("Row count out of range: " + rows);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,123 @@
+package com.exparal.demo.distributed;
+
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.ForkJoinRiskEngine;
+import com.exparal.demo.service.RiskKernels;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Worker side of distributed execution: serves CHUNK frames from RiskCoordinator connections
+// and computes each chunk with the fork/join engine of its own FinancialCalculationService.
+// Every connection gets a virtual thread; chunks from different connections share the
+// service's pool. Run it as its own JVM with main(), or in-process for tests.
+public class RiskWorker implements Closeable {
+
+    private final FinancialCalculationService calculationService;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    // Listens on all interfaces, so coordinators on other hosts can connect
+    public RiskWorker(FinancialCalculationService calculationService, int port) throws IOException {
+        this(calculationService, null, port);
+    }
+
+    // A null bindAddress is the wildcard address
+    public RiskWorker(FinancialCalculationService calculationService, InetAddress bindAddress, int port)
+            throws IOException {
+        this.calculationService = calculationService;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(bindAddress, port));
+        // Platform (non-daemon) thread, so a standalone worker JVM stays up until closed
+        Thread.ofPlatform().name("RiskWorker-accept-" + getPort()).start(this::acceptLoop);
+    }
+
+    // Bound port, useful when constructed with port 0
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    // Address a coordinator on this host can connect to: loopback when bound to the wildcard
+    public InetSocketAddress getAddress() {
+        InetAddress address = serverSocket.getInetAddress();
+        return new InetSocketAddress(address.isAnyLocalAddress() ? InetAddress.getLoopbackAddress() : address,
+                getPort());
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                openSockets.add(socket);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                // Closed by close(), or a failed accept; either way keep the loop condition in charge
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            RiskWireProtocol.ChunkRequest request;
+            while ((request = RiskWireProtocol.readChunk(in)) != null) {
+                double[] results = new double[request.book().size()];
+                try {
+                    int[] iterations = new int[results.length];
+                    Arrays.fill(iterations, request.iterations());
+                    calculationService.calculateRiskMetricsForkJoin(request.book(), iterations, results,
+                            ForkJoinRiskEngine.DEFAULT_LEAF_SIZE);
+                } catch (RuntimeException e) {
+                    RiskWireProtocol.writeFailure(out, request.chunkId(), e.toString());
+                    continue;
+                }
+                RiskWireProtocol.writeResult(out, request.chunkId(), results);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Coordinator went away or sent a frame that does not decode: drop the connection
+            // rather than let the exception kill the connection thread unlogged
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+        connections.shutdownNow();
+        calculationService.shutdown();
+    }
+
+    // Usage: RiskWorker <port> [parallelism] [iterations] [bindAddress]. Binds to all interfaces
+    // unless bindAddress is given. Prints "RiskWorker listening on <port>" once bound, so a parent
+    // process can start workers on port 0 and read where they listen.
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : FinancialCalculationService.DEFAULT_ITERATIONS;
+        InetAddress bindAddress = args.length > 3 ? InetAddress.getByName(args[3]) : null;
+        RiskWorker worker = new RiskWorker(new FinancialCalculationService(parallelism, iterations, RiskKernels.select()),
+                bindAddress, port);
+        System.out.println("RiskWorker listening on " + worker.getPort());
+        System.out.flush();
+    }
+}
@@ -0,0 +1,173 @@
+package com.exparal.demo.io;
+
+import com.exparal.demo.model.PortfolioColumns;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.exparal.demo.io.PortfolioFileFormat.BYTE_ORDER;
+import static com.exparal.demo.io.PortfolioFileFormat.COUNT_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.EXPECTED_RETURN_OFFSET_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.HEADER_BYTES;
+import static com.exparal.demo.io.PortfolioFileFormat.ID_DATA_LENGTH_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.ID_DATA_OFFSET_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.ID_INDEX_OFFSET_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.MAGIC;
+import static com.exparal.demo.io.PortfolioFileFormat.MAGIC_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.NOTIONAL_OFFSET_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.VERSION;
+import static com.exparal.demo.io.PortfolioFileFormat.VERSION_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.VOLATILITY_OFFSET_POSITION;
+
+// Read-only view of a binary portfolio file mapped with FileChannel.map.
+// Every section is mapped separately and read in place: the double columns are DoubleBuffer
+// views over the page cache, so opening a file costs a header read and no heap per row.
+// Ids are decoded from the mapped UTF-8 section only when asked for.
+//
+// slice() and partition() return views over contiguous row ranges. A row range is also a
+// contiguous byte range of each column, so partitions can be handed to separate ForkJoin
+// workers without copying or sharing any buffer position.
+public final class MappedPortfolioFile implements PortfolioColumns {
+
+    private final int firstRow;
+    private final int size;
+    private final DoubleBuffer notional;
+    private final DoubleBuffer expectedReturn;
+    private final DoubleBuffer volatility;
+    private final IntBuffer idIndex;
+    private final ByteBuffer idData;
+
+    private MappedPortfolioFile(int firstRow, int size, DoubleBuffer notional, DoubleBuffer expectedReturn,
+                                DoubleBuffer volatility, IntBuffer idIndex, ByteBuffer idData) {
+        this.firstRow = firstRow;
+        this.size = size;
+        this.notional = notional;
+        this.expectedReturn = expectedReturn;
+        this.volatility = volatility;
+        this.idIndex = idIndex;
+        this.idData = idData;
+    }
+
+    // The channel is closed once the sections are mapped; mappings stay valid until garbage collected
+    public static MappedPortfolioFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a portfolio file, shorter than the header: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(BYTE_ORDER);
+            if (header.getInt(MAGIC_POSITION) != MAGIC) {
+                throw new IOException("Not a portfolio file, bad magic: " + path);
+            }
+            if (header.getInt(VERSION_POSITION) != VERSION) {
+                throw new IOException("Unsupported portfolio file version " + header.getInt(VERSION_POSITION)
+                        + ": " + path);
+            }
+
+            long count = header.getLong(COUNT_POSITION);
+            long columnBytes = count * Double.BYTES;
+            long idDataOffset = header.getLong(ID_DATA_OFFSET_POSITION);
+            long idDataLength = header.getLong(ID_DATA_LENGTH_POSITION);
+            if (count < 0 || columnBytes > Integer.MAX_VALUE) {
+                throw new IOException("Unsupported portfolio count " + count + ": " + path);
+            }
+            if (idDataOffset + idDataLength > channel.size()) {
+                throw new IOException("Truncated portfolio file, expected " + (idDataOffset + idDataLength)
+                        + " bytes but found " + channel.size() + ": " + path);
+            }
+
+            return new MappedPortfolioFile(0, (int) count,
+                    map(channel, header.getLong(NOTIONAL_OFFSET_POSITION), columnBytes).asDoubleBuffer(),
+                    map(channel, header.getLong(EXPECTED_RETURN_OFFSET_POSITION), columnBytes).asDoubleBuffer(),
+                    map(channel, header.getLong(VOLATILITY_OFFSET_POSITION), columnBytes).asDoubleBuffer(),
+                    map(channel, header.getLong(ID_INDEX_OFFSET_POSITION), (count + 1) * Integer.BYTES).asIntBuffer(),
+                    map(channel, idDataOffset, idDataLength));
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        buffer.order(BYTE_ORDER);
+        return buffer;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Row of this view's row 0 in the whole file, so partition results can be placed by file row
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    @Override
+    public String getId(int row) {
+        checkRow(row);
+        int start = idIndex.get(row);
+        int end = idIndex.get(row + 1);
+        byte[] bytes = new byte[end - start];
+        idData.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public double getNotional(int row) {
+        checkRow(row);
+        return notional.get(row);
+    }
+
+    @Override
+    public double getExpectedReturn(int row) {
+        checkRow(row);
+        return expectedReturn.get(row);
+    }
+
+    @Override
+    public double getVolatility(int row) {
+        checkRow(row);
+        return volatility.get(row);
+    }
+
+    // View of rows [fromRow, toRow) backed by the same mapping
+    public MappedPortfolioFile slice(int fromRow, int toRow) {
+        if (fromRow < 0 || toRow > size || fromRow > toRow) {
+            throw new IndexOutOfBoundsException(
+                    "Range [" + fromRow + ", " + toRow + ") outside file of size " + size);
+        }
+        int length = toRow - fromRow;
+        return new MappedPortfolioFile(firstRow + fromRow, length,
+                notional.slice(fromRow, length),
+                expectedReturn.slice(fromRow, length),
+                volatility.slice(fromRow, length),
+                idIndex.slice(fromRow, length + 1),
+                idData);
+    }
+
+    // Splits the rows into at most `parts` contiguous views of near-equal size
+    public List<MappedPortfolioFile> partition(int parts) {
+        if (parts < 1) {
+            throw new IllegalArgumentException("Partition count must be positive: " + parts);
+        }
+        int count = Math.max(1, Math.min(parts, size));
+        List<MappedPortfolioFile> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            partitions.add(slice((int) ((long) size * i / count), (int) ((long) size * (i + 1) / count)));
+        }
+        return partitions;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " outside file of size " + size);
+        }
+    }
+}
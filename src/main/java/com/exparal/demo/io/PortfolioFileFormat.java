@@ -0,0 +1,33 @@
+package com.exparal.demo.io;
+
+import java.nio.ByteOrder;
+
+// Layout of the binary portfolio file (all values little-endian):
+//
+//   header   64 bytes   magic, version, row count and the offset of every section
+//   columns  3 x 8n     notional[], expectedReturn[], volatility[] as fixed-width doubles
+//   id index 4(n+1)     offsets of each id inside the id data section
+//   id data  variable   UTF-8 bytes of all ids, back to back
+//
+// Columns start on 8-byte boundaries so they can be viewed as DoubleBuffers in place.
+final class PortfolioFileFormat {
+
+    static final int MAGIC = 0x50464231; // "PFB1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // Header field positions
+    static final int MAGIC_POSITION = 0;
+    static final int VERSION_POSITION = 4;
+    static final int COUNT_POSITION = 8;
+    static final int NOTIONAL_OFFSET_POSITION = 16;
+    static final int EXPECTED_RETURN_OFFSET_POSITION = 24;
+    static final int VOLATILITY_OFFSET_POSITION = 32;
+    static final int ID_INDEX_OFFSET_POSITION = 40;
+    static final int ID_DATA_OFFSET_POSITION = 48;
+    static final int ID_DATA_LENGTH_POSITION = 56;
+
+    private PortfolioFileFormat() {
+    }
+}
@@ -0,0 +1,116 @@
+package com.exparal.demo.io;
+
+import com.exparal.demo.model.PortfolioColumns;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.exparal.demo.io.PortfolioFileFormat.BYTE_ORDER;
+import static com.exparal.demo.io.PortfolioFileFormat.COUNT_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.EXPECTED_RETURN_OFFSET_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.HEADER_BYTES;
+import static com.exparal.demo.io.PortfolioFileFormat.ID_DATA_LENGTH_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.ID_DATA_OFFSET_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.ID_INDEX_OFFSET_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.MAGIC;
+import static com.exparal.demo.io.PortfolioFileFormat.MAGIC_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.NOTIONAL_OFFSET_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.VERSION;
+import static com.exparal.demo.io.PortfolioFileFormat.VERSION_POSITION;
+import static com.exparal.demo.io.PortfolioFileFormat.VOLATILITY_OFFSET_POSITION;
+
+// Writes portfolios in the binary layout described in PortfolioFileFormat
+public final class PortfolioFileWriter {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private PortfolioFileWriter() {
+    }
+
+    public static void write(Path path, PortfolioColumns portfolios) throws IOException {
+        int count = portfolios.size();
+        byte[][] ids = new byte[count][];
+        long idDataLength = 0;
+        for (int row = 0; row < count; row++) {
+            ids[row] = portfolios.getId(row).getBytes(StandardCharsets.UTF_8);
+            idDataLength += ids[row].length;
+        }
+        if (idDataLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Id data exceeds 2 GB: " + idDataLength + " bytes");
+        }
+
+        long notionalOffset = HEADER_BYTES;
+        long expectedReturnOffset = notionalOffset + (long) count * Double.BYTES;
+        long volatilityOffset = expectedReturnOffset + (long) count * Double.BYTES;
+        long idIndexOffset = volatilityOffset + (long) count * Double.BYTES;
+        long idDataOffset = idIndexOffset + (long) (count + 1) * Integer.BYTES;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES).order(BYTE_ORDER);
+
+            buffer.putInt(MAGIC_POSITION, MAGIC)
+                    .putInt(VERSION_POSITION, VERSION)
+                    .putLong(COUNT_POSITION, count)
+                    .putLong(NOTIONAL_OFFSET_POSITION, notionalOffset)
+                    .putLong(EXPECTED_RETURN_OFFSET_POSITION, expectedReturnOffset)
+                    .putLong(VOLATILITY_OFFSET_POSITION, volatilityOffset)
+                    .putLong(ID_INDEX_OFFSET_POSITION, idIndexOffset)
+                    .putLong(ID_DATA_OFFSET_POSITION, idDataOffset)
+                    .putLong(ID_DATA_LENGTH_POSITION, idDataLength);
+            buffer.position(HEADER_BYTES);
+
+            for (int row = 0; row < count; row++) {
+                ensureRemaining(channel, buffer, Double.BYTES);
+                buffer.putDouble(portfolios.getNotional(row));
+            }
+            for (int row = 0; row < count; row++) {
+                ensureRemaining(channel, buffer, Double.BYTES);
+                buffer.putDouble(portfolios.getExpectedReturn(row));
+            }
+            for (int row = 0; row < count; row++) {
+                ensureRemaining(channel, buffer, Double.BYTES);
+                buffer.putDouble(portfolios.getVolatility(row));
+            }
+
+            int idOffset = 0;
+            for (int row = 0; row <= count; row++) {
+                ensureRemaining(channel, buffer, Integer.BYTES);
+                buffer.putInt(idOffset);
+                if (row < count) {
+                    idOffset += ids[row].length;
+                }
+            }
+            for (byte[] id : ids) {
+                int written = 0;
+                while (written < id.length) {
+                    ensureRemaining(channel, buffer, 1);
+                    int length = Math.min(buffer.remaining(), id.length - written);
+                    buffer.put(id, written, length);
+                    written += length;
+                }
+            }
+
+            flush(channel, buffer);
+            channel.force(false);
+        }
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
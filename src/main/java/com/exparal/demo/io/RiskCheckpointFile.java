@@ -0,0 +1,338 @@
+package com.exparal.demo.io;
+
+import com.exparal.demo.model.PortfolioColumns;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32C;
+
+import static com.exparal.demo.io.RiskCheckpointFormat.BYTE_ORDER;
+import static com.exparal.demo.io.RiskCheckpointFormat.CHUNK_ROWS_POSITION;
+import static com.exparal.demo.io.RiskCheckpointFormat.FINGERPRINT_POSITION;
+import static com.exparal.demo.io.RiskCheckpointFormat.HEADER_BYTES;
+import static com.exparal.demo.io.RiskCheckpointFormat.HEADER_CRC_POSITION;
+import static com.exparal.demo.io.RiskCheckpointFormat.ITERATIONS_POSITION;
+import static com.exparal.demo.io.RiskCheckpointFormat.MAGIC;
+import static com.exparal.demo.io.RiskCheckpointFormat.MAGIC_POSITION;
+import static com.exparal.demo.io.RiskCheckpointFormat.RECORD_OVERHEAD_BYTES;
+import static com.exparal.demo.io.RiskCheckpointFormat.RECORD_PREFIX_BYTES;
+import static com.exparal.demo.io.RiskCheckpointFormat.ROWS_POSITION;
+import static com.exparal.demo.io.RiskCheckpointFormat.SEEDED_POSITION;
+import static com.exparal.demo.io.RiskCheckpointFormat.SEED_POSITION;
+import static com.exparal.demo.io.RiskCheckpointFormat.VERSION;
+import static com.exparal.demo.io.RiskCheckpointFormat.VERSION_POSITION;
+
+// Write-ahead result log of one batch, in the layout described in RiskCheckpointFormat.
+// open() replays the chunks an earlier run of the same batch left behind into the caller's
+// results and cuts off whatever follows the last intact record; append() adds finished chunks
+// and sync() makes everything appended so far durable. Appends come from one thread at a time.
+public final class RiskCheckpointFile implements Closeable {
+
+    // What a checkpoint belongs to. Resuming against a different book, chunking, iteration count
+    // or seed would mix incompatible metrics, so open() refuses it.
+    public record Batch(int rows, int chunkRows, int iterations, long seed, boolean seeded, long fingerprint) {
+
+        public Batch {
+            if (rows < 0 || chunkRows < 1 || iterations < 1) {
+                throw new IllegalArgumentException(
+                        "Rows must not be negative, chunk rows and iterations must be positive");
+            }
+        }
+
+        public static Batch of(PortfolioColumns book, int chunkRows, int iterations) {
+            return new Batch(book.size(), chunkRows, iterations, 0, false, RiskCheckpointFile.fingerprint(book));
+        }
+
+        public static Batch of(PortfolioColumns book, int chunkRows, int iterations, long seed) {
+            return new Batch(book.size(), chunkRows, iterations, seed, true, RiskCheckpointFile.fingerprint(book));
+        }
+
+        public int chunkCount() {
+            return (int) (((long) rows + chunkRows - 1) / chunkRows);
+        }
+
+        public int chunkFrom(int chunk) {
+            return (int) Math.min((long) chunk * chunkRows, rows);
+        }
+
+        public int chunkTo(int chunk) {
+            return (int) Math.min((long) (chunk + 1) * chunkRows, rows);
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Batch batch;
+    private final BitSet completedChunks;
+    private final int recoveredRows;
+    private final long discardedBytes;
+    private final CRC32C checksum = new CRC32C();
+    private final ByteBuffer record;
+    private long bytesWritten;
+    private int syncs;
+    private long writeNanos;
+    private long syncNanos;
+    private long lastSyncNanos = System.nanoTime();
+
+    private RiskCheckpointFile(Path path, FileChannel channel, Batch batch, BitSet completedChunks,
+                               int recoveredRows, long discardedBytes) {
+        this.path = path;
+        this.channel = channel;
+        this.batch = batch;
+        this.completedChunks = completedChunks;
+        this.recoveredRows = recoveredRows;
+        this.discardedBytes = discardedBytes;
+        this.record = ByteBuffer.allocate(RECORD_OVERHEAD_BYTES + batch.chunkRows() * Double.BYTES).order(BYTE_ORDER);
+    }
+
+    // Creates the file for batch, or reopens it and copies every intact chunk into results
+    public static RiskCheckpointFile open(Path path, Batch batch, double[] results) throws IOException {
+        if (results.length < batch.rows()) {
+            throw new IllegalArgumentException(
+                    "Result buffer holds " + results.length + " values but the batch has " + batch.rows() + " rows");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            BitSet completedChunks = new BitSet(batch.chunkCount());
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                // New file, or a crash before the header was durable: nothing to resume
+                channel.truncate(0);
+                writeHeader(channel, batch);
+                channel.position(HEADER_BYTES);
+                return new RiskCheckpointFile(path, channel, batch, completedChunks, 0, size);
+            }
+
+            checkHeader(channel, batch, path);
+            long end = replay(channel, batch, results, completedChunks);
+            if (end < size) {
+                channel.truncate(end);
+                channel.force(false);
+            }
+            channel.position(end);
+            int recoveredRows = 0;
+            for (int chunk = completedChunks.nextSetBit(0); chunk >= 0; chunk = completedChunks.nextSetBit(chunk + 1)) {
+                recoveredRows += batch.chunkTo(chunk) - batch.chunkFrom(chunk);
+            }
+            return new RiskCheckpointFile(path, channel, batch, completedChunks, recoveredRows, size - end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public boolean isCompleted(int chunk) {
+        return completedChunks.get(chunk);
+    }
+
+    public int getCompletedChunkCount() {
+        return completedChunks.cardinality();
+    }
+
+    // Rows replayed from an earlier run when the file was opened
+    public int getRecoveredRows() {
+        return recoveredRows;
+    }
+
+    // Bytes cut off after the last intact record when the file was opened
+    public long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public int getSyncCount() {
+        return syncs;
+    }
+
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    public long getSyncNanos() {
+        return syncNanos;
+    }
+
+    // Logs the metrics of one whole chunk; durable after the next sync()
+    public void append(int chunk, double[] results) throws IOException {
+        if (chunk < 0 || chunk >= batch.chunkCount()) {
+            throw new IndexOutOfBoundsException("Chunk " + chunk + " outside batch of " + batch.chunkCount());
+        }
+        if (completedChunks.get(chunk)) {
+            throw new IllegalStateException("Chunk " + chunk + " is already in the checkpoint");
+        }
+        long start = System.nanoTime();
+        int fromRow = batch.chunkFrom(chunk);
+        int rowCount = batch.chunkTo(chunk) - fromRow;
+        int length = RECORD_OVERHEAD_BYTES + rowCount * Double.BYTES;
+
+        record.clear();
+        record.putInt(fromRow).putInt(rowCount);
+        record.asDoubleBuffer().put(results, fromRow, rowCount);
+        record.position(RECORD_PREFIX_BYTES + rowCount * Double.BYTES);
+        checksum.reset();
+        checksum.update(record.array(), 0, record.position());
+        record.putInt((int) checksum.getValue());
+        record.flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+
+        completedChunks.set(chunk);
+        bytesWritten += length;
+        writeNanos += System.nanoTime() - start;
+    }
+
+    public void sync() throws IOException {
+        long start = System.nanoTime();
+        channel.force(false);
+        lastSyncNanos = System.nanoTime();
+        syncNanos += lastSyncNanos - start;
+        syncs++;
+    }
+
+    // Syncs only when the last sync is at least interval old, bounding the fsync rate
+    public boolean syncIfDue(long intervalNanos) throws IOException {
+        if (System.nanoTime() - lastSyncNanos < intervalNanos) {
+            return false;
+        }
+        sync();
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // CRC32C over every row's id, notional, expected return and volatility
+    public static long fingerprint(PortfolioColumns book) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer row = ByteBuffer.allocate(Integer.BYTES + 3 * Double.BYTES).order(BYTE_ORDER);
+        for (int i = 0; i < book.size(); i++) {
+            byte[] id = book.getId(i).getBytes(StandardCharsets.UTF_8);
+            row.clear();
+            row.putInt(id.length)
+                    .putDouble(book.getNotional(i))
+                    .putDouble(book.getExpectedReturn(i))
+                    .putDouble(book.getVolatility(i));
+            crc.update(row.array(), 0, row.position());
+            crc.update(id);
+        }
+        return crc.getValue();
+    }
+
+    private static void writeHeader(FileChannel channel, Batch batch) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+        header.putInt(MAGIC_POSITION, MAGIC)
+                .putInt(VERSION_POSITION, VERSION)
+                .putLong(ROWS_POSITION, batch.rows())
+                .putInt(CHUNK_ROWS_POSITION, batch.chunkRows())
+                .putInt(ITERATIONS_POSITION, batch.iterations())
+                .putLong(SEED_POSITION, batch.seed())
+                .putInt(SEEDED_POSITION, batch.seeded() ? 1 : 0)
+                .putLong(FINGERPRINT_POSITION, batch.fingerprint());
+        CRC32C crc = new CRC32C();
+        crc.update(header.array(), 0, HEADER_CRC_POSITION);
+        header.putInt(HEADER_CRC_POSITION, (int) crc.getValue());
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(false);
+    }
+
+    private static void checkHeader(FileChannel channel, Batch batch, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+        readFully(channel, header, 0);
+        CRC32C crc = new CRC32C();
+        crc.update(header.array(), 0, HEADER_CRC_POSITION);
+        if (header.getInt(MAGIC_POSITION) != MAGIC || header.getInt(HEADER_CRC_POSITION) != (int) crc.getValue()) {
+            throw new IOException("Not a risk checkpoint, bad magic or header checksum: " + path);
+        }
+        if (header.getInt(VERSION_POSITION) != VERSION) {
+            throw new IOException("Unsupported risk checkpoint version " + header.getInt(VERSION_POSITION)
+                    + ": " + path);
+        }
+        Batch stored = new Batch((int) header.getLong(ROWS_POSITION), header.getInt(CHUNK_ROWS_POSITION),
+                header.getInt(ITERATIONS_POSITION), header.getLong(SEED_POSITION),
+                header.getInt(SEEDED_POSITION) != 0, header.getLong(FINGERPRINT_POSITION));
+        if (!stored.equals(batch)) {
+            throw new IOException("Risk checkpoint belongs to a different batch (" + stored + "): " + path);
+        }
+    }
+
+    // Copies intact records into results and returns the offset just past the last of them
+    private static long replay(FileChannel channel, Batch batch, double[] results, BitSet completedChunks)
+            throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD_BYTES + batch.chunkRows() * Double.BYTES)
+                .order(BYTE_ORDER);
+        CRC32C crc = new CRC32C();
+        long position = HEADER_BYTES;
+        while (true) {
+            record.clear().limit(RECORD_PREFIX_BYTES);
+            if (!readFully(channel, record, position)) {
+                return position;
+            }
+            int fromRow = record.getInt(0);
+            int rowCount = record.getInt(Integer.BYTES);
+            if (fromRow < 0 || fromRow % batch.chunkRows() != 0 || fromRow >= batch.rows()) {
+                return position;
+            }
+            int chunk = fromRow / batch.chunkRows();
+            if (rowCount != batch.chunkTo(chunk) - fromRow || completedChunks.get(chunk)) {
+                return position;
+            }
+            int length = RECORD_OVERHEAD_BYTES + rowCount * Double.BYTES;
+            record.limit(length);
+            if (!readFully(channel, record, position + RECORD_PREFIX_BYTES)) {
+                return position;
+            }
+            crc.reset();
+            crc.update(record.array(), 0, length - Integer.BYTES);
+            if (record.getInt(length - Integer.BYTES) != (int) crc.getValue()) {
+                return position;
+            }
+            record.position(RECORD_PREFIX_BYTES);
+            record.asDoubleBuffer().get(results, fromRow, rowCount);
+            completedChunks.set(chunk);
+            position += length;
+        }
+    }
+
+    // Fills buffer from its position to its limit; false when the file ends first
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                return false;
+            }
+            offset += read;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package com.exparal.demo.io;
+
+import java.nio.ByteOrder;
+
+// Layout of the risk checkpoint file, an append-only log of finished chunks (little-endian):
+//
+//   header   64 bytes   magic, version, the batch it belongs to, CRC32C of the first 60 bytes
+//   records  12 + 8n    fromRow, rowCount, rowCount metrics as raw doubles, CRC32C of all before it
+//
+// Rows are implied by fromRow, so a record carries no ids and no per-row framing. A record is
+// only trusted if its checksum matches; recovery stops at the first record that is short or
+// fails the check, which is where a crash tore the last write.
+final class RiskCheckpointFormat {
+
+    static final int MAGIC = 0x52435031; // "RCP1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // Header field positions
+    static final int MAGIC_POSITION = 0;
+    static final int VERSION_POSITION = 4;
+    static final int ROWS_POSITION = 8;
+    static final int CHUNK_ROWS_POSITION = 16;
+    static final int ITERATIONS_POSITION = 20;
+    static final int SEED_POSITION = 24;
+    static final int SEEDED_POSITION = 32;
+    static final int FINGERPRINT_POSITION = 40;
+    static final int HEADER_CRC_POSITION = 60;
+
+    // Record framing around the metrics
+    static final int RECORD_PREFIX_BYTES = 2 * Integer.BYTES;
+    static final int RECORD_OVERHEAD_BYTES = RECORD_PREFIX_BYTES + Integer.BYTES;
+
+    private RiskCheckpointFormat() {
+    }
+}
@@ -0,0 +1,188 @@
+package com.exparal.demo.loadtest;
+
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.RiskKernel;
+import com.exparal.demo.service.RiskKernels;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Drives FinancialCalculationService through every cell of a LoadTestPlan and records each
+// batch's latency in an HdrHistogram.
+// Closed loop: a fixed number of clients each submit their next batch as soon as the last one
+// returns, so throughput is what the pool sustains at that concurrency.
+// Open loop: batches are released on a fixed schedule whatever the service is doing, each on its
+// own virtual thread, and latency is measured from the scheduled start rather than from when a
+// thread got round to it, so a stalled service cannot hide its queueing (coordinated omission).
+// Every parallelism gets a fresh service with its own custom pool, shut down after its cells.
+public class LoadGenerator {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final LoadTestPlan plan;
+    private final RiskKernel kernel;
+
+    public LoadGenerator(LoadTestPlan plan) {
+        this(plan, RiskKernels.select());
+    }
+
+    public LoadGenerator(LoadTestPlan plan, RiskKernel kernel) {
+        this.plan = plan;
+        this.kernel = kernel;
+    }
+
+    public LoadTestPlan getPlan() {
+        return plan;
+    }
+
+    public List<LoadTestResult> run() {
+        List<PortfolioBook> books = new ArrayList<>();
+        for (int size : plan.batchSizes()) {
+            books.add(SyntheticPortfolios.book(size));
+        }
+
+        List<LoadTestResult> results = new ArrayList<>();
+        int lowestParallelism = plan.parallelisms()[0];
+        for (int parallelism : plan.parallelisms()) {
+            FinancialCalculationService calculationService =
+                    new FinancialCalculationService(parallelism, plan.iterations(), kernel);
+            try {
+                for (PortfolioBook book : books) {
+                    for (LoadStrategy strategy : plan.strategies()) {
+                        // Paths that ignore the custom pool are measured once, with the first pool
+                        if (!strategy.followsParallelism() && parallelism != lowestParallelism) {
+                            continue;
+                        }
+                        for (int clients : plan.clients()) {
+                            results.add(report(runClosedLoop(calculationService, strategy, book, parallelism, clients)));
+                        }
+                        for (double rate : plan.arrivalRates()) {
+                            results.add(report(runOpenLoop(calculationService, strategy, book, parallelism, rate)));
+                        }
+                    }
+                }
+            } finally {
+                calculationService.shutdown();
+            }
+        }
+        return results;
+    }
+
+    LoadTestResult runClosedLoop(FinancialCalculationService calculationService, LoadStrategy strategy,
+                                 PortfolioBook book, int parallelism, int clients) {
+        Histogram latencies = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        AtomicLong lastFinish = new AtomicLong();
+        ExecutorService clientThreads = Executors.newFixedThreadPool(clients);
+        long measureStart = System.nanoTime() + plan.warmup().toNanos();
+        long measureEnd = measureStart + plan.duration().toNanos();
+        try {
+            List<Future<?>> running = new ArrayList<>(clients);
+            for (int client = 0; client < clients; client++) {
+                running.add(clientThreads.submit(() -> {
+                    double[] results = new double[book.size()];
+                    while (System.nanoTime() - measureStart < 0) {
+                        strategy.run(calculationService, book, results);
+                    }
+                    // At least one timed batch per client, even when one batch outlasts the window
+                    long finish;
+                    do {
+                        long start = System.nanoTime();
+                        strategy.run(calculationService, book, results);
+                        finish = System.nanoTime();
+                        latencies.recordValue(finish - start);
+                    } while (finish - measureEnd < 0);
+                    lastFinish.accumulateAndGet(finish, Math::max);
+                }));
+            }
+            for (Future<?> client : running) {
+                client.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Load test interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Load test failed", e.getCause());
+        } finally {
+            clientThreads.shutdownNow();
+        }
+        return result(strategy, LoadTestResult.Mode.CLOSED, book.size(), strategy.effectiveParallelism(parallelism),
+                clients, 0, latencies, lastFinish.get() - measureStart);
+    }
+
+    LoadTestResult runOpenLoop(FinancialCalculationService calculationService, LoadStrategy strategy,
+                               PortfolioBook book, int parallelism, double rate) {
+        Histogram latencies = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        AtomicLong lastFinish = new AtomicLong();
+        List<Future<?>> released = new ArrayList<>();
+        double intervalNanos = 1e9 / rate;
+        long scheduleStart = System.nanoTime();
+        long measureStart = scheduleStart + plan.warmup().toNanos();
+        long measureEnd = measureStart + plan.duration().toNanos();
+        ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (long request = 0; ; request++) {
+                long scheduled = scheduleStart + (long) (request * intervalNanos);
+                if (scheduled - measureEnd >= 0) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = scheduled - measureStart >= 0;
+                released.add(requests.submit(() -> {
+                    strategy.run(calculationService, book, new double[book.size()]);
+                    long finish = System.nanoTime();
+                    if (measured) {
+                        latencies.recordValue(finish - scheduled);
+                        lastFinish.accumulateAndGet(finish, Math::max);
+                    }
+                }));
+            }
+            // A saturated service finishes its backlog after the schedule ends; that tail is the result
+            for (Future<?> request : released) {
+                request.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Load test interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Load test failed", e.getCause());
+        } finally {
+            requests.shutdownNow();
+        }
+        return result(strategy, LoadTestResult.Mode.OPEN, book.size(), strategy.effectiveParallelism(parallelism),
+                0, rate, latencies, Math.max(lastFinish.get() - measureStart, measureEnd - measureStart));
+    }
+
+    private static LoadTestResult result(LoadStrategy strategy, LoadTestResult.Mode mode, int batchSize,
+                                         int parallelism, int clients, double rate, Histogram latencies,
+                                         long elapsedNanos) {
+        return new LoadTestResult(strategy, mode, batchSize, parallelism, clients, rate,
+                latencies.getTotalCount(), Math.max(elapsedNanos, 0) / 1e9, latencies.getMean() / 1e6,
+                millisAt(latencies, 50), millisAt(latencies, 90), millisAt(latencies, 99),
+                millisAt(latencies, 99.9), latencies.getMaxValue() / 1e6);
+    }
+
+    private static double millisAt(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static LoadTestResult report(LoadTestResult result) {
+        System.out.printf("%-11s %-6s %6d rows  p=%-3d %-11s %8.1f portfolios/s  p50 %8.2f ms  p99 %8.2f ms%n",
+                result.strategy(), result.mode(), result.batchSize(), result.parallelism(), result.load(),
+                result.portfoliosPerSecond(), result.p50Millis(), result.p99Millis());
+        return result;
+    }
+}
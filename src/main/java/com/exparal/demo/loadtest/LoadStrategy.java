@@ -0,0 +1,40 @@
+package com.exparal.demo.loadtest;
+
+import com.exparal.demo.model.PortfolioColumns;
+import com.exparal.demo.service.FinancialCalculationService;
+
+import java.util.concurrent.ForkJoinPool;
+
+// Columnar service paths the load generator can drive, one batch per request.
+// Only the custom-pool paths follow the swept parallelism: the sequential path always runs on
+// one thread, and the common pool's size is fixed when the JVM starts
+// (-Djava.util.concurrent.ForkJoinPool.common.parallelism), so those two are measured once per
+// batch size at the parallelism they actually have.
+public enum LoadStrategy {
+    SEQUENTIAL,
+    COMMON_POOL,
+    CUSTOM_POOL,
+    FORK_JOIN;
+
+    public void run(FinancialCalculationService calculationService, PortfolioColumns book, double[] results) {
+        switch (this) {
+            case SEQUENTIAL -> calculationService.calculateRiskMetricsSequential(book, results);
+            case COMMON_POOL -> calculationService.calculateRiskMetricsParallel(book, results);
+            case CUSTOM_POOL -> calculationService.calculateRiskMetricsCustomPool(book, results);
+            case FORK_JOIN -> calculationService.calculateRiskMetricsForkJoin(book, results);
+        }
+    }
+
+    public boolean followsParallelism() {
+        return this == CUSTOM_POOL || this == FORK_JOIN;
+    }
+
+    // Threads the strategy really uses when the custom pool is sized to parallelism
+    public int effectiveParallelism(int parallelism) {
+        return switch (this) {
+            case SEQUENTIAL -> 1;
+            case COMMON_POOL -> ForkJoinPool.getCommonPoolParallelism();
+            case CUSTOM_POOL, FORK_JOIN -> parallelism;
+        };
+    }
+}
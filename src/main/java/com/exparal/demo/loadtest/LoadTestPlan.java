@@ -0,0 +1,116 @@
+package com.exparal.demo.loadtest;
+
+import com.exparal.demo.service.FinancialCalculationService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// What a load test sweeps: every batch size x parallelism x strategy cell is run closed-loop
+// once per client count and open-loop once per arrival rate (batches per second).
+// Each cell runs untimed for warmup, then for duration with every batch's latency recorded.
+public record LoadTestPlan(int[] batchSizes, int[] parallelisms, List<LoadStrategy> strategies,
+                           int[] clients, double[] arrivalRates, int iterations,
+                           Duration warmup, Duration duration) {
+
+    public LoadTestPlan {
+        if (batchSizes.length == 0 || parallelisms.length == 0 || strategies.isEmpty()) {
+            throw new IllegalArgumentException("Batch sizes, parallelisms and strategies must not be empty");
+        }
+        if (clients.length == 0 && arrivalRates.length == 0) {
+            throw new IllegalArgumentException("At least one client count or arrival rate is required");
+        }
+        if (Arrays.stream(batchSizes).anyMatch(size -> size < 1)
+                || Arrays.stream(parallelisms).anyMatch(parallelism -> parallelism < 1)
+                || Arrays.stream(clients).anyMatch(count -> count < 1)
+                || Arrays.stream(arrivalRates).anyMatch(rate -> !(rate > 0))) {
+            throw new IllegalArgumentException("Batch sizes, parallelisms, clients and arrival rates must be positive");
+        }
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        }
+        if (warmup.isNegative() || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Warm-up must not be negative and duration must be positive");
+        }
+        batchSizes = batchSizes.clone();
+        parallelisms = Arrays.stream(parallelisms).sorted().distinct().toArray();
+        strategies = List.copyOf(strategies);
+        clients = clients.clone();
+        arrivalRates = arrivalRates.clone();
+    }
+
+    // Sizes from the old scalability table, parallelism doubling up to the core count,
+    // one closed-loop client, no open-loop runs
+    public static LoadTestPlan defaults() {
+        return new LoadTestPlan(new int[]{100, 1000, 10000}, doublingUpTo(Runtime.getRuntime().availableProcessors()),
+                List.of(LoadStrategy.values()), new int[]{1}, new double[0],
+                FinancialCalculationService.DEFAULT_ITERATIONS, Duration.ofSeconds(2), Duration.ofSeconds(5));
+    }
+
+    // 1, 2, 4, ... max, always ending with max itself
+    public static int[] doublingUpTo(int max) {
+        List<Integer> steps = new ArrayList<>();
+        for (int parallelism = 1; parallelism < max; parallelism *= 2) {
+            steps.add(parallelism);
+        }
+        steps.add(max);
+        return steps.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Overrides from key=value arguments: sizes, parallelism, strategies, clients, rates
+    // (comma-separated), iterations, warmup and duration (ISO-8601 or plain seconds)
+    public LoadTestPlan with(String... arguments) {
+        LoadTestPlan plan = this;
+        for (String argument : arguments) {
+            int split = argument.indexOf('=');
+            if (split < 1) {
+                throw new IllegalArgumentException("Expected key=value: " + argument);
+            }
+            String key = argument.substring(0, split).trim().toLowerCase(Locale.ROOT);
+            String value = argument.substring(split + 1).trim();
+            plan = switch (key) {
+                case "sizes" -> new LoadTestPlan(parseInts(value), plan.parallelisms, plan.strategies, plan.clients,
+                        plan.arrivalRates, plan.iterations, plan.warmup, plan.duration);
+                case "parallelism" -> new LoadTestPlan(plan.batchSizes, parseInts(value), plan.strategies,
+                        plan.clients, plan.arrivalRates, plan.iterations, plan.warmup, plan.duration);
+                case "strategies" -> new LoadTestPlan(plan.batchSizes, plan.parallelisms, parseStrategies(value),
+                        plan.clients, plan.arrivalRates, plan.iterations, plan.warmup, plan.duration);
+                case "clients" -> new LoadTestPlan(plan.batchSizes, plan.parallelisms, plan.strategies,
+                        parseInts(value), plan.arrivalRates, plan.iterations, plan.warmup, plan.duration);
+                case "rates" -> new LoadTestPlan(plan.batchSizes, plan.parallelisms, plan.strategies, plan.clients,
+                        parseDoubles(value), plan.iterations, plan.warmup, plan.duration);
+                case "iterations" -> new LoadTestPlan(plan.batchSizes, plan.parallelisms, plan.strategies,
+                        plan.clients, plan.arrivalRates, Integer.parseInt(value), plan.warmup, plan.duration);
+                case "warmup" -> new LoadTestPlan(plan.batchSizes, plan.parallelisms, plan.strategies, plan.clients,
+                        plan.arrivalRates, plan.iterations, parseDuration(value), plan.duration);
+                case "duration" -> new LoadTestPlan(plan.batchSizes, plan.parallelisms, plan.strategies,
+                        plan.clients, plan.arrivalRates, plan.iterations, plan.warmup, parseDuration(value));
+                default -> throw new IllegalArgumentException("Unknown load test setting: " + key);
+            };
+        }
+        return plan;
+    }
+
+    private static int[] parseInts(String value) {
+        return value.isBlank() ? new int[0]
+                : Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static double[] parseDoubles(String value) {
+        return value.isBlank() ? new double[0]
+                : Arrays.stream(value.split(",")).map(String::trim).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    private static List<LoadStrategy> parseStrategies(String value) {
+        return Arrays.stream(value.split(","))
+                .map(name -> LoadStrategy.valueOf(name.trim().toUpperCase(Locale.ROOT)))
+                .toList();
+    }
+
+    private static Duration parseDuration(String value) {
+        return value.toUpperCase(Locale.ROOT).startsWith("P") ? Duration.parse(value)
+                : Duration.ofMillis(Math.round(Double.parseDouble(value) * 1000));
+    }
+}
@@ -0,0 +1,36 @@
+package com.exparal.demo.loadtest;
+
+import java.util.Locale;
+
+// One measured cell of a load test. Closed-loop cells have a client count and no offered rate;
+// open-loop cells have the offered rate in batches per second and no client count.
+// Latencies are per batch in milliseconds; for open-loop cells they run from the batch's
+// scheduled start, so time spent queued behind a saturated pool is counted.
+public record LoadTestResult(LoadStrategy strategy, Mode mode, int batchSize, int parallelism, int clients,
+                             double offeredRate, long batches, double elapsedSeconds, double meanMillis,
+                             double p50Millis, double p90Millis, double p99Millis, double p999Millis,
+                             double maxMillis) {
+
+    public enum Mode {
+        CLOSED,
+        OPEN
+    }
+
+    public double batchesPerSecond() {
+        return elapsedSeconds > 0 ? batches / elapsedSeconds : 0;
+    }
+
+    public double portfoliosPerSecond() {
+        return batchesPerSecond() * batchSize;
+    }
+
+    // Open-loop cells that could not keep up with the offered rate
+    public boolean saturated() {
+        return mode == Mode.OPEN && batchesPerSecond() < 0.95 * offeredRate;
+    }
+
+    // Closed-loop client count or open-loop rate, for labels
+    public String load() {
+        return mode == Mode.CLOSED ? clients + " clients" : String.format(Locale.ROOT, "%.1f/s", offeredRate);
+    }
+}
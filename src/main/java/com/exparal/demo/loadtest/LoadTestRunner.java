@@ -0,0 +1,35 @@
+package com.exparal.demo.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Command-line entry point: ./mvnw -Ploadtest compile exec:exec -Dloadtest.args="sizes=1000 parallelism=1,2,4,8"
+// Arguments are LoadTestPlan overrides plus out=<directory> for the report (default target/loadtest).
+// Runs without the Spring context, so nothing else competes for the cores.
+public final class LoadTestRunner {
+
+    private static final String DEFAULT_OUTPUT = "target/loadtest";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path output = Path.of(DEFAULT_OUTPUT);
+        List<String> overrides = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("out=")) {
+                output = Path.of(arg.substring("out=".length()));
+            } else {
+                overrides.add(arg);
+            }
+        }
+
+        LoadTestPlan plan = LoadTestPlan.defaults().with(overrides.toArray(String[]::new));
+        ScalabilityReport report = new ScalabilityReport(new LoadGenerator(plan).run());
+        Path page = report.write(output);
+        System.out.print(report.summary());
+        System.out.println("Scalability report written to " + page.toAbsolutePath());
+    }
+}
@@ -0,0 +1,167 @@
+package com.exparal.demo.loadtest;
+
+import java.util.Arrays;
+
+// Amdahl or Universal Scalability Law model of throughput against parallelism p:
+//   X(p) = lambda * p / (1 + sigma * (p - 1) + kappa * p * (p - 1))
+// sigma is the serial (contention) fraction, kappa the crosstalk (coherency) cost; Amdahl's law is
+// the kappa = 0 case. Rearranged as p / X(p) = (1 + sigma (p - 1) + kappa p (p - 1)) / lambda the
+// model is linear in 1/lambda, sigma/lambda and kappa/lambda, so it is fitted by ordinary least
+// squares without needing a single-threaded measurement. Coefficients outside their physical range
+// (sigma in [0, 1], kappa >= 0) are pinned to the nearest bound and the rest refitted.
+public record ScalabilityFit(Model model, double lambda, double sigma, double kappa, double rSquared) {
+
+    public enum Model {
+        AMDAHL,
+        USL
+    }
+
+    // Each candidate lists the combinations of the 1, (p - 1) and p (p - 1) terms it fits a
+    // coefficient to: free sigma, sigma = 0, or sigma = 1, each with and without kappa under USL
+    private static final double[] CONSTANT = {1, 0, 0};
+    private static final double[] CONTENTION = {0, 1, 0};
+    private static final double[] SERIAL = {1, 1, 0};
+    private static final double[] CROSSTALK = {0, 0, 1};
+    private static final double[][][] AMDAHL_CANDIDATES = {
+            {CONSTANT, CONTENTION}, {CONSTANT}, {SERIAL}};
+    private static final double[][][] USL_CANDIDATES = {
+            {CONSTANT, CONTENTION, CROSSTALK}, {CONSTANT, CONTENTION}, {CONSTANT, CROSSTALK}, {CONSTANT},
+            {SERIAL, CROSSTALK}, {SERIAL}};
+
+    public static ScalabilityFit fit(Model model, int[] parallelisms, double[] throughputs) {
+        int points = parallelisms.length;
+        if (points != throughputs.length) {
+            throw new IllegalArgumentException("Need one throughput per parallelism");
+        }
+        int terms = model == Model.USL ? 3 : 2;
+        if (Arrays.stream(parallelisms).distinct().count() < terms) {
+            throw new IllegalArgumentException(model + " needs at least " + terms + " distinct parallelisms");
+        }
+        double[] y = new double[points];
+        double[][] basis = new double[points][3];
+        for (int i = 0; i < points; i++) {
+            if (parallelisms[i] < 1 || !(throughputs[i] > 0)) {
+                throw new IllegalArgumentException("Parallelism and throughput must be positive");
+            }
+            double p = parallelisms[i];
+            y[i] = p / throughputs[i];
+            basis[i][0] = 1;
+            basis[i][1] = p - 1;
+            basis[i][2] = p * (p - 1);
+        }
+
+        // Candidate models as combinations of the three terms; the lowest residual among physical fits
+        // (0 <= sigma <= 1, kappa >= 0) wins, so an out-of-range coefficient is pinned to its bound
+        double[] best = null;
+        double bestResidual = Double.POSITIVE_INFINITY;
+        for (double[][] candidate : model == Model.USL ? USL_CANDIDATES : AMDAHL_CANDIDATES) {
+            double[] coefficients = leastSquares(basis, y, candidate);
+            if (coefficients == null || coefficients[0] <= 0 || coefficients[1] < 0
+                    || coefficients[1] > coefficients[0] || coefficients[2] < 0) {
+                continue;
+            }
+            double residual = 0;
+            for (int i = 0; i < points; i++) {
+                double error = y[i] - dot(basis[i], coefficients);
+                residual += error * error;
+            }
+            if (residual < bestResidual) {
+                bestResidual = residual;
+                best = coefficients;
+            }
+        }
+        if (best == null) {
+            throw new IllegalArgumentException("No " + model + " fit with physical coefficients");
+        }
+
+        double lambda = 1 / best[0];
+        ScalabilityFit unscored = new ScalabilityFit(model, lambda, best[1] * lambda, best[2] * lambda, Double.NaN);
+        return new ScalabilityFit(model, lambda, unscored.sigma, unscored.kappa,
+                unscored.rSquared(parallelisms, throughputs));
+    }
+
+    public double throughput(double parallelism) {
+        return lambda * parallelism / (1 + sigma * (parallelism - 1) + kappa * parallelism * (parallelism - 1));
+    }
+
+    // Throughput relative to one thread
+    public double speedup(double parallelism) {
+        return throughput(parallelism) / lambda;
+    }
+
+    // Where adding threads stops adding throughput: sqrt((1 - sigma) / kappa) under USL,
+    // never under Amdahl (throughput only flattens towards lambda / sigma)
+    public double peakParallelism() {
+        return kappa > 0 ? Math.max(1, Math.sqrt((1 - sigma) / kappa)) : Double.POSITIVE_INFINITY;
+    }
+
+    public double peakSpeedup() {
+        double peak = peakParallelism();
+        if (Double.isFinite(peak)) {
+            return speedup(peak);
+        }
+        return sigma > 0 ? 1 / sigma : Double.POSITIVE_INFINITY;
+    }
+
+    private double rSquared(int[] parallelisms, double[] throughputs) {
+        double mean = Arrays.stream(throughputs).average().orElse(0);
+        double residual = 0;
+        double total = 0;
+        for (int i = 0; i < parallelisms.length; i++) {
+            double error = throughputs[i] - throughput(parallelisms[i]);
+            residual += error * error;
+            total += (throughputs[i] - mean) * (throughputs[i] - mean);
+        }
+        return total > 0 ? 1 - residual / total : 1;
+    }
+
+    // Normal equations for one coefficient per candidate term, solved by Gaussian elimination;
+    // returns the resulting 1, (p - 1) and p (p - 1) coefficients, or null when singular
+    private static double[] leastSquares(double[][] basis, double[] y, double[][] terms) {
+        int n = terms.length;
+        double[][] system = new double[n][n + 1];
+        for (int i = 0; i < basis.length; i++) {
+            for (int r = 0; r < n; r++) {
+                double row = dot(basis[i], terms[r]);
+                for (int c = 0; c < n; c++) {
+                    system[r][c] += row * dot(basis[i], terms[c]);
+                }
+                system[r][n] += row * y[i];
+            }
+        }
+        for (int pivot = 0; pivot < n; pivot++) {
+            int largest = pivot;
+            for (int r = pivot + 1; r < n; r++) {
+                if (Math.abs(system[r][pivot]) > Math.abs(system[largest][pivot])) {
+                    largest = r;
+                }
+            }
+            double[] swap = system[pivot];
+            system[pivot] = system[largest];
+            system[largest] = swap;
+            if (Math.abs(system[pivot][pivot]) < 1e-300) {
+                return null;
+            }
+            for (int r = 0; r < n; r++) {
+                if (r != pivot) {
+                    double factor = system[r][pivot] / system[pivot][pivot];
+                    for (int c = pivot; c <= n; c++) {
+                        system[r][c] -= factor * system[pivot][c];
+                    }
+                }
+            }
+        }
+        double[] coefficients = new double[3];
+        for (int r = 0; r < n; r++) {
+            double weight = system[r][n] / system[r][r];
+            for (int term = 0; term < 3; term++) {
+                coefficients[term] += weight * terms[r][term];
+            }
+        }
+        return coefficients;
+    }
+
+    private static double dot(double[] basis, double[] coefficients) {
+        return basis[0] * coefficients[0] + basis[1] * coefficients[1] + basis[2] * coefficients[2];
+    }
+}
@@ -0,0 +1,260 @@
+package com.exparal.demo.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Load test results as CSV and a self-contained HTML page.
+// Closed-loop cells of one strategy, batch size and client count form a scaling curve over
+// parallelism; each curve gets an Amdahl fit (two or more parallelisms) and a USL fit (three or
+// more), and the USL peak is where adding threads stops adding throughput. Open-loop cells are
+// listed with their latency percentiles, flagged where the service fell behind the offered rate.
+public class ScalabilityReport {
+
+    public static final String RESULTS_FILE = "loadtest.csv";
+    public static final String FITS_FILE = "loadtest-fits.csv";
+    public static final String HTML_FILE = "loadtest.html";
+
+    private static final int CHART_WIDTH = 480;
+    private static final int CHART_HEIGHT = 280;
+    private static final int CHART_MARGIN = 40;
+
+    private final List<LoadTestResult> results;
+    private final List<Curve> curves;
+
+    public record Curve(LoadStrategy strategy, int batchSize, int clients, int[] parallelisms, double[] throughputs,
+                        ScalabilityFit amdahl, ScalabilityFit usl) {
+
+        public int bestMeasuredParallelism() {
+            int best = 0;
+            for (int i = 1; i < throughputs.length; i++) {
+                if (throughputs[i] > throughputs[best]) {
+                    best = i;
+                }
+            }
+            return parallelisms[best];
+        }
+
+        public String label() {
+            return strategy + ", " + batchSize + " rows, " + clients + (clients == 1 ? " client" : " clients");
+        }
+
+        // Plain-language verdict on where the curve stops scaling
+        public String verdict() {
+            if (usl != null && Double.isFinite(usl.peakParallelism())) {
+                return String.format(Locale.ROOT, "stops scaling at p=%.1f (USL peak, %.2fx one thread)",
+                        usl.peakParallelism(), usl.peakSpeedup());
+            }
+            if (amdahl != null && amdahl.sigma() > 0) {
+                return String.format(Locale.ROOT, "still scaling at p=%d, serial fraction %.3f caps speedup at %.1fx",
+                        parallelisms[parallelisms.length - 1], amdahl.sigma(), amdahl.peakSpeedup());
+            }
+            return "scales linearly over the measured range";
+        }
+    }
+
+    public ScalabilityReport(List<LoadTestResult> results) {
+        this.results = List.copyOf(results);
+        this.curves = buildCurves(this.results);
+    }
+
+    public List<LoadTestResult> getResults() {
+        return results;
+    }
+
+    public List<Curve> getCurves() {
+        return curves;
+    }
+
+    // Writes the results CSV, the fits CSV and the HTML page into directory; returns the HTML page
+    public Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(RESULTS_FILE), resultsCsv());
+        Files.writeString(directory.resolve(FITS_FILE), fitsCsv());
+        Path page = directory.resolve(HTML_FILE);
+        Files.writeString(page, html());
+        return page;
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (Curve curve : curves) {
+            summary.append(curve.label()).append(": ").append(curve.verdict())
+                    .append(", best measured p=").append(curve.bestMeasuredParallelism()).append('\n');
+        }
+        return summary.toString();
+    }
+
+    public String resultsCsv() {
+        StringBuilder csv = new StringBuilder("strategy,mode,batch_size,parallelism,clients,offered_rate,batches,"
+                + "elapsed_s,batches_per_s,portfolios_per_s,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,saturated\n");
+        for (LoadTestResult result : results) {
+            csv.append(String.format(Locale.ROOT,
+                    "%s,%s,%d,%d,%d,%.3f,%d,%.3f,%.3f,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%b%n",
+                    result.strategy(), result.mode(), result.batchSize(), result.parallelism(), result.clients(),
+                    result.offeredRate(), result.batches(), result.elapsedSeconds(), result.batchesPerSecond(),
+                    result.portfoliosPerSecond(), result.meanMillis(), result.p50Millis(), result.p90Millis(),
+                    result.p99Millis(), result.p999Millis(), result.maxMillis(), result.saturated()));
+        }
+        return csv.toString();
+    }
+
+    public String fitsCsv() {
+        StringBuilder csv = new StringBuilder("strategy,batch_size,clients,model,lambda,sigma,kappa,r_squared,"
+                + "peak_parallelism,peak_speedup,best_measured_parallelism\n");
+        for (Curve curve : curves) {
+            for (ScalabilityFit fit : new ScalabilityFit[]{curve.amdahl(), curve.usl()}) {
+                if (fit != null) {
+                    csv.append(String.format(Locale.ROOT, "%s,%d,%d,%s,%.3f,%.5f,%.6f,%.4f,%.2f,%.2f,%d%n",
+                            curve.strategy(), curve.batchSize(), curve.clients(), fit.model(), fit.lambda(),
+                            fit.sigma(), fit.kappa(), fit.rSquared(), fit.peakParallelism(), fit.peakSpeedup(),
+                            curve.bestMeasuredParallelism()));
+                }
+            }
+        }
+        return csv.toString();
+    }
+
+    public String html() {
+        StringBuilder html = new StringBuilder("""
+                <!DOCTYPE html>
+                <html><head><meta charset="utf-8"><title>Risk calculation scalability</title>
+                <style>
+                body { font-family: sans-serif; margin: 2em; }
+                table { border-collapse: collapse; margin-bottom: 2em; }
+                th, td { border: 1px solid #ccc; padding: 4px 8px; text-align: right; }
+                th:first-child, td:first-child { text-align: left; }
+                .saturated { background: #fdd; }
+                figure { display: inline-block; margin: 0 1em 1em 0; }
+                </style></head><body>
+                <h1>Risk calculation scalability</h1>
+                """);
+
+        html.append("<h2>Scaling curves</h2>\n");
+        html.append("<p>Dots are measured closed-loop throughput; solid line USL fit, dashed line Amdahl fit.</p>\n");
+        for (Curve curve : curves) {
+            html.append("<figure>").append(chart(curve)).append("<figcaption>").append(curve.label())
+                    .append(": ").append(curve.verdict()).append("</figcaption></figure>\n");
+        }
+
+        html.append("<h2>Fits</h2>\n<table><tr><th>Curve</th><th>Model</th><th>&lambda; (batches/s)</th>"
+                + "<th>&sigma;</th><th>&kappa;</th><th>R&sup2;</th><th>Peak p</th><th>Peak speedup</th></tr>\n");
+        for (Curve curve : curves) {
+            for (ScalabilityFit fit : new ScalabilityFit[]{curve.amdahl(), curve.usl()}) {
+                if (fit != null) {
+                    html.append(String.format(Locale.ROOT,
+                            "<tr><td>%s</td><td>%s</td><td>%.2f</td><td>%.4f</td><td>%.5f</td><td>%.3f</td>"
+                                    + "<td>%.1f</td><td>%.2f</td></tr>%n",
+                            curve.label(), fit.model(), fit.lambda(), fit.sigma(), fit.kappa(), fit.rSquared(),
+                            fit.peakParallelism(), fit.peakSpeedup()));
+                }
+            }
+        }
+        html.append("</table>\n");
+
+        html.append("<h2>Measurements</h2>\n<table><tr><th>Strategy</th><th>Mode</th><th>Rows</th><th>p</th>"
+                + "<th>Load</th><th>Batches</th><th>Portfolios/s</th><th>Mean ms</th><th>p50 ms</th><th>p90 ms</th>"
+                + "<th>p99 ms</th><th>p99.9 ms</th><th>Max ms</th></tr>\n");
+        for (LoadTestResult result : results) {
+            html.append(String.format(Locale.ROOT,
+                    "<tr%s><td>%s</td><td>%s</td><td>%d</td><td>%d</td><td>%s</td><td>%d</td><td>%.1f</td>"
+                            + "<td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td></tr>%n",
+                    result.saturated() ? " class=\"saturated\"" : "", result.strategy(), result.mode(),
+                    result.batchSize(), result.parallelism(), result.load(), result.batches(),
+                    result.portfoliosPerSecond(), result.meanMillis(), result.p50Millis(), result.p90Millis(),
+                    result.p99Millis(), result.p999Millis(), result.maxMillis()));
+        }
+        html.append("</table>\n</body></html>\n");
+        return html.toString();
+    }
+
+    private static String chart(Curve curve) {
+        int maxParallelism = curve.parallelisms()[curve.parallelisms().length - 1];
+        double maxX = Math.max(maxParallelism * 1.25, 2);
+        double maxY = 0;
+        for (double throughput : curve.throughputs()) {
+            maxY = Math.max(maxY, throughput);
+        }
+        maxY *= 1.25;
+        int plotWidth = CHART_WIDTH - 2 * CHART_MARGIN;
+        int plotHeight = CHART_HEIGHT - 2 * CHART_MARGIN;
+
+        StringBuilder svg = new StringBuilder(String.format(Locale.ROOT,
+                "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\">", CHART_WIDTH, CHART_HEIGHT));
+        svg.append(String.format(Locale.ROOT,
+                "<polyline fill=\"none\" stroke=\"#333\" points=\"%d,%d %d,%d %d,%d\"/>",
+                CHART_MARGIN, CHART_MARGIN, CHART_MARGIN, CHART_HEIGHT - CHART_MARGIN,
+                CHART_WIDTH - CHART_MARGIN, CHART_HEIGHT - CHART_MARGIN));
+        svg.append(String.format(Locale.ROOT,
+                "<text x=\"%d\" y=\"%d\" font-size=\"11\" text-anchor=\"middle\">parallelism (max %d)</text>",
+                CHART_WIDTH / 2, CHART_HEIGHT - 10, maxParallelism));
+        svg.append(String.format(Locale.ROOT,
+                "<text x=\"4\" y=\"%d\" font-size=\"11\">batches/s (max %.2f)</text>",
+                CHART_MARGIN - 10, maxY / 1.25));
+
+        for (ScalabilityFit fit : new ScalabilityFit[]{curve.usl(), curve.amdahl()}) {
+            if (fit == null) {
+                continue;
+            }
+            StringBuilder points = new StringBuilder();
+            for (int step = 0; step <= 100; step++) {
+                double parallelism = 1 + (maxX - 1) * step / 100;
+                double y = Math.min(fit.throughput(parallelism), maxY);
+                points.append(String.format(Locale.ROOT, "%.1f,%.1f ",
+                        CHART_MARGIN + parallelism / maxX * plotWidth,
+                        CHART_HEIGHT - CHART_MARGIN - y / maxY * plotHeight));
+            }
+            svg.append("<polyline fill=\"none\" stroke=\"")
+                    .append(fit.model() == ScalabilityFit.Model.USL ? "#c33\"" : "#36c\" stroke-dasharray=\"4 3\"")
+                    .append(" points=\"").append(points.toString().trim()).append("\"/>");
+        }
+        for (int i = 0; i < curve.parallelisms().length; i++) {
+            svg.append(String.format(Locale.ROOT,
+                    "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"4\"><title>p=%d: %.2f batches/s</title></circle>",
+                    CHART_MARGIN + curve.parallelisms()[i] / maxX * plotWidth,
+                    CHART_HEIGHT - CHART_MARGIN - curve.throughputs()[i] / maxY * plotHeight,
+                    curve.parallelisms()[i], curve.throughputs()[i]));
+        }
+        return svg.append("</svg>").toString();
+    }
+
+    private static List<Curve> buildCurves(List<LoadTestResult> results) {
+        Map<String, List<LoadTestResult>> groups = new LinkedHashMap<>();
+        for (LoadTestResult result : results) {
+            if (result.mode() == LoadTestResult.Mode.CLOSED && result.batches() > 0) {
+                groups.computeIfAbsent(result.strategy() + "/" + result.batchSize() + "/" + result.clients(),
+                        key -> new ArrayList<>()).add(result);
+            }
+        }
+
+        List<Curve> curves = new ArrayList<>();
+        for (List<LoadTestResult> group : groups.values()) {
+            group.sort(Comparator.comparingInt(LoadTestResult::parallelism));
+            int[] parallelisms = group.stream().mapToInt(LoadTestResult::parallelism).toArray();
+            double[] throughputs = group.stream().mapToDouble(LoadTestResult::batchesPerSecond).toArray();
+            if (parallelisms.length < 2) {
+                continue;
+            }
+            LoadTestResult first = group.get(0);
+            curves.add(new Curve(first.strategy(), first.batchSize(), first.clients(), parallelisms, throughputs,
+                    fitOrNull(ScalabilityFit.Model.AMDAHL, parallelisms, throughputs),
+                    fitOrNull(ScalabilityFit.Model.USL, parallelisms, throughputs)));
+        }
+        return curves;
+    }
+
+    private static ScalabilityFit fitOrNull(ScalabilityFit.Model model, int[] parallelisms, double[] throughputs) {
+        try {
+            return ScalabilityFit.fit(model, parallelisms, throughputs);
+        } catch (IllegalArgumentException e) {
+            // Too few distinct parallelisms for this model, or no physical fit
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.exparal.demo.model;
+
+import java.util.BitSet;
+
+// Outcome of a cancellable batch: metrics indexed by book row, with NaN for rows that were not
+// computed before the batch stopped, and the set of rows that were
+public record BatchResult(Status status, double[] results, BitSet completed) {
+
+    public enum Status {
+        COMPLETED,
+        CANCELLED,
+        DEADLINE_EXCEEDED
+    }
+
+    public int completedCount() {
+        return completed.cardinality();
+    }
+
+    public boolean isCompleted(int row) {
+        return completed.get(row);
+    }
+}
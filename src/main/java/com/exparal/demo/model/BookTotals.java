@@ -0,0 +1,6 @@
+package com.exparal.demo.model;
+
+// Aggregates of the live risk book as of one delta, published together so a reader never sees
+// the notional of one delta next to the risk metric of another
+public record BookTotals(int portfolios, double totalNotional, double totalRiskMetric) {
+}
@@ -0,0 +1,18 @@
+package com.exparal.demo.model;
+
+// Metrics of a checkpointed batch, indexed by book row, with what the run resumed, recomputed
+// and wrote. checkpointNanos is the writer thread's time in encoding, writes and syncs;
+// stallNanos is how long the compute path waited on it, which is the cost the run actually paid.
+public record CheckpointedBatchResult(double[] results, int resumedRows, int computedRows, long discardedBytes,
+                                      long bytesWritten, int syncs, long checkpointNanos, long stallNanos,
+                                      long elapsedNanos) {
+
+    public boolean resumed() {
+        return resumedRows > 0;
+    }
+
+    // Share of the run's wall time lost waiting on the checkpoint
+    public double checkpointOverhead() {
+        return elapsedNanos > 0 ? (double) stallNanos / elapsedNanos : 0;
+    }
+}
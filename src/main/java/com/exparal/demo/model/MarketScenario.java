@@ -0,0 +1,39 @@
+package com.exparal.demo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Market shock applied to every portfolio of a book: expected returns move by returnShift and
+// volatilities are scaled by volatilityScale. BASE leaves the inputs unchanged.
+public record MarketScenario(String name, double returnShift, double volatilityScale) {
+
+    public static final MarketScenario BASE = new MarketScenario("BASE", 0.0, 1.0);
+
+    public MarketScenario {
+        if (!(volatilityScale >= 0) || !Double.isFinite(volatilityScale) || !Double.isFinite(returnShift)) {
+            throw new IllegalArgumentException("Scenario " + name + " needs a finite return shift and a "
+                    + "non-negative volatility scale: " + returnShift + ", " + volatilityScale);
+        }
+    }
+
+    public double shockedReturn(double expectedReturn) {
+        return expectedReturn + returnShift;
+    }
+
+    public double shockedVolatility(double volatility) {
+        return volatility * volatilityScale;
+    }
+
+    // Every combination of the given shifts and scales, return shift major, named e.g. "r-0.0200/v1.50"
+    public static List<MarketScenario> grid(double[] returnShifts, double[] volatilityScales) {
+        List<MarketScenario> scenarios = new ArrayList<>(returnShifts.length * volatilityScales.length);
+        for (double returnShift : returnShifts) {
+            for (double volatilityScale : volatilityScales) {
+                String name = String.format(Locale.ROOT, "r%+.4f/v%.2f", returnShift, volatilityScale);
+                scenarios.add(new MarketScenario(name, returnShift, volatilityScale));
+            }
+        }
+        return scenarios;
+    }
+}
@@ -6,6 +6,10 @@ public class Portfolio {
     private double expectedReturn;
     private double volatility;
 
+    public Portfolio() {
+        // For JSON binding
+    }
+
     public Portfolio(String id, double notional, double expectedReturn, double volatility) {
         this.id = id;
         this.notional = notional;
@@ -0,0 +1,126 @@
+package com.exparal.demo.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Columnar (structure-of-arrays) book of portfolios.
+// Notional, expected return and volatility live in parallel double[] columns so the
+// calculation hot path walks contiguous memory instead of chasing Portfolio references.
+// Ids are kept in a side column. Rows are positional, so an id may repeat, as it may in the
+// List<Portfolio> this mirrors; the id -> row index behind indexOf is only built on first use.
+public class PortfolioBook implements PortfolioColumns {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private String[] ids;
+    private double[] notional;
+    private double[] expectedReturn;
+    private double[] volatility;
+    private int size;
+    // Lazy index for indexOf, covering rows [0, indexedRows)
+    private Map<String, Integer> rowsById;
+    private int indexedRows;
+
+    public PortfolioBook() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PortfolioBook(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.ids = new String[capacity];
+        this.notional = new double[capacity];
+        this.expectedReturn = new double[capacity];
+        this.volatility = new double[capacity];
+    }
+
+    public static PortfolioBook of(List<Portfolio> portfolios) {
+        PortfolioBook book = new PortfolioBook(portfolios.size());
+        for (Portfolio portfolio : portfolios) {
+            book.add(portfolio);
+        }
+        return book;
+    }
+
+    public int add(Portfolio portfolio) {
+        return add(portfolio.getId(), portfolio.getNotional(),
+                portfolio.getExpectedReturn(), portfolio.getVolatility());
+    }
+
+    // Appends a row and returns its index
+    public int add(String id, double notional, double expectedReturn, double volatility) {
+        if (size == ids.length) {
+            grow();
+        }
+        int row = size++;
+        this.ids[row] = id;
+        this.notional[row] = notional;
+        this.expectedReturn[row] = expectedReturn;
+        this.volatility[row] = volatility;
+        return row;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // First row with the id, or -1 when the book does not contain it. The index is built on the
+    // first call and extended with rows added since.
+    public synchronized int indexOf(String id) {
+        if (rowsById == null) {
+            rowsById = new HashMap<>(Math.max(DEFAULT_CAPACITY, size * 4 / 3 + 1));
+        }
+        for (; indexedRows < size; indexedRows++) {
+            rowsById.putIfAbsent(ids[indexedRows], indexedRows);
+        }
+        Integer row = rowsById.get(id);
+        return row != null ? row : -1;
+    }
+
+    @Override
+    public String getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    @Override
+    public double getNotional(int row) {
+        checkRow(row);
+        return notional[row];
+    }
+
+    @Override
+    public double getExpectedReturn(int row) {
+        checkRow(row);
+        return expectedReturn[row];
+    }
+
+    @Override
+    public double getVolatility(int row) {
+        checkRow(row);
+        return volatility[row];
+    }
+
+    public Portfolio toPortfolio(int row) {
+        checkRow(row);
+        return new Portfolio(ids[row], notional[row], expectedReturn[row], volatility[row]);
+    }
+
+    private void grow() {
+        int capacity = Math.max(DEFAULT_CAPACITY, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        notional = Arrays.copyOf(notional, capacity);
+        expectedReturn = Arrays.copyOf(expectedReturn, capacity);
+        volatility = Arrays.copyOf(volatility, capacity);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " outside book of size " + size);
+        }
+    }
+}
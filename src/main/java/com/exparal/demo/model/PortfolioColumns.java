@@ -0,0 +1,16 @@
+package com.exparal.demo.model;
+
+// Read-only row/column access to a set of portfolios, implemented by the heap
+// PortfolioBook and by memory-mapped portfolio files.
+public interface PortfolioColumns {
+
+    int size();
+
+    String getId(int row);
+
+    double getNotional(int row);
+
+    double getExpectedReturn(int row);
+
+    double getVolatility(int row);
+}
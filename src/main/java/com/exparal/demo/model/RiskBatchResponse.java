@@ -0,0 +1,7 @@
+package com.exparal.demo.model;
+
+import java.util.List;
+
+// Results of one submitted batch, in request order
+public record RiskBatchResponse(List<RiskResult> results, long elapsedMillis) {
+}
@@ -0,0 +1,7 @@
+package com.exparal.demo.model;
+
+// Outcome of applying one delta to the live risk book: portfolios recomputed, upserts skipped
+// because their inputs had not changed, portfolios removed, and the book aggregates afterwards
+public record RiskDeltaResult(int recomputed, int unchanged, int deleted, int bookSize,
+                              double totalNotional, double totalRiskMetric) {
+}
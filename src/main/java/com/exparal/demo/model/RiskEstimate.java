@@ -0,0 +1,6 @@
+package com.exparal.demo.model;
+
+// Risk metric from a precision-targeted run, with the Monte Carlo draws it took
+// and the estimated standard error of the metric
+public record RiskEstimate(double riskMetric, int iterations, double standardError) {
+}
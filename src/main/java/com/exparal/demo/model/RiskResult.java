@@ -0,0 +1,7 @@
+package com.exparal.demo.model;
+
+import java.math.BigDecimal;
+
+// Serialized risk metric of one portfolio
+public record RiskResult(String portfolioId, BigDecimal riskMetric) {
+}
@@ -0,0 +1,41 @@
+package com.exparal.demo.model;
+
+import java.util.List;
+
+// Risk metric of every portfolio under every scenario, as one dense row-major array:
+// values[row * scenarios.size() + scenario], rows in book order
+public record ScenarioMatrix(int portfolios, List<MarketScenario> scenarios, double[] values) {
+
+    public int scenarioCount() {
+        return scenarios.size();
+    }
+
+    public double get(int row, int scenario) {
+        return values[row * scenarios.size() + scenario];
+    }
+
+    // One portfolio's metrics across all scenarios
+    public double[] row(int row) {
+        double[] result = new double[scenarios.size()];
+        System.arraycopy(values, row * scenarios.size(), result, 0, result.length);
+        return result;
+    }
+
+    // All portfolios' metrics under one scenario
+    public double[] column(int scenario) {
+        double[] result = new double[portfolios];
+        for (int row = 0; row < portfolios; row++) {
+            result[row] = get(row, scenario);
+        }
+        return result;
+    }
+
+    // Sum over the book under one scenario
+    public double total(int scenario) {
+        double total = 0;
+        for (int row = 0; row < portfolios; row++) {
+            total += get(row, scenario);
+        }
+        return total;
+    }
+}
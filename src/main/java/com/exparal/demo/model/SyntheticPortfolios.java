@@ -0,0 +1,55 @@
+package com.exparal.demo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Reproducible synthetic portfolios: notional 1M to 10M, expected return 5% to 20% and volatility
+// 10% to 40%, drawn in that order from a Random with the given seed. The same count, prefix and
+// seed give the same portfolios as a list or a book, so tests, benchmarks, the load generator and
+// the warm-up all run on the same data set.
+public final class SyntheticPortfolios {
+
+    public static final long DEFAULT_SEED = 42L;
+    public static final String DEFAULT_ID_PREFIX = "PORTFOLIO_";
+
+    private SyntheticPortfolios() {
+    }
+
+    public static List<Portfolio> generate(int count) {
+        return generate(DEFAULT_ID_PREFIX, count, DEFAULT_SEED);
+    }
+
+    public static List<Portfolio> generate(String idPrefix, int count, long seed) {
+        List<Portfolio> portfolios = new ArrayList<>(count);
+        fill(idPrefix, count, seed,
+                (id, notional, expectedReturn, volatility) ->
+                        portfolios.add(new Portfolio(id, notional, expectedReturn, volatility)));
+        return portfolios;
+    }
+
+    // Straight into the columns, without a Portfolio object per row
+    public static PortfolioBook book(int count) {
+        return book(DEFAULT_ID_PREFIX, count, DEFAULT_SEED);
+    }
+
+    public static PortfolioBook book(String idPrefix, int count, long seed) {
+        PortfolioBook book = new PortfolioBook(count);
+        fill(idPrefix, count, seed, book::add);
+        return book;
+    }
+
+    private static void fill(String idPrefix, int count, long seed, RowSink sink) {
+        Random random = new Random(seed);
+        for (int i = 0; i < count; i++) {
+            sink.add(idPrefix + i,
+                    1_000_000 + random.nextDouble() * 9_000_000,
+                    0.05 + random.nextDouble() * 0.15,
+                    0.1 + random.nextDouble() * 0.3);
+        }
+    }
+
+    private interface RowSink {
+        void add(String id, double notional, double expectedReturn, double volatility);
+    }
+}
@@ -0,0 +1,24 @@
+package com.exparal.demo.model;
+
+// Book or sub-book loss tail from simulated paths: Value at Risk and Expected Shortfall
+// at each confidence level, as positive losses in notional units
+public record TailRisk(String name, int portfolios, long paths, double[] confidenceLevels,
+                       double[] valueAtRisk, double[] expectedShortfall) {
+
+    public double valueAtRisk(double confidenceLevel) {
+        return valueAtRisk[indexOf(confidenceLevel)];
+    }
+
+    public double expectedShortfall(double confidenceLevel) {
+        return expectedShortfall[indexOf(confidenceLevel)];
+    }
+
+    private int indexOf(double confidenceLevel) {
+        for (int i = 0; i < confidenceLevels.length; i++) {
+            if (confidenceLevels[i] == confidenceLevel) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Confidence level " + confidenceLevel + " was not computed");
+    }
+}
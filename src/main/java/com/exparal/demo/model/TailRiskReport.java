@@ -0,0 +1,7 @@
+package com.exparal.demo.model;
+
+import java.util.Map;
+
+// Whole-book tail risk plus one entry per sub-book, in order of first appearance in the book
+public record TailRiskReport(TailRisk book, Map<String, TailRisk> subBooks) {
+}
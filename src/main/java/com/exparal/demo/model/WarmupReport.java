@@ -0,0 +1,12 @@
+package com.exparal.demo.model;
+
+// Outcome of the startup warm-up: rounds run, whether round times and JIT activity settled
+// before the round or time limit, and how long the first and last rounds took
+public record WarmupReport(int rounds, boolean settled, long elapsedNanos, long firstRoundNanos,
+                           long lastRoundNanos, long compilationMillis) {
+
+    // How much slower the cold first round was than the warm last one
+    public double firstRoundSlowdown() {
+        return lastRoundNanos > 0 ? (double) firstRoundNanos / lastRoundNanos : 1.0;
+    }
+}
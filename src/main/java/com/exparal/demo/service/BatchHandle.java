@@ -0,0 +1,137 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.BatchResult;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Handle on a batch started with FinancialCalculationService.submitRiskMetrics.
+// Workers check the cancel flag and the deadline before every portfolio and every
+// RiskKernel.STOP_CHECK_INTERVAL iterations inside one, so a stopped batch frees its cores
+// within a few thousand iterations; the row a worker was on is dropped. Rows computed before the
+// stop keep their metrics and are reported in the BatchResult's completion map.
+public class BatchHandle {
+
+    // Padded so workers finishing neighbouring leaves do not write the same cache line
+    private final PaddedResultBuffer results;
+    // Each leaf marks its finished rows once, when it stops, rather than after every row
+    private final boolean[] completed;
+    private final boolean hasDeadline;
+    private final long deadlineNanos;
+    private final LongAdder completedCount = new LongAdder();
+    private final CompletableFuture<BatchResult> outcome = new CompletableFuture<>();
+    private volatile boolean cancelled;
+
+    // A null deadline lets the batch run until it completes or is cancelled
+    BatchHandle(int size, Duration deadline) {
+        if (deadline != null && deadline.isNegative()) {
+            throw new IllegalArgumentException("Deadline must not be negative: " + deadline);
+        }
+        this.results = new PaddedResultBuffer(size);
+        results.fill(Double.NaN);
+        this.completed = new boolean[size];
+        this.hasDeadline = deadline != null;
+        this.deadlineNanos = hasDeadline ? System.nanoTime() + deadline.toNanos() : 0L;
+    }
+
+    // Stops the batch at the next portfolio boundary; false if it had already finished
+    public boolean cancel() {
+        cancelled = true;
+        return !outcome.isDone();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDone() {
+        return outcome.isDone();
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    // Live progress while the batch runs
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    // Blocks until every worker has stopped, then returns the finished and partial metrics
+    public BatchResult await() {
+        try {
+            return outcome.get();
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Parallel calculation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Parallel calculation failed", e.getCause());
+        }
+    }
+
+    // Waits at most the timeout, then cancels the batch and returns whatever it finished
+    public BatchResult await(Duration timeout) {
+        try {
+            return outcome.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancel();
+            return await();
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Parallel calculation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Parallel calculation failed", e.getCause());
+        }
+    }
+
+    // Completes once the workers have stopped; completing the copy does not affect the batch
+    public CompletableFuture<BatchResult> toCompletableFuture() {
+        return outcome.copy();
+    }
+
+    PaddedResultBuffer results() {
+        return results;
+    }
+
+    boolean shouldStop() {
+        return cancelled || (hasDeadline && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    void rowCompleted() {
+        completedCount.increment();
+    }
+
+    void markCompleted(int fromRow, int toRow) {
+        Arrays.fill(completed, fromRow, toRow, true);
+    }
+
+    void complete() {
+        BitSet completedRows = new BitSet(completed.length);
+        for (int row = 0; row < completed.length; row++) {
+            if (completed[row]) {
+                completedRows.set(row);
+            }
+        }
+        BatchResult.Status status;
+        if (completedRows.cardinality() == completed.length) {
+            status = BatchResult.Status.COMPLETED;
+        } else if (cancelled) {
+            status = BatchResult.Status.CANCELLED;
+        } else {
+            status = BatchResult.Status.DEADLINE_EXCEEDED;
+        }
+        outcome.complete(new BatchResult(status, results.toArray(), completedRows));
+    }
+
+    void fail(Throwable failure) {
+        outcome.completeExceptionally(failure);
+    }
+}
@@ -0,0 +1,19 @@
+package com.exparal.demo.service;
+
+// Priority of a scheduled batch; the weight scales its share of worker time per round
+public enum BatchPriority {
+
+    LOW(1),
+    NORMAL(4),
+    URGENT(16);
+
+    private final int weight;
+
+    BatchPriority(int weight) {
+        this.weight = weight;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
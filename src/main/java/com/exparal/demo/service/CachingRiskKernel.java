@@ -0,0 +1,60 @@
+package com.exparal.demo.service;
+
+import java.util.function.BooleanSupplier;
+import java.util.random.RandomGenerator;
+
+// Serves repeated (notional, expectedReturn, volatility, iterations) inputs from a RiskResultCache.
+// A cached value is one earlier Monte Carlo sample of the same metric, so reruns within the
+// cache's max age return that sample instead of fresh noise.
+public class CachingRiskKernel implements RiskKernel {
+
+    private final RiskKernel delegate;
+    private final RiskResultCache cache;
+
+    public CachingRiskKernel(RiskKernel delegate, RiskResultCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+        double cached = cache.get(notional, expectedReturn, volatility, iterations);
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+        double result = delegate.simulate(notional, expectedReturn, volatility, iterations);
+        cache.put(notional, expectedReturn, volatility, iterations, result);
+        return result;
+    }
+
+    // A stopped simulation returns NaN and is not cached
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                           BooleanSupplier stop) {
+        double cached = cache.get(notional, expectedReturn, volatility, iterations);
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+        double result = delegate.simulate(notional, expectedReturn, volatility, iterations, stop);
+        if (!Double.isNaN(result)) {
+            cache.put(notional, expectedReturn, volatility, iterations, result);
+        }
+        return result;
+    }
+
+    // Seeded draws differ per portfolio id, which is not part of the cache key, so they bypass the cache
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                           RandomGenerator random) {
+        return delegate.simulate(notional, expectedReturn, volatility, iterations, random);
+    }
+
+    public RiskResultCache getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,103 @@
+package com.exparal.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Micrometer meters for FinancialCalculationService, bound by Spring Boot Actuator as a MeterBinder.
+// Batches are recorded once each (latency histogram and portfolio count per strategy), so the
+// per-batch cost is a registry lookup. Per-portfolio compute time is sampled: one kernel call in
+// PORTFOLIO_SAMPLE_RATE is timed, which keeps percentiles meaningful without a nanoTime pair and
+// a timer update per portfolio. Until bindTo() is called, and while paused (the startup
+// warm-up), every record method is a no-op.
+public class CalculationMetrics implements MeterBinder {
+
+    public static final int PORTFOLIO_SAMPLE_RATE = 64;
+
+    static final String BATCH_DURATION = "risk.batch.duration";
+    static final String PORTFOLIOS = "risk.portfolios";
+    static final String PORTFOLIO_DURATION = "risk.portfolio.duration";
+    static final String CUSTOM_POOL_NAME = "risk.customPool";
+
+    private final ForkJoinPool customThreadPool;
+    private final RiskResultCache resultCache;
+    private volatile MeterRegistry registry;
+    private volatile Timer portfolioTimer;
+    private volatile boolean paused;
+
+    public CalculationMetrics(ForkJoinPool customThreadPool, RiskResultCache resultCache) {
+        this.customThreadPool = customThreadPool;
+        this.resultCache = resultCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Active, running, queued, steals, parallelism and pool size of the custom ForkJoinPool
+        new ExecutorServiceMetrics(customThreadPool, CUSTOM_POOL_NAME, Tags.empty()).bindTo(registry);
+        Gauge.builder("risk.customPool.queued.submissions", customThreadPool, ForkJoinPool::getQueuedSubmissionCount)
+                .description("Tasks submitted to the custom pool from outside and not yet started")
+                .register(registry);
+
+        if (resultCache != null) {
+            FunctionCounter.builder("risk.cache.requests", resultCache, RiskResultCache::getHitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("risk.cache.requests", resultCache, RiskResultCache::getMissCount)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("risk.cache.evictions", resultCache, RiskResultCache::getEvictionCount)
+                    .register(registry);
+            FunctionCounter.builder("risk.cache.expirations", resultCache, RiskResultCache::getExpirationCount)
+                    .register(registry);
+            Gauge.builder("risk.cache.size", resultCache, RiskResultCache::size).register(registry);
+        }
+
+        this.portfolioTimer = Timer.builder(PORTFOLIO_DURATION)
+                .description("Kernel time per portfolio, sampled 1 in " + PORTFOLIO_SAMPLE_RATE)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.registry = registry;
+    }
+
+    // Drops batch and portfolio samples until resume(), so synthetic batches never reach the meters
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+    }
+
+    public void recordBatch(String strategy, int portfolios, long elapsedNanos) {
+        MeterRegistry registry = this.registry;
+        if (registry == null || paused) {
+            return;
+        }
+        Timer.builder(BATCH_DURATION)
+                .tag("strategy", strategy)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        // rate(risk.portfolios) is portfolios per second
+        Counter.builder(PORTFOLIOS)
+                .tag("strategy", strategy)
+                .register(registry)
+                .increment(portfolios);
+    }
+
+    boolean samplePortfolio() {
+        return portfolioTimer != null && !paused && ThreadLocalRandom.current().nextInt(PORTFOLIO_SAMPLE_RATE) == 0;
+    }
+
+    void recordPortfolio(long elapsedNanos) {
+        portfolioTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
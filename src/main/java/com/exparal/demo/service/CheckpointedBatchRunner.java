@@ -0,0 +1,177 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.io.RiskCheckpointFile;
+import com.exparal.demo.model.CheckpointedBatchResult;
+import com.exparal.demo.model.PortfolioColumns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Resumable custom-pool batches for books that take hours.
+// The book is computed chunk by chunk with calculateRiskMetricsCustomPool, and every finished
+// chunk is appended to a RiskCheckpointFile. A run that dies part way is restarted with the same
+// book and checkpoint path and only computes the chunks that never became durable. A single
+// writer thread appends chunk k while chunk k + 1 computes, and syncs at most once per
+// syncInterval, so the compute path only waits when a write outlasts a whole chunk; the wait is
+// measured and reported. A crash loses at most the chunks appended since the last sync.
+// Seeded runs resume bit for bit, since a portfolio's draws depend only on the seed and its id.
+public class CheckpointedBatchRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointedBatchRunner.class);
+
+    public static final int DEFAULT_CHUNK_ROWS = 4096;
+    public static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofSeconds(1);
+
+    private final FinancialCalculationService calculationService;
+    private final int chunkRows;
+    private final Duration syncInterval;
+
+    public CheckpointedBatchRunner(FinancialCalculationService calculationService) {
+        this(calculationService, DEFAULT_CHUNK_ROWS, DEFAULT_SYNC_INTERVAL);
+    }
+
+    public CheckpointedBatchRunner(FinancialCalculationService calculationService, int chunkRows,
+                                   Duration syncInterval) {
+        if (chunkRows < 1) {
+            throw new IllegalArgumentException("Chunk rows must be positive: " + chunkRows);
+        }
+        if (syncInterval.isNegative()) {
+            throw new IllegalArgumentException("Sync interval must not be negative: " + syncInterval);
+        }
+        this.calculationService = calculationService;
+        this.chunkRows = chunkRows;
+        this.syncInterval = syncInterval;
+    }
+
+    public CheckpointedBatchResult run(PortfolioColumns book, Path checkpoint) throws IOException {
+        return run(book, RiskCheckpointFile.Batch.of(book, chunkRows, calculationService.getIterations()), checkpoint);
+    }
+
+    public CheckpointedBatchResult run(PortfolioColumns book, long seed, Path checkpoint) throws IOException {
+        return run(book, RiskCheckpointFile.Batch.of(book, chunkRows, calculationService.getIterations(), seed),
+                checkpoint);
+    }
+
+    private CheckpointedBatchResult run(PortfolioColumns book, RiskCheckpointFile.Batch batch, Path checkpoint)
+            throws IOException {
+        long start = System.nanoTime();
+        double[] results = new double[book.size()];
+        ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RiskCheckpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (RiskCheckpointFile file = RiskCheckpointFile.open(checkpoint, batch, results)) {
+            double[] chunkResults = new double[Math.min(chunkRows, book.size())];
+            Future<?> pendingWrite = CompletableFuture.completedFuture(null);
+            long stallNanos = 0;
+            int computedRows = 0;
+            try {
+                for (int chunk = 0; chunk < batch.chunkCount(); chunk++) {
+                    if (file.isCompleted(chunk)) {
+                        continue;
+                    }
+                    int fromRow = batch.chunkFrom(chunk);
+                    int toRow = batch.chunkTo(chunk);
+                    RowRange rows = new RowRange(book, fromRow, toRow - fromRow);
+                    if (batch.seeded()) {
+                        calculationService.calculateRiskMetricsCustomPool(rows, batch.seed(), chunkResults);
+                    } else {
+                        calculationService.calculateRiskMetricsCustomPool(rows, chunkResults);
+                    }
+                    System.arraycopy(chunkResults, 0, results, fromRow, rows.size());
+                    computedRows += rows.size();
+
+                    // The previous chunk's write overlapped this chunk's compute
+                    long waitStart = System.nanoTime();
+                    await(pendingWrite);
+                    stallNanos += System.nanoTime() - waitStart;
+                    int written = chunk;
+                    pendingWrite = writer.submit(() -> {
+                        file.append(written, results);
+                        file.syncIfDue(syncInterval.toNanos());
+                        return null;
+                    });
+                }
+                long waitStart = System.nanoTime();
+                await(pendingWrite);
+                stallNanos += System.nanoTime() - waitStart;
+            } finally {
+                // Never close the file under a write in flight, even when a chunk failed
+                awaitQuietly(pendingWrite);
+            }
+
+            long closeStart = System.nanoTime();
+            file.close();
+            stallNanos += System.nanoTime() - closeStart;
+            CheckpointedBatchResult result = new CheckpointedBatchResult(results, file.getRecoveredRows(),
+                    computedRows, file.getDiscardedBytes(), file.getBytesWritten(), file.getSyncCount(),
+                    file.getWriteNanos() + file.getSyncNanos(), stallNanos, System.nanoTime() - start);
+            if (log.isInfoEnabled()) {
+                log.info("Checkpointed batch of {} rows: {} resumed, {} computed, {} KB in {} syncs, "
+                                + "compute waited {}% on the checkpoint", book.size(), result.resumedRows(),
+                        result.computedRows(), result.bytesWritten() / 1024, result.syncs(),
+                        String.format("%.2f", result.checkpointOverhead() * 100));
+            }
+            return result;
+        } finally {
+            writer.shutdownNow();
+        }
+    }
+
+    private static void await(Future<?> write) throws IOException {
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Checkpointed batch interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new RuntimeException("Checkpoint write failed", e.getCause());
+        }
+    }
+
+    private static void awaitQuietly(Future<?> write) {
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Already surfaced by await, or superseded by the failure that ended the run
+        }
+    }
+
+    // Rows [fromRow, fromRow + size) of a book as a book of their own
+    private record RowRange(PortfolioColumns book, int fromRow, int size) implements PortfolioColumns {
+
+        @Override
+        public String getId(int row) {
+            return book.getId(fromRow + row);
+        }
+
+        @Override
+        public double getNotional(int row) {
+            return book.getNotional(fromRow + row);
+        }
+
+        @Override
+        public double getExpectedReturn(int row) {
+            return book.getExpectedReturn(fromRow + row);
+        }
+
+        @Override
+        public double getVolatility(int row) {
+            return book.getVolatility(fromRow + row);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.RiskEstimate;
+
+import java.util.random.RandomGenerator;
+
+// Precision-targeted version of the risk Monte Carlo.
+// Draws come in antithetic pairs (z, -z), and the pair mean of the shortfall
+// max(0, notional - (expectedReturn + volatility * z)) is the sample. The control variate
+// z^2 - 1 has known mean zero and tracks the even part that antithetics leave behind; its
+// coefficient is the running regression estimate. After every batch the standard error of
+// the controlled mean is carried through the metric transform (mean^0.75, see
+// RiskKernel.finish) and the loop stops once it meets the target. When the shortfall is
+// positive on every path (low volatility relative to notional) the pair mean is constant,
+// the error is zero and the run stops at minIterations.
+public final class ConvergentMonteCarlo {
+
+    private ConvergentMonteCarlo() {
+    }
+
+    public static RiskEstimate simulate(double notional, double expectedReturn, double volatility,
+                                        PrecisionTarget target, RandomGenerator random) {
+        double threshold = notional - expectedReturn;
+        int pairsPerBatch = Math.max(1, target.batchSize() / 2);
+        int minPairs = (target.minIterations() + 1) / 2;
+        int maxPairs = target.maxIterations() / 2;
+
+        // Running sums of the pair sample y and the control c. Samples are taken relative to
+        // max(0, threshold), the value of y when no path is floored, so large notionals do not
+        // lose the variance to cancellation.
+        double shift = Math.max(0, threshold);
+        long n = 0;
+        double sumY = 0;
+        double sumYY = 0;
+        double sumC = 0;
+        double sumCC = 0;
+        double sumYC = 0;
+        double mean = 0;
+        double meanError = Double.POSITIVE_INFINITY;
+
+        while (n < maxPairs) {
+            long batchEnd = Math.min(maxPairs, n + pairsPerBatch);
+            for (; n < batchEnd; n++) {
+                double z = random.nextGaussian();
+                double spread = volatility * z;
+                double y = 0.5 * (Math.max(0, threshold - spread) + Math.max(0, threshold + spread)) - shift;
+                double c = z * z - 1;
+                sumY += y;
+                sumYY += y * y;
+                sumC += c;
+                sumCC += c * c;
+                sumYC += y * c;
+            }
+
+            double meanY = sumY / n;
+            double meanC = sumC / n;
+            double varY = Math.max(0, sumYY / n - meanY * meanY);
+            double varC = Math.max(0, sumCC / n - meanC * meanC);
+            double covYC = sumYC / n - meanY * meanC;
+            double beta = varC > 0 ? covYC / varC : 0;
+            double residualVar = Math.max(0, varY - beta * covYC);
+
+            mean = shift + meanY - beta * meanC;
+            meanError = n > 1 ? Math.sqrt(residualVar / (n - 1)) : Double.POSITIVE_INFINITY;
+            if (n >= minPairs && metricError(mean, meanError) <= target.relativeError() * metric(mean)) {
+                break;
+            }
+        }
+
+        return new RiskEstimate(metric(mean), (int) (2 * n), metricError(mean, meanError));
+    }
+
+    private static double metric(double meanShortfall) {
+        return RiskKernel.finish(meanShortfall, 1);
+    }
+
+    // Delta method: d(mean^0.75)/d(mean) = 0.75 * mean^-0.25
+    private static double metricError(double meanShortfall, double meanError) {
+        if (meanError == 0) {
+            return 0;
+        }
+        double absMean = Math.abs(meanShortfall);
+        return absMean > 0 ? 0.75 * Math.pow(absMean, -0.25) * meanError : Double.POSITIVE_INFINITY;
+    }
+}
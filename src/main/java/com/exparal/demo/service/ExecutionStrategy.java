@@ -0,0 +1,8 @@
+package com.exparal.demo.service;
+
+// Ways a batch can be executed by FinancialCalculationService
+public enum ExecutionStrategy {
+    SEQUENTIAL,
+    COMMON_POOL,
+    CUSTOM_POOL
+}
@@ -0,0 +1,191 @@
+package com.exparal.demo.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+// Chooses an ExecutionStrategy per batch and learns from the measured latencies.
+// Work is batch size x iterations. For every strategy we keep an EWMA of nanoseconds per
+// unit of work in log2(work) buckets, so the sequential/parallel crossover is learned
+// rather than hard-coded. Pool strategies are penalised by live saturation
+// (active threads and queued tasks), and every EXPLORATION_PERIOD-th decision in a bucket
+// re-measures the runner-up so estimates follow changes in load.
+public class ExecutionStrategyRouter {
+
+    private static final ExecutionStrategy[] STRATEGIES = ExecutionStrategy.values();
+    private static final int BUCKETS = 64;
+    private static final double SMOOTHING = 0.2;           // weight of the newest sample
+    private static final int EXPLORATION_PERIOD = 16;
+    private static final double EXPLORATION_LIMIT = 2.0;   // never re-measure a strategy estimated 2x slower
+    // Unmeasured strategies are only tried on batches up to this much work (~80 portfolios at 100k iterations)
+    private static final long COLD_EXPLORATION_WORK = 1L << 23;
+
+    private final ForkJoinPool customPool;
+    private final double[][] nanosPerUnit = new double[STRATEGIES.length][BUCKETS];
+    private final long[] decisions = new long[BUCKETS];
+    private final Map<ExecutionStrategy, LongAdder> selections = new EnumMap<>(ExecutionStrategy.class);
+    private volatile ExecutionStrategy lastStrategy;
+
+    public ExecutionStrategyRouter(ForkJoinPool customPool) {
+        this.customPool = customPool;
+        for (double[] row : nanosPerUnit) {
+            Arrays.fill(row, Double.NaN);
+        }
+        for (ExecutionStrategy strategy : STRATEGIES) {
+            selections.put(strategy, new LongAdder());
+        }
+    }
+
+    public ExecutionStrategy choose(int batchSize, int iterations) {
+        ExecutionStrategy strategy = batchSize <= 1 ? ExecutionStrategy.SEQUENTIAL : decide(batchSize, iterations);
+        selections.get(strategy).increment();
+        lastStrategy = strategy;
+        return strategy;
+    }
+
+    public synchronized void record(ExecutionStrategy strategy, int batchSize, int iterations, long elapsedNanos) {
+        long work = work(batchSize, iterations);
+        if (work == 0) {
+            return;
+        }
+        double sample = (double) elapsedNanos / work;
+        int bucket = bucketOf(work);
+        double current = nanosPerUnit[strategy.ordinal()][bucket];
+        nanosPerUnit[strategy.ordinal()][bucket] = Double.isNaN(current)
+                ? sample
+                : current + SMOOTHING * (sample - current);
+    }
+
+    // Forgets every estimate and selection, e.g. once the warm-up has measured code the JIT was still compiling
+    public synchronized void reset() {
+        for (double[] row : nanosPerUnit) {
+            Arrays.fill(row, Double.NaN);
+        }
+        Arrays.fill(decisions, 0);
+        selections.values().forEach(LongAdder::reset);
+        lastStrategy = null;
+    }
+
+    public ExecutionStrategy getLastStrategy() {
+        return lastStrategy;
+    }
+
+    public long getSelectionCount(ExecutionStrategy strategy) {
+        return selections.get(strategy).sum();
+    }
+
+    public Map<ExecutionStrategy, Long> getSelectionCounts() {
+        Map<ExecutionStrategy, Long> counts = new EnumMap<>(ExecutionStrategy.class);
+        selections.forEach((strategy, count) -> counts.put(strategy, count.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    // Smallest measured work (batch size x iterations) at which a pool beat sequential, or -1 if not learned yet
+    public synchronized long getLearnedParallelThreshold() {
+        double[] sequential = nanosPerUnit[ExecutionStrategy.SEQUENTIAL.ordinal()];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (Double.isNaN(sequential[bucket])) {
+                continue;
+            }
+            for (ExecutionStrategy strategy : STRATEGIES) {
+                double candidate = nanosPerUnit[strategy.ordinal()][bucket];
+                if (strategy != ExecutionStrategy.SEQUENTIAL && candidate < sequential[bucket]) {
+                    return 1L << bucket;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private synchronized ExecutionStrategy decide(int batchSize, int iterations) {
+        long work = work(batchSize, iterations);
+        int bucket = bucketOf(work);
+        long decision = decisions[bucket]++;
+
+        // Cold start: measure every strategy once on a small batch before trusting estimates
+        if (work <= COLD_EXPLORATION_WORK) {
+            for (ExecutionStrategy strategy : STRATEGIES) {
+                if (Double.isNaN(nanosPerUnit[strategy.ordinal()][bucket])) {
+                    return strategy;
+                }
+            }
+        }
+
+        ExecutionStrategy best = null;
+        ExecutionStrategy runnerUp = null;
+        double bestEstimate = Double.MAX_VALUE;
+        double runnerUpEstimate = Double.MAX_VALUE;
+        for (ExecutionStrategy strategy : STRATEGIES) {
+            double estimate = estimate(strategy, bucket, work);
+            if (Double.isNaN(estimate)) {
+                continue;
+            }
+            if (estimate < bestEstimate) {
+                runnerUp = best;
+                runnerUpEstimate = bestEstimate;
+                best = strategy;
+                bestEstimate = estimate;
+            } else if (estimate < runnerUpEstimate) {
+                runnerUp = strategy;
+                runnerUpEstimate = estimate;
+            }
+        }
+
+        if (best == null) {
+            return prior(batchSize);
+        }
+        if (runnerUp != null && decision % EXPLORATION_PERIOD == EXPLORATION_PERIOD - 1
+                && runnerUpEstimate < bestEstimate * EXPLORATION_LIMIT) {
+            return runnerUp;
+        }
+        return best;
+    }
+
+    // Estimated latency; falls back to the nearest measured bucket when this one has no sample yet
+    private double estimate(ExecutionStrategy strategy, int bucket, long work) {
+        double[] row = nanosPerUnit[strategy.ordinal()];
+        for (int distance = 0; distance < BUCKETS; distance++) {
+            if (bucket - distance >= 0 && !Double.isNaN(row[bucket - distance])) {
+                return row[bucket - distance] * work * saturationPenalty(strategy);
+            }
+            if (bucket + distance < BUCKETS && !Double.isNaN(row[bucket + distance])) {
+                return row[bucket + distance] * work * saturationPenalty(strategy);
+            }
+        }
+        return Double.NaN;
+    }
+
+    // 1.0 for an idle pool, growing with busy workers and queued backlog
+    private double saturationPenalty(ExecutionStrategy strategy) {
+        ForkJoinPool pool = switch (strategy) {
+            case SEQUENTIAL -> null;
+            case COMMON_POOL -> ForkJoinPool.commonPool();
+            case CUSTOM_POOL -> customPool;
+        };
+        if (pool == null) {
+            return 1.0;
+        }
+        double parallelism = pool.getParallelism();
+        double busy = Math.min(1.0, pool.getActiveThreadCount() / parallelism);
+        double backlog = pool.getQueuedTaskCount() / parallelism;
+        return 1.0 + busy + backlog;
+    }
+
+    // Used until anything has been measured for a large batch
+    private ExecutionStrategy prior(int batchSize) {
+        return batchSize < 2 * customPool.getParallelism()
+                ? ExecutionStrategy.SEQUENTIAL
+                : ExecutionStrategy.CUSTOM_POOL;
+    }
+
+    private static long work(int batchSize, int iterations) {
+        return (long) batchSize * Math.max(1, iterations);
+    }
+
+    private static int bucketOf(long work) {
+        return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(Math.max(1, work)));
+    }
+}
@@ -0,0 +1,235 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.PortfolioColumns;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+// Multi-tenant front end for the custom pool.
+// Batches are tagged with a tenant and a priority and cut into chunks of chunkSize rows.
+// Each (tenant, priority) pair is a flow, and flows are served by deficit round-robin with a
+// quantum of chunkSize x priority weight, so an URGENT flow gets 16 chunks for every LOW one
+// and no tenant can monopolise the pool. At most `parallelism` chunks run at once; the next
+// chunk is chosen only when one finishes, which preempts a large batch at chunk boundaries.
+// A small urgent batch therefore waits for at most one chunk per busy worker plus one round
+// of the other flows, however large the batches ahead of it are.
+@Service
+public class FairRiskScheduler {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+
+    private final FinancialCalculationService calculationService;
+    private final int chunkSize;
+    private final IntSupplier maxInFlightChunks;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<FlowKey, Flow> flows = new HashMap<>();
+    private final Deque<Flow> activeFlows = new ArrayDeque<>();
+    private int inFlightChunks;
+
+    @Autowired
+    public FairRiskScheduler(FinancialCalculationService calculationService,
+                             @Value("${risk.scheduler.chunk-size:" + DEFAULT_CHUNK_SIZE + "}") int chunkSize) {
+        // Follows the pool's parallelism when it is resized at runtime
+        this(calculationService, chunkSize, calculationService::getParallelism);
+    }
+
+    public FairRiskScheduler(FinancialCalculationService calculationService, int chunkSize, int maxInFlightChunks) {
+        this(calculationService, chunkSize, fixed(maxInFlightChunks));
+    }
+
+    private FairRiskScheduler(FinancialCalculationService calculationService, int chunkSize,
+                              IntSupplier maxInFlightChunks) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size and in-flight chunks must be positive");
+        }
+        this.calculationService = calculationService;
+        this.chunkSize = chunkSize;
+        this.maxInFlightChunks = maxInFlightChunks;
+    }
+
+    private static IntSupplier fixed(int maxInFlightChunks) {
+        if (maxInFlightChunks < 1) {
+            throw new IllegalArgumentException("Chunk size and in-flight chunks must be positive");
+        }
+        return () -> maxInFlightChunks;
+    }
+
+    public CompletableFuture<double[]> submit(String tenant, BatchPriority priority, List<Portfolio> portfolios) {
+        return submit(tenant, priority, PortfolioBook.of(portfolios));
+    }
+
+    // Results are indexed by book row, as in the book overloads of FinancialCalculationService
+    public CompletableFuture<double[]> submit(String tenant, BatchPriority priority, PortfolioColumns book) {
+        Batch batch = new Batch(book);
+        if (book.size() == 0) {
+            batch.future.complete(batch.results);
+            return batch.future;
+        }
+        List<Chunk> ready;
+        lock.lock();
+        try {
+            FlowKey key = new FlowKey(tenant, priority);
+            Flow flow = flows.computeIfAbsent(key, k -> new Flow(k, (long) chunkSize * priority.getWeight()));
+            if (flow.batches.isEmpty()) {
+                activeFlows.addLast(flow);
+            }
+            flow.batches.addLast(batch);
+            ready = takeReadyChunks();
+        } finally {
+            lock.unlock();
+        }
+        launch(ready);
+        return batch.future;
+    }
+
+    // Batches submitted and not yet fully dispatched, across all tenants
+    public int getQueuedBatchCount() {
+        lock.lock();
+        try {
+            int queued = 0;
+            for (Flow flow : activeFlows) {
+                queued += flow.batches.size();
+            }
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock; chunks are launched after it is released
+    private List<Chunk> takeReadyChunks() {
+        List<Chunk> ready = new ArrayList<>();
+        while (inFlightChunks < maxInFlightChunks.getAsInt() && !activeFlows.isEmpty()) {
+            ready.add(nextChunk());
+            inFlightChunks++;
+        }
+        return ready;
+    }
+
+    // A chunk that cannot be handed to the pool (e.g. rejected after shutdown) is finished as
+    // failed, which frees its in-flight slot and fails its batch instead of leaking the slot
+    private void launch(List<Chunk> chunks) {
+        for (Chunk chunk : chunks) {
+            Batch batch = chunk.batch;
+            CompletableFuture<Void> running;
+            try {
+                running = calculationService.calculateRiskMetricsAsync(batch.book, chunk.fromRow, chunk.toRow,
+                        batch.results);
+            } catch (RuntimeException e) {
+                onChunkDone(chunk, e);
+                continue;
+            }
+            running.whenComplete((ignored, failure) -> onChunkDone(chunk, failure));
+        }
+    }
+
+    // Deficit round-robin: the head flow is served while its deficit covers the next chunk,
+    // otherwise it earns its quantum and moves to the back
+    private Chunk nextChunk() {
+        while (true) {
+            Flow flow = activeFlows.peekFirst();
+            Batch batch = flow.batches.peekFirst();
+            int fromRow = batch.nextRow;
+            int toRow = Math.min(batch.book.size(), fromRow + chunkSize);
+            int cost = toRow - fromRow;
+            if (flow.deficit < cost) {
+                flow.deficit += flow.quantum;
+                activeFlows.addLast(activeFlows.pollFirst());
+                continue;
+            }
+            flow.deficit -= cost;
+            batch.nextRow = toRow;
+            batch.pendingChunks++;
+            if (toRow == batch.book.size()) {
+                flow.batches.pollFirst();
+                if (flow.batches.isEmpty()) {
+                    activeFlows.pollFirst();
+                    flow.deficit = 0;
+                    flows.remove(flow.key);
+                }
+            }
+            return new Chunk(batch, fromRow, toRow);
+        }
+    }
+
+    private void onChunkDone(Chunk chunk, Throwable failure) {
+        Batch batch = chunk.batch;
+        List<Chunk> ready;
+        lock.lock();
+        try {
+            inFlightChunks--;
+            batch.pendingChunks--;
+            if (failure != null) {
+                cancelRemaining(batch);
+                batch.future.completeExceptionally(failure);
+            } else if (batch.pendingChunks == 0 && batch.nextRow == batch.book.size()) {
+                batch.future.complete(batch.results);
+            }
+            ready = takeReadyChunks();
+        } finally {
+            lock.unlock();
+        }
+        launch(ready);
+    }
+
+    // Stops dispatching a failed batch; chunks already running finish and are ignored
+    private void cancelRemaining(Batch batch) {
+        if (batch.nextRow == batch.book.size()) {
+            return;
+        }
+        batch.nextRow = batch.book.size();
+        for (Flow flow : activeFlows) {
+            if (flow.batches.remove(batch) && flow.batches.isEmpty()) {
+                activeFlows.remove(flow);
+                flows.remove(flow.key);
+                return;
+            }
+        }
+    }
+
+    private record FlowKey(String tenant, BatchPriority priority) {
+    }
+
+    private record Chunk(Batch batch, int fromRow, int toRow) {
+    }
+
+    private static final class Flow {
+
+        final FlowKey key;
+        final long quantum;
+        final Deque<Batch> batches = new ArrayDeque<>();
+        long deficit;
+
+        Flow(FlowKey key, long quantum) {
+            this.key = key;
+            this.quantum = quantum;
+        }
+    }
+
+    private static final class Batch {
+
+        final PortfolioColumns book;
+        final double[] results;
+        final CompletableFuture<double[]> future = new CompletableFuture<>();
+        int nextRow;
+        int pendingChunks;
+
+        Batch(PortfolioColumns book) {
+            this.book = book;
+            this.results = new double[book.size()];
+        }
+    }
+}
@@ -1,79 +1,611 @@
 package com.exparal.demo.service;
 
+import com.exparal.demo.config.RiskPoolProperties;
+import com.exparal.demo.model.MarketScenario;
 import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioColumns;
+import com.exparal.demo.model.RiskEstimate;
+import com.exparal.demo.model.ScenarioMatrix;
+import com.exparal.demo.model.TailRiskReport;
 import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.DoubleBuffer;
+import java.time.Duration;
 import java.util.List;
-import java.util.Random;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 // Service class demonstrating parallel processing
 @Service
 public class FinancialCalculationService {
 
+    private static final Logger log = LoggerFactory.getLogger(FinancialCalculationService.class);
+
+    public static final int DEFAULT_ITERATIONS = 100000; // CPU-intensive loop
+
+    // Batch metrics tag for the fork/join engine paths, alongside the ExecutionStrategy names
+    public static final String FORK_JOIN_STRATEGY = "FORK_JOIN";
+    public static final String SCENARIO_GRID_STRATEGY = "SCENARIO_GRID";
+    public static final String PRECISION_TARGET_STRATEGY = "PRECISION_TARGET";
+    public static final String SCHEDULED_SLICE_STRATEGY = "SCHEDULED_SLICE";
+
     private final ForkJoinPool customThreadPool;
+    private final int iterations;
+    private final RiskKernel kernel;
+    private final ExecutionStrategyRouter strategyRouter;
+    private final ForkJoinRiskEngine forkJoinEngine;
+    private final RiskResultCache resultCache;
+    private final CalculationMetrics metrics;
 
     public FinancialCalculationService() {
+        this(Optional.empty(), new RiskPoolProperties());
+    }
+
+    // The result cache bean only exists with risk.cache.enabled=true
+    @Autowired
+    public FinancialCalculationService(Optional<RiskResultCache> resultCache, RiskPoolProperties poolProperties) {
+        this(newCustomPool(poolProperties.getCustomPool()), DEFAULT_ITERATIONS, RiskKernels.select(),
+                resultCache.orElse(null));
+    }
+
+    // Explicit sizing, used by benchmarks and tests that sweep parallelism and load
+    public FinancialCalculationService(int parallelism, int iterations) {
+        this(parallelism, iterations, RiskKernels.select());
+    }
+
+    public FinancialCalculationService(int parallelism, int iterations, RiskKernel kernel) {
+        this(parallelism, iterations, kernel, null);
+    }
+
+    // With a non-null cache, repeated portfolio parameters are served from it on every path
+    public FinancialCalculationService(int parallelism, int iterations, RiskKernel kernel,
+                                       RiskResultCache resultCache) {
         // Create custom ForkJoinPool with specific parallelism level
-        int parallelism = Runtime.getRuntime().availableProcessors();
-        System.out.println("Available processors,%d" + parallelism);
-        this.customThreadPool = new ForkJoinPool(parallelism);
+        this(new ForkJoinPool(parallelism), iterations, kernel, resultCache);
+    }
+
+    // Takes ownership of the pool: shutdown() shuts it down
+    private FinancialCalculationService(ForkJoinPool customThreadPool, int iterations, RiskKernel kernel,
+                                        RiskResultCache resultCache) {
+        log.info("Custom pool parallelism {}, risk kernel {}{}", customThreadPool.getParallelism(), kernel.name(),
+                resultCache != null ? " (cached)" : "");
+        this.customThreadPool = customThreadPool;
+        this.iterations = iterations;
+        this.resultCache = resultCache;
+        this.metrics = new CalculationMetrics(customThreadPool, resultCache);
+        // Sampled timing sits under the cache so only real kernel work is timed
+        RiskKernel timedKernel = new SampledTimingRiskKernel(kernel, metrics);
+        this.kernel = resultCache != null ? new CachingRiskKernel(timedKernel, resultCache) : timedKernel;
+        this.strategyRouter = new ExecutionStrategyRouter(customThreadPool);
+        this.forkJoinEngine = new ForkJoinRiskEngine(customThreadPool, this.kernel);
+    }
+
+    public int getParallelism() {
+        return customThreadPool.getParallelism();
+    }
+
+    // Live resize of the custom pool; returns the previous parallelism. Running batches pick up
+    // the new target as workers are started or retire, without a restart.
+    public int setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        return customThreadPool.setParallelism(parallelism);
+    }
+
+    public boolean isAsyncMode() {
+        return customThreadPool.getAsyncMode();
+    }
+
+    // Worker threads the custom pool has started and not yet terminated, busy or idle
+    public int getPoolSize() {
+        return customThreadPool.getPoolSize();
+    }
+
+    public long getQueuedTaskCount() {
+        return customThreadPool.getQueuedTaskCount();
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String getKernelName() {
+        return kernel.name();
+    }
+
+    public ExecutionStrategyRouter getStrategyRouter() {
+        return strategyRouter;
+    }
+
+    public Optional<RiskResultCache> getResultCache() {
+        return Optional.ofNullable(resultCache);
+    }
+
+    // Bound to the Actuator registry by ParallelProcessingConfig; a no-op until then
+    public CalculationMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Adaptive processing: strategy chosen per batch from size, iterations and pool saturation.
+    // The chosen method records the batch metrics; this only feeds the router.
+    public List<BigDecimal> calculateRiskMetrics(List<Portfolio> portfolios) {
+        ExecutionStrategy strategy = strategyRouter.choose(portfolios.size(), iterations);
+        long start = System.nanoTime();
+        List<BigDecimal> results = switch (strategy) {
+            case SEQUENTIAL -> calculateRiskMetricsSequential(portfolios);
+            case COMMON_POOL -> calculateRiskMetricsParallel(portfolios);
+            case CUSTOM_POOL -> calculateRiskMetricsCustomPool(portfolios);
+        };
+        strategyRouter.record(strategy, portfolios.size(), iterations, System.nanoTime() - start);
+        return results;
+    }
+
+    // Adaptive and reproducible: any chosen strategy returns the same metrics for the same seed
+    public List<BigDecimal> calculateRiskMetrics(List<Portfolio> portfolios, long seed) {
+        ExecutionStrategy strategy = strategyRouter.choose(portfolios.size(), iterations);
+        long start = System.nanoTime();
+        List<BigDecimal> results = switch (strategy) {
+            case SEQUENTIAL -> calculateRiskMetricsSequential(portfolios, seed);
+            case COMMON_POOL -> calculateRiskMetricsParallel(portfolios, seed);
+            case CUSTOM_POOL -> calculateRiskMetricsCustomPool(portfolios, seed);
+        };
+        strategyRouter.record(strategy, portfolios.size(), iterations, System.nanoTime() - start);
+        return results;
+    }
+
+    public void calculateRiskMetrics(PortfolioColumns book, double[] results) {
+        ExecutionStrategy strategy = strategyRouter.choose(book.size(), iterations);
+        long start = System.nanoTime();
+        switch (strategy) {
+            case SEQUENTIAL -> calculateRiskMetricsSequential(book, results);
+            case COMMON_POOL -> calculateRiskMetricsParallel(book, results);
+            case CUSTOM_POOL -> calculateRiskMetricsCustomPool(book, results);
+        }
+        strategyRouter.record(strategy, book.size(), iterations, System.nanoTime() - start);
     }
 
+    // Every sequential, parallel and custom-pool overload below records one batch under its
+    // strategy through callRecorded/runRecorded, whichever overload or caller ran it.
+
     // Sequential processing
     public List<BigDecimal> calculateRiskMetricsSequential(List<Portfolio> portfolios) {
-        return portfolios.stream()
-                .map(this::calculateComplexRiskMetric)
-                .collect(Collectors.toList());
+        return callRecorded(ExecutionStrategy.SEQUENTIAL, portfolios.size(), () ->
+                portfolios.stream()
+                        .map(this::calculateComplexRiskMetric)
+                        .collect(Collectors.toList()));
     }
 
     // Parallel processing with default ForkJoinPool
     public List<BigDecimal> calculateRiskMetricsParallel(List<Portfolio> portfolios) {
-        return portfolios.parallelStream()
-                .map(this::calculateComplexRiskMetric)
-                .collect(Collectors.toList());
+        return callRecorded(ExecutionStrategy.COMMON_POOL, portfolios.size(), () ->
+                portfolios.parallelStream()
+                        .map(this::calculateComplexRiskMetric)
+                        .collect(Collectors.toList()));
     }
 
     // Parallel processing with custom ForkJoinPool
     public List<BigDecimal> calculateRiskMetricsCustomPool(List<Portfolio> portfolios) {
+        return callRecorded(ExecutionStrategy.CUSTOM_POOL, portfolios.size(), () ->
+                callInCustomPool(() ->
+                        portfolios.parallelStream()
+                                .map(this::calculateComplexRiskMetric)
+                                .collect(Collectors.toList())));
+    }
+
+    // Sequential processing over a columnar book, results indexed by book row
+    public double[] calculateRiskMetricsSequential(PortfolioColumns book) {
+        double[] results = new double[book.size()];
+        calculateRiskMetricsSequential(book, results);
+        return results;
+    }
+
+    // Parallel processing over a columnar book with default ForkJoinPool
+    public double[] calculateRiskMetricsParallel(PortfolioColumns book) {
+        double[] results = new double[book.size()];
+        calculateRiskMetricsParallel(book, results);
+        return results;
+    }
+
+    // Parallel processing over a columnar book with custom ForkJoinPool
+    public double[] calculateRiskMetricsCustomPool(PortfolioColumns book) {
+        double[] results = new double[book.size()];
+        calculateRiskMetricsCustomPool(book, results);
+        return results;
+    }
+
+    // The methods below write unrounded metrics into a caller-supplied buffer at the book row index.
+    // Nothing is allocated per portfolio; round with roundRiskMetric() only when serializing.
+
+    public void calculateRiskMetricsSequential(PortfolioColumns book, double[] results) {
+        checkCapacity(book, results.length);
+        runRecorded(ExecutionStrategy.SEQUENTIAL, book.size(), () -> {
+            for (int row = 0; row < book.size(); row++) {
+                results[row] = calculateComplexRiskMetric(book, row);
+            }
+        });
+    }
+
+    public void calculateRiskMetricsSequential(PortfolioColumns book, DoubleBuffer results) {
+        checkCapacity(book, results.limit());
+        runRecorded(ExecutionStrategy.SEQUENTIAL, book.size(), () -> {
+            for (int row = 0; row < book.size(); row++) {
+                results.put(row, calculateComplexRiskMetric(book, row));
+            }
+        });
+    }
+
+    public void calculateRiskMetricsParallel(PortfolioColumns book, double[] results) {
+        checkCapacity(book, results.length);
+        runRecorded(ExecutionStrategy.COMMON_POOL, book.size(), () -> fillParallel(book, results));
+    }
+
+    public void calculateRiskMetricsParallel(PortfolioColumns book, DoubleBuffer results) {
+        checkCapacity(book, results.limit());
+        runRecorded(ExecutionStrategy.COMMON_POOL, book.size(), () -> fillParallel(book, results));
+    }
+
+    public void calculateRiskMetricsCustomPool(PortfolioColumns book, double[] results) {
+        checkCapacity(book, results.length);
+        runRecorded(ExecutionStrategy.CUSTOM_POOL, book.size(), () ->
+                runInCustomPool(() -> fillParallel(book, results)));
+    }
+
+    public void calculateRiskMetricsCustomPool(PortfolioColumns book, DoubleBuffer results) {
+        checkCapacity(book, results.limit());
+        runRecorded(ExecutionStrategy.CUSTOM_POOL, book.size(), () ->
+                runInCustomPool(() -> fillParallel(book, results)));
+    }
+
+    // Range-splitting fork/join engine on the custom pool, no stream machinery
+    public void calculateRiskMetricsForkJoin(PortfolioColumns book, double[] results) {
+        calculateRiskMetricsForkJoin(book, results, ForkJoinRiskEngine.DEFAULT_LEAF_SIZE);
+    }
+
+    public void calculateRiskMetricsForkJoin(PortfolioColumns book, double[] results, int leafSize) {
+        long start = System.nanoTime();
+        forkJoinEngine.calculate(book, iterations, results, leafSize);
+        metrics.recordBatch(FORK_JOIN_STRATEGY, book.size(), System.nanoTime() - start);
+    }
+
+    // Per-portfolio iteration counts, split by cost rather than by row count
+    public void calculateRiskMetricsForkJoin(PortfolioColumns book, int[] iterations, double[] results, int leafSize) {
+        long start = System.nanoTime();
+        forkJoinEngine.calculate(book, iterations, results, leafSize);
+        metrics.recordBatch(FORK_JOIN_STRATEGY, book.size(), System.nanoTime() - start);
+    }
+
+    // Seeded processing: each portfolio draws from a stream derived from the batch seed and its id
+    // (PortfolioRandomStreams), so sequential, parallel, custom-pool and fork/join runs agree bit for bit.
+
+    public List<BigDecimal> calculateRiskMetricsSequential(List<Portfolio> portfolios, long seed) {
+        return callRecorded(ExecutionStrategy.SEQUENTIAL, portfolios.size(), () ->
+                portfolios.stream()
+                        .map(portfolio -> calculateComplexRiskMetric(portfolio, seed))
+                        .collect(Collectors.toList()));
+    }
+
+    public List<BigDecimal> calculateRiskMetricsParallel(List<Portfolio> portfolios, long seed) {
+        return callRecorded(ExecutionStrategy.COMMON_POOL, portfolios.size(), () -> mapParallel(portfolios, seed));
+    }
+
+    public List<BigDecimal> calculateRiskMetricsCustomPool(List<Portfolio> portfolios, long seed) {
+        return callRecorded(ExecutionStrategy.CUSTOM_POOL, portfolios.size(), () ->
+                callInCustomPool(() -> mapParallel(portfolios, seed)));
+    }
+
+    public void calculateRiskMetricsSequential(PortfolioColumns book, long seed, double[] results) {
+        checkCapacity(book, results.length);
+        runRecorded(ExecutionStrategy.SEQUENTIAL, book.size(), () -> {
+            for (int row = 0; row < book.size(); row++) {
+                results[row] = calculateComplexRiskMetric(book, row, seed);
+            }
+        });
+    }
+
+    public void calculateRiskMetricsParallel(PortfolioColumns book, long seed, double[] results) {
+        checkCapacity(book, results.length);
+        runRecorded(ExecutionStrategy.COMMON_POOL, book.size(), () -> fillParallel(book, seed, results));
+    }
+
+    public void calculateRiskMetricsCustomPool(PortfolioColumns book, long seed, double[] results) {
+        checkCapacity(book, results.length);
+        runRecorded(ExecutionStrategy.CUSTOM_POOL, book.size(), () ->
+                runInCustomPool(() -> fillParallel(book, seed, results)));
+    }
+
+    public void calculateRiskMetricsForkJoin(PortfolioColumns book, long seed, double[] results, int leafSize) {
+        long start = System.nanoTime();
+        forkJoinEngine.calculate(book, iterations, seed, results, leafSize);
+        metrics.recordBatch(FORK_JOIN_STRATEGY, book.size(), System.nanoTime() - start);
+    }
+
+    // Precision-targeted processing on the custom pool: each portfolio draws until its metric's
+    // standard error meets the target (ConvergentMonteCarlo) and reports the draws it took.
+    // Batches are recorded under PRECISION_TARGET_STRATEGY. The configured kernel and result
+    // cache are bypassed on purpose: a RiskKernel only returns the finished metric of a fixed
+    // iteration count, while the stopping rule needs the running sums of every batch of draws,
+    // and a cached fixed-count metric carries no standard error to hold against the target.
+    // Per-portfolio kernel timings are not sampled either, as draw counts vary per portfolio.
+
+    // Relative error target capped at this service's fixed iteration count
+    public PrecisionTarget precisionTarget(double relativeError) {
+        return PrecisionTarget.relative(relativeError, iterations);
+    }
+
+    public List<RiskEstimate> calculateRiskMetricsToTarget(List<Portfolio> portfolios, PrecisionTarget target) {
+        long start = System.nanoTime();
+        List<RiskEstimate> results = callInCustomPool(() ->
+                portfolios.parallelStream()
+                        .map(portfolio -> ConvergentMonteCarlo.simulate(portfolio.getNotional(),
+                                portfolio.getExpectedReturn(), portfolio.getVolatility(), target,
+                                ThreadLocalRandom.current()))
+                        .collect(Collectors.toList()));
+        metrics.recordBatch(PRECISION_TARGET_STRATEGY, portfolios.size(), System.nanoTime() - start);
+        return results;
+    }
+
+    public RiskEstimate[] calculateRiskMetricsToTarget(PortfolioColumns book, PrecisionTarget target) {
+        RiskEstimate[] results = new RiskEstimate[book.size()];
+        long start = System.nanoTime();
+        runInCustomPool(() -> IntStream.range(0, book.size()).parallel()
+                .forEach(row -> results[row] = ConvergentMonteCarlo.simulate(book.getNotional(row),
+                        book.getExpectedReturn(row), book.getVolatility(row), target, ThreadLocalRandom.current())));
+        metrics.recordBatch(PRECISION_TARGET_STRATEGY, book.size(), System.nanoTime() - start);
+        return results;
+    }
+
+    // Reproducible variant: draws come from the per-portfolio seeded streams
+    public RiskEstimate[] calculateRiskMetricsToTarget(PortfolioColumns book, PrecisionTarget target, long seed) {
+        RiskEstimate[] results = new RiskEstimate[book.size()];
+        long start = System.nanoTime();
+        runInCustomPool(() -> IntStream.range(0, book.size()).parallel()
+                .forEach(row -> results[row] = ConvergentMonteCarlo.simulate(book.getNotional(row),
+                        book.getExpectedReturn(row), book.getVolatility(row), target,
+                        PortfolioRandomStreams.forPortfolio(seed, book.getId(row)))));
+        metrics.recordBatch(PRECISION_TARGET_STRATEGY, book.size(), System.nanoTime() - start);
+        return results;
+    }
+
+    // Computes rows [fromRow, toRow) sequentially as one task on the custom pool, for schedulers
+    // that interleave slices of several books. Each slice is recorded as its own batch.
+    public CompletableFuture<Void> calculateRiskMetricsAsync(PortfolioColumns book, int fromRow, int toRow,
+                                                            double[] results) {
+        if (fromRow < 0 || toRow > book.size() || fromRow > toRow) {
+            throw new IndexOutOfBoundsException(
+                    "Range [" + fromRow + ", " + toRow + ") outside book of size " + book.size());
+        }
+        checkCapacity(book, results.length);
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            for (int row = fromRow; row < toRow; row++) {
+                results[row] = calculateComplexRiskMetric(book, row);
+            }
+            metrics.recordBatch(SCHEDULED_SLICE_STRATEGY, toRow - fromRow, System.nanoTime() - start);
+        }, customThreadPool);
+    }
+
+    // Computes one portfolio on the custom pool, for pipelines that run their I/O stages elsewhere
+    public CompletableFuture<BigDecimal> calculateRiskMetricAsync(Portfolio portfolio) {
+        return CompletableFuture.supplyAsync(() -> calculateComplexRiskMetric(portfolio), customThreadPool);
+    }
+
+    // Computes a book on the custom pool without blocking the caller
+    public CompletableFuture<double[]> calculateRiskMetricsAsync(PortfolioColumns book) {
+        return CompletableFuture.supplyAsync(() -> {
+            double[] results = new double[book.size()];
+            long start = System.nanoTime();
+            forkJoinEngine.calculate(book, iterations, results, ForkJoinRiskEngine.DEFAULT_LEAF_SIZE);
+            metrics.recordBatch(FORK_JOIN_STRATEGY, book.size(), System.nanoTime() - start);
+            return results;
+        }, customThreadPool);
+    }
+
+    // Book-level tail risk: VaR and Expected Shortfall at each confidence level over this service's
+    // iteration count of simulated paths, for the whole book and for each sub-book named by
+    // subBookOf (portfolio id to sub-book). Paths are aggregated in mergeable histograms
+    // (TailRiskAggregator), so memory does not grow with the path count.
+    public TailRiskReport calculateTailRisk(PortfolioColumns book, Function<String, String> subBookOf,
+                                            double... confidenceLevels) {
+        ExecutionStrategy strategy = strategyRouter.choose(book.size(), iterations);
+        long start = System.nanoTime();
+        TailRiskReport report = calculateTailRisk(book, subBookOf, strategy, confidenceLevels);
+        strategyRouter.record(strategy, book.size(), iterations, System.nanoTime() - start);
+        return report;
+    }
+
+    public TailRiskReport calculateTailRisk(PortfolioColumns book, Function<String, String> subBookOf,
+                                            ExecutionStrategy strategy, double... confidenceLevels) {
+        return tailRisk(book, subBookOf, strategy, false, 0, confidenceLevels);
+    }
+
+    // Seeded tail risk: the same seed gives the same paths under every strategy
+    public TailRiskReport calculateTailRisk(PortfolioColumns book, long seed, Function<String, String> subBookOf,
+                                            double... confidenceLevels) {
+        ExecutionStrategy strategy = strategyRouter.choose(book.size(), iterations);
+        long start = System.nanoTime();
+        TailRiskReport report = calculateTailRisk(book, seed, subBookOf, strategy, confidenceLevels);
+        strategyRouter.record(strategy, book.size(), iterations, System.nanoTime() - start);
+        return report;
+    }
+
+    public TailRiskReport calculateTailRisk(PortfolioColumns book, long seed, Function<String, String> subBookOf,
+                                            ExecutionStrategy strategy, double... confidenceLevels) {
+        return tailRisk(book, subBookOf, strategy, true, seed, confidenceLevels);
+    }
+
+    private TailRiskReport tailRisk(PortfolioColumns book, Function<String, String> subBookOf,
+                                    ExecutionStrategy strategy, boolean seeded, long seed,
+                                    double[] confidenceLevels) {
+        double[] levels = confidenceLevels.length > 0 ? confidenceLevels : TailRiskAggregator.DEFAULT_CONFIDENCE_LEVELS;
+        for (double level : levels) {
+            if (!(level > 0 && level < 1)) {
+                throw new IllegalArgumentException("Confidence level must be in (0, 1): " + level);
+            }
+        }
+        TailRiskAggregator aggregator = new TailRiskAggregator(book, subBookOf);
+        int chunks = aggregator.chunkCount(iterations);
+        Function<IntStream, TailRiskAggregator.Accumulator> simulate = seeded
+                ? chunkStream -> aggregator.simulate(chunkStream, iterations, seed)
+                : chunkStream -> aggregator.simulate(chunkStream, iterations);
+        long start = System.nanoTime();
+        TailRiskAggregator.Accumulator paths = switch (strategy) {
+            case SEQUENTIAL -> simulate.apply(IntStream.range(0, chunks));
+            case COMMON_POOL -> simulate.apply(IntStream.range(0, chunks).parallel());
+            case CUSTOM_POOL -> callInCustomPool(() -> simulate.apply(IntStream.range(0, chunks).parallel()));
+        };
+        metrics.recordBatch(strategy.name(), book.size(), System.nanoTime() - start);
+        return aggregator.report(paths, levels);
+    }
+
+    // Stress grid on the custom pool: every portfolio revalued under every scenario with this
+    // service's iteration count, all scenarios of a portfolio sharing its draws (ScenarioGridEngine).
+    // Uses the scalar model directly rather than the configured kernel or result cache.
+    public ScenarioMatrix calculateScenarioGrid(PortfolioColumns book, List<MarketScenario> scenarios) {
+        return calculateScenarioGrid(book, scenarios, ThreadLocalRandom.current().nextLong());
+    }
+
+    public ScenarioMatrix calculateScenarioGrid(PortfolioColumns book, List<MarketScenario> scenarios, long seed) {
+        ScenarioGridEngine engine = new ScenarioGridEngine(book, scenarios, iterations, seed);
+        long start = System.nanoTime();
+        ScenarioMatrix matrix = callInCustomPool(() -> engine.compute(IntStream.range(0, engine.tileCount()).parallel()));
+        metrics.recordBatch(SCENARIO_GRID_STRATEGY, book.size() * scenarios.size(), System.nanoTime() - start);
+        return matrix;
+    }
+
+    // Cancellable fork/join run on the custom pool. Returns at once; the handle cancels the batch,
+    // which also stops at the deadline, and returns the metrics finished so far with a completion map.
+    public BatchHandle submitRiskMetrics(PortfolioColumns book) {
+        return submitRiskMetrics(book, null);
+    }
+
+    public BatchHandle submitRiskMetrics(PortfolioColumns book, Duration deadline) {
+        long start = System.nanoTime();
+        BatchHandle handle = forkJoinEngine.submit(book, iterations, deadline, ForkJoinRiskEngine.DEFAULT_LEAF_SIZE);
+        handle.toCompletableFuture().thenAccept(result ->
+                metrics.recordBatch(FORK_JOIN_STRATEGY, result.completedCount(), System.nanoTime() - start));
+        return handle;
+    }
+
+    // Serialization boundary: the List<BigDecimal> API reports metrics at 4 decimal places
+    public static BigDecimal roundRiskMetric(double metric) {
+        return BigDecimal.valueOf(metric).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private <T> T callRecorded(ExecutionStrategy strategy, int portfolios, Supplier<T> batch) {
+        long start = System.nanoTime();
+        T result = batch.get();
+        metrics.recordBatch(strategy.name(), portfolios, System.nanoTime() - start);
+        return result;
+    }
+
+    private void runRecorded(ExecutionStrategy strategy, int portfolios, Runnable batch) {
+        callRecorded(strategy, portfolios, () -> {
+            batch.run();
+            return null;
+        });
+    }
+
+    // Stream bodies shared by the common-pool and custom-pool overloads, unrecorded so the batch
+    // is only counted under the strategy that ran it
+
+    private void fillParallel(PortfolioColumns book, double[] results) {
+        IntStream.range(0, book.size()).parallel()
+                .forEach(row -> results[row] = calculateComplexRiskMetric(book, row));
+    }
+
+    // Absolute puts on distinct indices, so workers never share the buffer position
+    private void fillParallel(PortfolioColumns book, DoubleBuffer results) {
+        IntStream.range(0, book.size()).parallel()
+                .forEach(row -> results.put(row, calculateComplexRiskMetric(book, row)));
+    }
+
+    private void fillParallel(PortfolioColumns book, long seed, double[] results) {
+        IntStream.range(0, book.size()).parallel()
+                .forEach(row -> results[row] = calculateComplexRiskMetric(book, row, seed));
+    }
+
+    private List<BigDecimal> mapParallel(List<Portfolio> portfolios, long seed) {
+        return portfolios.parallelStream()
+                .map(portfolio -> calculateComplexRiskMetric(portfolio, seed))
+                .collect(Collectors.toList());
+    }
+
+    private void runInCustomPool(Runnable calculation) {
+        callInCustomPool(() -> {
+            calculation.run();
+            return null;
+        });
+    }
+
+    // An interrupted caller keeps its interrupt status and unstarted work is dropped; use
+    // submitRiskMetrics when running work must stop too
+    private <T> T callInCustomPool(Callable<T> calculation) {
+        ForkJoinTask<T> task = customThreadPool.submit(calculation);
         try {
-            return customThreadPool.submit(() ->
-                    portfolios.parallelStream()
-                            .map(this::calculateComplexRiskMetric)
-                            .collect(Collectors.toList())
-            ).get();
-        } catch (InterruptedException | ExecutionException e) {
+            return task.get();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Parallel calculation interrupted", e);
+        } catch (ExecutionException e) {
             throw new RuntimeException("Parallel calculation failed", e);
         }
     }
 
-    // Simulate CPU-intensive calculation (Monte Carlo simulation)
-    private BigDecimal calculateComplexRiskMetric(Portfolio portfolio) {
-        // Simulate complex financial calculation
-        double result = 0.0;
-        int iterations = 100000; // CPU-intensive loop
-
-        Random random = ThreadLocalRandom.current();
-
-        for (int i = 0; i < iterations; i++) {
-            // Monte Carlo simulation for risk calculation
-            double randomValue = random.nextGaussian();
-            double portfolioReturn = portfolio.getExpectedReturn() +
-                    (portfolio.getVolatility() * randomValue);
-            result += Math.max(0, portfolio.getNotional() - portfolioReturn);
+    // Custom pool from risk.pools.custom-pool.*: worker threads are named prefix + sequence
+    // number and, with pin-workers, bound to CPUs in NUMA order and kept alive when idle
+    private static ForkJoinPool newCustomPool(RiskPoolProperties.CustomPool settings) {
+        RiskWorkerThreadFactory threadFactory =
+                new RiskWorkerThreadFactory(settings.getThreadNamePrefix(), settings.isPinWorkers());
+        return threadFactory.newPool(settings.resolvedParallelism(), settings.isAsyncMode());
+    }
+
+    private static void checkCapacity(PortfolioColumns book, int capacity) {
+        if (capacity < book.size()) {
+            throw new IllegalArgumentException(
+                    "Result buffer holds " + capacity + " values but the book has " + book.size() + " portfolios");
         }
+    }
+
+    private BigDecimal calculateComplexRiskMetric(Portfolio portfolio) {
+        return roundRiskMetric(calculateComplexRiskMetric(portfolio.getNotional(),
+                portfolio.getExpectedReturn(), portfolio.getVolatility()));
+    }
+
+    private double calculateComplexRiskMetric(PortfolioColumns book, int row) {
+        return calculateComplexRiskMetric(book.getNotional(row),
+                book.getExpectedReturn(row), book.getVolatility(row));
+    }
 
-        // Additional CPU-intensive operations
-        result = Math.sqrt(Math.abs(result / iterations));
-        result = Math.pow(result, 1.5);
+    private BigDecimal calculateComplexRiskMetric(Portfolio portfolio, long seed) {
+        return roundRiskMetric(kernel.simulate(portfolio.getNotional(), portfolio.getExpectedReturn(),
+                portfolio.getVolatility(), iterations, PortfolioRandomStreams.forPortfolio(seed, portfolio.getId())));
+    }
 
-        return BigDecimal.valueOf(result).setScale(4, RoundingMode.HALF_UP);
+    private double calculateComplexRiskMetric(PortfolioColumns book, int row, long seed) {
+        return kernel.simulate(book.getNotional(row), book.getExpectedReturn(row), book.getVolatility(row),
+                iterations, PortfolioRandomStreams.forPortfolio(seed, book.getId(row)));
+    }
+
+    // Simulate CPU-intensive calculation (Monte Carlo simulation)
+    private double calculateComplexRiskMetric(double notional, double expectedReturn, double volatility) {
+        return kernel.simulate(notional, expectedReturn, volatility, iterations);
     }
 
     @PreDestroy
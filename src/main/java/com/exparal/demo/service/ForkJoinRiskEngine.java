@@ -0,0 +1,218 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.PortfolioColumns;
+
+import java.time.Duration;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+// Purpose-built fork/join engine over a PortfolioBook or any other PortfolioColumns.
+// Splits the row range in halves down to a leaf-size threshold and writes each metric
+// straight into a presized buffer, so there is no spliterator, boxing or list merge.
+// With per-row iteration counts the split point is the cost midpoint (prefix sums of
+// iterations) rather than the index midpoint, so both halves carry similar work.
+// Seeded calculations draw each row from PortfolioRandomStreams, so results do not depend
+// on how the range was split or which worker ran it.
+// Leaves write straight into the caller's array, so a calculation allocates no result storage
+// and copies nothing. Uniform splits fall on 8-row (one cache line of doubles) boundaries, so
+// two workers meet at most on the one line that straddles their boundary, never inside a leaf.
+// Cost-weighted splits keep the exact cost midpoint, since balance matters more there than the
+// odd shared line. Submitted batches write into their BatchHandle's PaddedResultBuffer, which
+// the handle owns anyway, so no two workers share a line at all.
+// Submitted batches run without blocking the caller and check their BatchHandle before every
+// split, every row and every RiskKernel.STOP_CHECK_INTERVAL iterations within a row, so
+// cancellation or a passed deadline stops them cooperatively, even in the middle of a long row.
+public class ForkJoinRiskEngine {
+
+    public static final int DEFAULT_LEAF_SIZE = 8;
+
+    private final ForkJoinPool pool;
+    private final RiskKernel kernel;
+
+    public ForkJoinRiskEngine(ForkJoinPool pool, RiskKernel kernel) {
+        this.pool = pool;
+        this.kernel = kernel;
+    }
+
+    public void calculate(PortfolioColumns book, int iterations, double[] results, int leafSize) {
+        checkArguments(book, results.length, leafSize);
+        run(new Job(book, kernel, iterations, null, null, false, 0L, results, null, leafSize, null));
+    }
+
+    // Reproducible variant: each row draws from a stream derived from the seed and its id
+    public void calculate(PortfolioColumns book, int iterations, long seed, double[] results, int leafSize) {
+        checkArguments(book, results.length, leafSize);
+        run(new Job(book, kernel, iterations, null, null, true, seed, results, null, leafSize, null));
+    }
+
+    // Cost-weighted variant: iterations[row] is the simulation length of each portfolio
+    public void calculate(PortfolioColumns book, int[] iterations, double[] results, int leafSize) {
+        checkArguments(book, results.length, leafSize);
+        if (iterations.length < book.size()) {
+            throw new IllegalArgumentException(
+                    "Iteration counts cover " + iterations.length + " rows but the book has " + book.size());
+        }
+        long[] costPrefix = new long[book.size() + 1];
+        for (int row = 0; row < book.size(); row++) {
+            costPrefix[row + 1] = costPrefix[row] + Math.max(1, iterations[row]);
+        }
+        run(new Job(book, kernel, 0, iterations, costPrefix, false, 0L, results, null, leafSize, null));
+    }
+
+    // Non-blocking variant: returns at once with a handle that cancels the batch, stops it at the
+    // deadline (null for none) and collects the metrics finished so far
+    public BatchHandle submit(PortfolioColumns book, int iterations, Duration deadline, int leafSize) {
+        BatchHandle handle = new BatchHandle(book.size(), deadline);
+        checkArguments(book, handle.size(), leafSize);
+        if (book.size() == 0) {
+            handle.complete();
+            return handle;
+        }
+        Job job = new Job(book, kernel, iterations, null, null, false, 0L, null, handle.results(), leafSize, handle);
+        pool.execute(new RangeTask(null, job, 0, book.size()));
+        return handle;
+    }
+
+    private void run(Job job) {
+        if (job.book.size() == 0) {
+            return;
+        }
+        RangeTask root = new RangeTask(null, job, 0, job.book.size());
+        // Already on one of our workers: run inline instead of blocking a worker on a nested invoke
+        if (Thread.currentThread() instanceof ForkJoinWorkerThread worker && worker.getPool() == pool) {
+            root.invoke();
+        } else {
+            pool.invoke(root);
+        }
+    }
+
+    private static void checkArguments(PortfolioColumns book, int capacity, int leafSize) {
+        if (leafSize < 1) {
+            throw new IllegalArgumentException("Leaf size must be positive: " + leafSize);
+        }
+        if (capacity < book.size()) {
+            throw new IllegalArgumentException(
+                    "Result buffer holds " + capacity + " values but the book has " + book.size() + " portfolios");
+        }
+    }
+
+    // State shared by every task of one calculation; results go to exactly one of dense and padded
+    private record Job(PortfolioColumns book, RiskKernel kernel, int uniformIterations,
+                       int[] iterations, long[] costPrefix, boolean seeded, long seed,
+                       double[] dense, PaddedResultBuffer padded, int leafSize, BatchHandle handle) {
+
+        boolean stopped() {
+            return handle != null && handle.shouldStop();
+        }
+
+        int iterationsFor(int row) {
+            return iterations != null ? iterations[row] : uniformIterations;
+        }
+
+        double simulate(int row) {
+            if (seeded) {
+                return kernel.simulate(book.getNotional(row), book.getExpectedReturn(row), book.getVolatility(row),
+                        iterationsFor(row), PortfolioRandomStreams.forPortfolio(seed, book.getId(row)));
+            }
+            return kernel.simulate(book.getNotional(row), book.getExpectedReturn(row), book.getVolatility(row),
+                    iterationsFor(row));
+        }
+
+        // Submitted batches only, which are never seeded; NaN when the handle stopped the row
+        double simulateUntilStopped(int row) {
+            return kernel.simulate(book.getNotional(row), book.getExpectedReturn(row), book.getVolatility(row),
+                    iterationsFor(row), handle::shouldStop);
+        }
+
+        void store(int row, double metric) {
+            if (dense != null) {
+                dense[row] = metric;
+            } else {
+                padded.set(row, metric);
+            }
+        }
+
+        int split(int from, int to) {
+            if (costPrefix == null) {
+                return PaddedResultBuffer.alignSplit(from, to, (from + to) >>> 1);
+            }
+            // First row whose prefix cost reaches the midpoint of the range's cost
+            long target = (costPrefix[from] + costPrefix[to]) >>> 1;
+            int low = from + 1;
+            int high = to - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (costPrefix[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class RangeTask extends CountedCompleter<Void> {
+
+        private final Job job;
+        private final int from;
+        private final int to;
+
+        RangeTask(CountedCompleter<?> parent, Job job, int from, int to) {
+            super(parent);
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public void compute() {
+            int end = to;
+            // Fork right halves and keep the left half on this worker
+            while (end - from > job.leafSize && !job.stopped()) {
+                int mid = job.split(from, end);
+                addToPendingCount(1);
+                new RangeTask(this, job, mid, end).fork();
+                end = mid;
+            }
+            if (job.handle == null) {
+                for (int row = from; row < end; row++) {
+                    job.store(row, job.simulate(row));
+                }
+            } else {
+                int row = from;
+                try {
+                    for (; row < end && !job.handle.shouldStop(); row++) {
+                        double metric = job.simulateUntilStopped(row);
+                        if (Double.isNaN(metric)) {
+                            break;
+                        }
+                        job.store(row, metric);
+                        job.handle.rowCompleted();
+                    }
+                } finally {
+                    job.handle.markCompleted(from, row);
+                }
+            }
+            // Unlike propagateCompletion, runs onCompletion so the root can notify a handle
+            tryComplete();
+        }
+
+        // Only submitted batches have a handle to notify; the root runs this once all tasks finish
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (getCompleter() == null && job.handle != null) {
+                job.handle.complete();
+            }
+        }
+
+        @Override
+        public boolean onExceptionalCompletion(Throwable ex, CountedCompleter<?> caller) {
+            if (getCompleter() == null && job.handle != null) {
+                job.handle.fail(ex);
+            }
+            return true;
+        }
+    }
+}
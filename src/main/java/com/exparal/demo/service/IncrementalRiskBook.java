@@ -0,0 +1,208 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.BookTotals;
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.RiskDeltaResult;
+import com.exparal.demo.model.RiskResult;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Live risk book for intraday updates.
+// Keeps the last metric of every portfolio by id and accepts deltas of upserts and deletes.
+// Only upserts whose notional, expected return or volatility changed are recomputed, as one
+// columnar batch through the adaptive entry point, so a delta of a few portfolios runs
+// sequentially and a large one in parallel. Book totals are adjusted by the old and new
+// values of the touched portfolios instead of being summed again, so a delta costs time in
+// proportion to its size, not the book's. The running totals use Neumaier compensated
+// summation, so small portfolios next to a huge one are not rounded away; reconcile() sums them
+// again from scratch, off the update path, for callers that want to clear what rounding remains.
+// Deltas are applied one at a time; reads do not lock and see the totals as one immutable BookTotals.
+@Service
+public class IncrementalRiskBook {
+
+    private final FinancialCalculationService calculationService;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Guarded by lock
+    private final CompensatedSum notionalSum = new CompensatedSum();
+    private final CompensatedSum riskSum = new CompensatedSum();
+    private volatile BookTotals totals = new BookTotals(0, 0, 0);
+
+    public IncrementalRiskBook(FinancialCalculationService calculationService) {
+        this.calculationService = calculationService;
+    }
+
+    public RiskDeltaResult upsert(List<Portfolio> portfolios) {
+        return apply(portfolios, List.of());
+    }
+
+    public RiskDeltaResult delete(Collection<String> ids) {
+        return apply(List.of(), ids);
+    }
+
+    // Later upserts of the same id win; deleting an unknown id is a no-op
+    public RiskDeltaResult apply(List<Portfolio> upserts, Collection<String> deletes) {
+        Map<String, Portfolio> latest = new LinkedHashMap<>();
+        for (Portfolio portfolio : upserts) {
+            latest.put(portfolio.getId(), portfolio);
+        }
+        for (String id : deletes) {
+            if (latest.containsKey(id)) {
+                throw new IllegalArgumentException("Portfolio " + id + " is both upserted and deleted in one delta");
+            }
+        }
+
+        lock.lock();
+        try {
+            PortfolioBook changed = new PortfolioBook(latest.size());
+            int unchanged = 0;
+            for (Portfolio portfolio : latest.values()) {
+                Entry current = entries.get(portfolio.getId());
+                if (current != null && current.sameInputs(portfolio)) {
+                    unchanged++;
+                } else {
+                    changed.add(portfolio);
+                }
+            }
+
+            double[] metrics = new double[changed.size()];
+            if (changed.size() > 0) {
+                calculationService.calculateRiskMetrics(changed, metrics);
+            }
+
+            for (int row = 0; row < changed.size(); row++) {
+                Entry updated = new Entry(changed.getNotional(row), changed.getExpectedReturn(row),
+                        changed.getVolatility(row), metrics[row]);
+                Entry previous = entries.put(changed.getId(row), updated);
+                if (previous != null) {
+                    remove(previous);
+                }
+                notionalSum.add(updated.notional);
+                riskSum.add(updated.riskMetric);
+            }
+            int deleted = 0;
+            for (String id : deletes) {
+                Entry previous = entries.remove(id);
+                if (previous != null) {
+                    deleted++;
+                    remove(previous);
+                }
+            }
+            if (entries.isEmpty()) {
+                notionalSum.reset();
+                riskSum.reset();
+            }
+            BookTotals published = publish();
+
+            return new RiskDeltaResult(changed.size(), unchanged, deleted, published.portfolios(),
+                    published.totalNotional(), published.totalRiskMetric());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Sums the totals again from scratch. Costs a pass over the whole book under the update lock,
+    // so run it from a scheduled job or between trading sessions, not after every delta.
+    public BookTotals reconcile() {
+        lock.lock();
+        try {
+            notionalSum.reset();
+            riskSum.reset();
+            for (Entry entry : entries.values()) {
+                notionalSum.add(entry.notional);
+                riskSum.add(entry.riskMetric);
+            }
+            return publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public OptionalDouble getRiskMetric(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? OptionalDouble.of(entry.riskMetric) : OptionalDouble.empty();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Size and totals as of the same delta
+    public BookTotals getTotals() {
+        return totals;
+    }
+
+    public double getTotalNotional() {
+        return totals.totalNotional();
+    }
+
+    public double getTotalRiskMetric() {
+        return totals.totalRiskMetric();
+    }
+
+    // Rounded metrics of every portfolio, in no particular order
+    public List<RiskResult> snapshot() {
+        List<RiskResult> results = new ArrayList<>(entries.size());
+        entries.forEach((id, entry) ->
+                results.add(new RiskResult(id, FinancialCalculationService.roundRiskMetric(entry.riskMetric))));
+        return results;
+    }
+
+    private void remove(Entry previous) {
+        notionalSum.add(-previous.notional);
+        riskSum.add(-previous.riskMetric);
+    }
+
+    // Caller holds the lock
+    private BookTotals publish() {
+        BookTotals published = new BookTotals(entries.size(), notionalSum.value(), riskSum.value());
+        totals = published;
+        return published;
+    }
+
+    private record Entry(double notional, double expectedReturn, double volatility, double riskMetric) {
+
+        boolean sameInputs(Portfolio portfolio) {
+            return notional == portfolio.getNotional()
+                    && expectedReturn == portfolio.getExpectedReturn()
+                    && volatility == portfolio.getVolatility();
+        }
+    }
+
+    // Neumaier's variant of Kahan summation: the low-order bits lost by each addition are kept
+    // in a separate compensation term, whichever operand is larger
+    private static final class CompensatedSum {
+
+        private double sum;
+        private double compensation;
+
+        void add(double value) {
+            double total = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - total) + value;
+            } else {
+                compensation += (value - total) + sum;
+            }
+            sum = total;
+        }
+
+        double value() {
+            return sum + compensation;
+        }
+
+        void reset() {
+            sum = 0;
+            compensation = 0;
+        }
+    }
+}
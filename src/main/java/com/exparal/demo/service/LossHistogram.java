@@ -0,0 +1,115 @@
+package com.exparal.demo.service;
+
+// Mergeable fixed-bin histogram of simulated losses, the streaming sketch behind tail-risk
+// aggregation. Bins split [lowerBound, upperBound) evenly and losses outside the range land in
+// an underflow or overflow bin. Every bin keeps its count and the sum of its losses, so two
+// histograms with the same layout merge by adding them element-wise, and Expected Shortfall
+// uses the exact loss sum of every tail bin except the one the VaR falls in, which is
+// interpolated as if its losses were spread evenly.
+public class LossHistogram {
+
+    private final double lowerBound;
+    private final double upperBound;
+    private final double binWidth;
+    private final long[] counts;
+    private final double[] sums;
+    private long underflow;
+    private double underflowSum;
+    private long overflow;
+    private double overflowSum;
+    private long count;
+
+    public LossHistogram(double lowerBound, double upperBound, int bins) {
+        if (bins < 1) {
+            throw new IllegalArgumentException("Histogram needs at least one bin: " + bins);
+        }
+        if (!(upperBound > lowerBound)) {
+            throw new IllegalArgumentException("Empty loss range [" + lowerBound + ", " + upperBound + ")");
+        }
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.binWidth = (upperBound - lowerBound) / bins;
+        this.counts = new long[bins];
+        this.sums = new double[bins];
+    }
+
+    public void add(double loss) {
+        count++;
+        if (loss < lowerBound) {
+            underflow++;
+            underflowSum += loss;
+        } else if (loss >= upperBound) {
+            overflow++;
+            overflowSum += loss;
+        } else {
+            int bin = Math.min(counts.length - 1, (int) ((loss - lowerBound) / binWidth));
+            counts[bin]++;
+            sums[bin] += loss;
+        }
+    }
+
+    public void merge(LossHistogram other) {
+        if (other.lowerBound != lowerBound || other.upperBound != upperBound || other.counts.length != counts.length) {
+            throw new IllegalArgumentException("Histograms with different bins cannot be merged");
+        }
+        for (int bin = 0; bin < counts.length; bin++) {
+            counts[bin] += other.counts[bin];
+            sums[bin] += other.sums[bin];
+        }
+        underflow += other.underflow;
+        underflowSum += other.underflowSum;
+        overflow += other.overflow;
+        overflowSum += other.overflowSum;
+        count += other.count;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    // Loss exceeded on a (1 - confidence) share of paths
+    public double valueAtRisk(double confidence) {
+        return tail(confidence)[0];
+    }
+
+    // Mean loss over the worst (1 - confidence) share of paths
+    public double expectedShortfall(double confidence) {
+        return tail(confidence)[1];
+    }
+
+    // Walks down from the largest losses until the tail holds (1 - confidence) x count paths
+    private double[] tail(double confidence) {
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Confidence level must be in (0, 1): " + confidence);
+        }
+        if (count == 0) {
+            return new double[]{Double.NaN, Double.NaN};
+        }
+        double tailCount = (1 - confidence) * count;
+        double needed = tailCount;
+        double tailSum = 0;
+
+        // Outside the bins only the mean is known
+        if (overflow >= needed) {
+            return new double[]{upperBound, overflowSum / overflow};
+        }
+        tailSum += overflowSum;
+        needed -= overflow;
+
+        for (int bin = counts.length - 1; bin >= 0; bin--) {
+            long binCount = counts[bin];
+            if (binCount >= needed) {
+                double binTop = lowerBound + (bin + 1) * binWidth;
+                double share = needed / binCount;
+                double valueAtRisk = binTop - share * binWidth;
+                tailSum += needed * (binTop - 0.5 * share * binWidth);
+                return new double[]{valueAtRisk, tailSum / tailCount};
+            }
+            tailSum += sums[bin];
+            needed -= binCount;
+        }
+
+        tailSum += needed * (underflow > 0 ? underflowSum / underflow : lowerBound);
+        return new double[]{lowerBound, tailSum / tailCount};
+    }
+}
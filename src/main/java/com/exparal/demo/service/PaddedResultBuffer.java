@@ -0,0 +1,89 @@
+package com.exparal.demo.service;
+
+import java.util.Arrays;
+
+// Result array for metrics written by several workers at once.
+// Rows are stored in blocks of BLOCK_ROWS (one 64-byte line of doubles), and every block is
+// followed by a line of padding, so whatever the array's alignment in memory no two blocks share
+// a cache line. A worker that owns whole blocks (see alignSplit) then writes its rows without
+// invalidating the lines other workers are writing, which a dense double[] cannot promise where
+// the ranges of two workers meet. The padding doubles the footprint; copyTo packs the rows back.
+public final class PaddedResultBuffer {
+
+    public static final int BLOCK_ROWS = 8;
+    static final int PADDING = 8;
+    private static final int STRIDE = BLOCK_ROWS + PADDING;
+
+    private final int size;
+    private final double[] slots;
+
+    public PaddedResultBuffer(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative: " + size);
+        }
+        long length = PADDING + (long) blockCount(size) * STRIDE;
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many rows for one padded buffer: " + size);
+        }
+        this.size = size;
+        this.slots = new double[(int) length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static int blockCount(int rows) {
+        return (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+    }
+
+    // Split point for the row range [from, to) on a block boundary near mid, so both halves own
+    // whole blocks; mid itself when no boundary lies strictly inside the range
+    public static int alignSplit(int from, int to, int mid) {
+        int below = mid / BLOCK_ROWS * BLOCK_ROWS;
+        int above = below + BLOCK_ROWS;
+        boolean belowInside = below > from && below < to;
+        boolean aboveInside = above > from && above < to;
+        if (belowInside && aboveInside) {
+            return mid - below <= above - mid ? below : above;
+        }
+        return belowInside ? below : aboveInside ? above : mid;
+    }
+
+    public double get(int row) {
+        return slots[slot(row)];
+    }
+
+    public void set(int row, double value) {
+        slots[slot(row)] = value;
+    }
+
+    public void fill(double value) {
+        Arrays.fill(slots, value);
+    }
+
+    // Rows in order into a dense array
+    public void copyTo(double[] destination) {
+        if (destination.length < size) {
+            throw new IllegalArgumentException(
+                    "Result buffer holds " + destination.length + " values but " + size + " rows are needed");
+        }
+        for (int from = 0; from < size; from += BLOCK_ROWS) {
+            System.arraycopy(slots, slot(from), destination, from, Math.min(BLOCK_ROWS, size - from));
+        }
+    }
+
+    public double[] toArray() {
+        double[] rows = new double[size];
+        copyTo(rows);
+        return rows;
+    }
+
+    private int slot(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " outside buffer of size " + size);
+        }
+        // A leading line of padding keeps the first block off the array header
+        return PADDING + row / BLOCK_ROWS * STRIDE + row % BLOCK_ROWS;
+    }
+}
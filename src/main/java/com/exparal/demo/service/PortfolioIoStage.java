@@ -0,0 +1,16 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.RiskResult;
+
+// Blocking I/O around the risk calculation of one portfolio: fetching its market data
+// before, and writing its result after. Implementations run on virtual threads, so they
+// should block with java.util.concurrent locks or plain I/O rather than synchronized
+// blocks, which pin the carrier thread.
+public interface PortfolioIoStage {
+
+    // Returns the portfolio with current market data applied
+    Portfolio fetch(Portfolio portfolio) throws Exception;
+
+    void publish(RiskResult result) throws Exception;
+}
@@ -0,0 +1,165 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.RiskResult;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Streaming NDJSON pipeline for books too large to materialize.
+// Portfolios are read in chunks, each chunk is computed on the custom pool and its results
+// are written as NDJSON lines as soon as they are available. At most maxInFlightChunks
+// chunks (input plus results) are held at any time, so peak memory is bounded by
+// chunkSize x maxInFlightChunks regardless of input size. With preserveOrder the output
+// follows input order; otherwise chunks are emitted in completion order.
+@Service
+public class PortfolioStreamProcessor {
+
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private static final byte NEWLINE = '\n';
+
+    private final FinancialCalculationService calculationService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+
+    public PortfolioStreamProcessor(FinancialCalculationService calculationService, ObjectMapper objectMapper) {
+        this.calculationService = calculationService;
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(RiskResult.class);
+    }
+
+    public record Options(int chunkSize, int maxInFlightChunks, boolean preserveOrder) {
+
+        public Options {
+            if (chunkSize < 1 || maxInFlightChunks < 1) {
+                throw new IllegalArgumentException("Chunk size and in-flight chunks must be positive");
+            }
+        }
+    }
+
+    public Options defaultOptions(boolean preserveOrder) {
+        return new Options(DEFAULT_CHUNK_SIZE, 2 * calculationService.getParallelism(), preserveOrder);
+    }
+
+    public long process(Path input, Path output, Options options) throws IOException {
+        try (InputStream in = Files.newInputStream(input);
+             OutputStream out = Files.newOutputStream(output)) {
+            return process(in, out, options);
+        }
+    }
+
+    // Returns the number of portfolios processed
+    public long process(InputStream input, OutputStream output, Options options) throws IOException {
+        OutputStream out = new BufferedOutputStream(output);
+        Deque<Chunk> inFlight = new ArrayDeque<>(options.maxInFlightChunks());
+        long processed = 0;
+
+        try (MappingIterator<Portfolio> portfolios = objectMapper.readerFor(Portfolio.class)
+                .readValues(new BufferedInputStream(input))) {
+            while (portfolios.hasNextValue()) {
+                PortfolioBook book = new PortfolioBook(options.chunkSize());
+                while (book.size() < options.chunkSize() && portfolios.hasNextValue()) {
+                    book.add(portfolios.nextValue());
+                }
+                processed += book.size();
+
+                while (inFlight.size() >= options.maxInFlightChunks()) {
+                    write(awaitNext(inFlight, options.preserveOrder()), out);
+                }
+                inFlight.addLast(new Chunk(book, calculationService.calculateRiskMetricsAsync(book)));
+                drainCompleted(inFlight, out, options.preserveOrder());
+            }
+
+            while (!inFlight.isEmpty()) {
+                write(awaitNext(inFlight, options.preserveOrder()), out);
+            }
+        } finally {
+            inFlight.forEach(chunk -> chunk.results().cancel(false));
+        }
+
+        out.flush();
+        return processed;
+    }
+
+    private record Chunk(PortfolioBook book, CompletableFuture<double[]> results) {
+    }
+
+    // Emits whatever is already finished without blocking
+    private void drainCompleted(Deque<Chunk> inFlight, OutputStream out, boolean preserveOrder) throws IOException {
+        if (preserveOrder) {
+            while (!inFlight.isEmpty() && inFlight.peekFirst().results().isDone()) {
+                write(inFlight.removeFirst(), out);
+            }
+        } else {
+            Iterator<Chunk> iterator = inFlight.iterator();
+            while (iterator.hasNext()) {
+                Chunk chunk = iterator.next();
+                if (chunk.results().isDone()) {
+                    iterator.remove();
+                    write(chunk, out);
+                }
+            }
+        }
+    }
+
+    // Blocks for the oldest chunk (ordered) or whichever finishes first (unordered)
+    private Chunk awaitNext(Deque<Chunk> inFlight, boolean preserveOrder) {
+        if (preserveOrder) {
+            Chunk head = inFlight.removeFirst();
+            join(head);
+            return head;
+        }
+        CompletableFuture<?>[] futures = inFlight.stream().map(Chunk::results).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.anyOf(futures).join();
+        } catch (CompletionException e) {
+            // Surfaced by join() on the failed chunk below
+        }
+        for (Iterator<Chunk> iterator = inFlight.iterator(); iterator.hasNext(); ) {
+            Chunk chunk = iterator.next();
+            if (chunk.results().isDone()) {
+                iterator.remove();
+                join(chunk);
+                return chunk;
+            }
+        }
+        throw new IllegalStateException("No completed chunk after anyOf returned");
+    }
+
+    private void write(Chunk chunk, OutputStream out) throws IOException {
+        double[] metrics = join(chunk);
+        PortfolioBook book = chunk.book();
+        for (int row = 0; row < book.size(); row++) {
+            RiskResult result = new RiskResult(book.getId(row),
+                    FinancialCalculationService.roundRiskMetric(metrics[row]));
+            out.write(resultWriter.writeValueAsBytes(result));
+            out.write(NEWLINE);
+        }
+        // One flush per chunk keeps time-to-first-result low without a syscall per line
+        out.flush();
+    }
+
+    private static double[] join(Chunk chunk) {
+        try {
+            return chunk.results().join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Chunk calculation failed", e.getCause());
+        }
+    }
+}
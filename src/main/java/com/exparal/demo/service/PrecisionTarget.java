@@ -0,0 +1,25 @@
+package com.exparal.demo.service;
+
+// Stopping rule for precision-targeted simulation: draw in batches of batchSize until the
+// metric's standard error is at most relativeError x metric, but never fewer than
+// minIterations nor more than maxIterations draws.
+public record PrecisionTarget(double relativeError, int batchSize, int minIterations, int maxIterations) {
+
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    public static final int DEFAULT_MIN_ITERATIONS = 2048;
+
+    public PrecisionTarget {
+        if (!(relativeError > 0)) {
+            throw new IllegalArgumentException("Relative error must be positive: " + relativeError);
+        }
+        if (batchSize < 2 || minIterations < 2 || maxIterations < minIterations) {
+            throw new IllegalArgumentException("Need batchSize >= 2 and 2 <= minIterations <= maxIterations");
+        }
+    }
+
+    // Default batching, capped at the fixed iteration count it replaces
+    public static PrecisionTarget relative(double relativeError, int maxIterations) {
+        return new PrecisionTarget(relativeError, DEFAULT_BATCH_SIZE,
+                Math.min(DEFAULT_MIN_ITERATIONS, maxIterations), maxIterations);
+    }
+}
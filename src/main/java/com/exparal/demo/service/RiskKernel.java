@@ -0,0 +1,43 @@
+package com.exparal.demo.service;
+
+import java.util.function.BooleanSupplier;
+import java.util.random.RandomGenerator;
+
+// Monte Carlo core of the risk metric: simulates portfolio returns and
+// accumulates the expected shortfall max(0, notional - return) per path.
+public interface RiskKernel {
+
+    // Iterations between stop checks in the stoppable variant of simulate
+    int STOP_CHECK_INTERVAL = 4096;
+
+    String name();
+
+    // Draws from a thread-local generator, so results vary run to run
+    double simulate(double notional, double expectedReturn, double volatility, int iterations);
+
+    // Draws only from the given generator: the same generator state gives the same metric.
+    // The default suits kernels that use no randomness at all.
+    default double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                            RandomGenerator random) {
+        return simulate(notional, expectedReturn, volatility, iterations);
+    }
+
+    // Stoppable variant for submitted batches: polls stop every STOP_CHECK_INTERVAL iterations and
+    // returns NaN once it reports true. The default checks only once, before it starts.
+    default double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                            BooleanSupplier stop) {
+        return stop.getAsBoolean() ? Double.NaN : simulate(notional, expectedReturn, volatility, iterations);
+    }
+
+    // The return model shared by every simulation: expectedReturn plus volatility times one
+    // standard normal draw z
+    static double portfolioReturn(double expectedReturn, double volatility, double z) {
+        return expectedReturn + (volatility * z);
+    }
+
+    // Additional CPU-intensive operations applied to the accumulated shortfall
+    static double finish(double shortfallSum, int iterations) {
+        double result = Math.sqrt(Math.abs(shortfallSum / iterations));
+        return Math.pow(result, 1.5);
+    }
+}
@@ -0,0 +1,50 @@
+package com.exparal.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Picks the Monte Carlo kernel once at startup.
+// -Drisk.kernel=vector selects the Vector API kernel, which is only compiled with the
+// 'vector' Maven profile and needs --add-modules jdk.incubator.vector at runtime.
+// Anything unavailable falls back to the scalar kernel.
+public final class RiskKernels {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskKernels.class);
+
+    public static final String KERNEL_PROPERTY = "risk.kernel";
+
+    private static final String VECTOR_KERNEL_CLASS = "com.exparal.demo.service.VectorRiskKernel";
+
+    private RiskKernels() {
+    }
+
+    public static RiskKernel select() {
+        return select(System.getProperty(KERNEL_PROPERTY, ScalarRiskKernel.NAME));
+    }
+
+    public static RiskKernel select(String name) {
+        if ("vector".equalsIgnoreCase(name)) {
+            RiskKernel vectorKernel = loadVectorKernel();
+            if (vectorKernel != null) {
+                return vectorKernel;
+            }
+            log.warn("Vector risk kernel unavailable, falling back to {}", ScalarRiskKernel.NAME);
+        } else if (!ScalarRiskKernel.NAME.equalsIgnoreCase(name)) {
+            throw new IllegalArgumentException("Unknown risk kernel: " + name);
+        }
+        return new ScalarRiskKernel();
+    }
+
+    public static boolean isVectorAvailable() {
+        return loadVectorKernel() != null;
+    }
+
+    private static RiskKernel loadVectorKernel() {
+        try {
+            return (RiskKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Not compiled in (no 'vector' profile) or jdk.incubator.vector not resolved at runtime
+            return null;
+        }
+    }
+}
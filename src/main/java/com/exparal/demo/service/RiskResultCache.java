@@ -0,0 +1,175 @@
+package com.exparal.demo.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Bounded cache of risk metrics keyed by (notional, expectedReturn, volatility, iterations).
+// Entries are spread over a power-of-two number of stripes, each an access-ordered
+// LinkedHashMap behind its own lock, so ForkJoin workers only contend when they hash to the
+// same stripe. Each stripe evicts its least recently used entry past its share of maxEntries,
+// and entries older than maxAge are treated as misses and dropped. Misses are computed by the
+// caller outside any lock. Counters are LongAdders so recording a hit never serialises workers.
+public class RiskResultCache {
+
+    // Rough heap cost of one entry: key record, value holder, LinkedHashMap node and table slot
+    public static final long ESTIMATED_ENTRY_BYTES = 160;
+
+    private final Stripe[] stripes;
+    private final long maxEntries;
+    private final long maxAgeNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public RiskResultCache(long maxEntries, Duration maxAge) {
+        this(maxEntries, maxAge, System::nanoTime);
+    }
+
+    // Duration.ZERO keeps entries until they are evicted by size
+    public RiskResultCache(long maxEntries, Duration maxAge, LongSupplier nanoClock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache must hold at least one entry: " + maxEntries);
+        }
+        if (maxAge.isNegative()) {
+            throw new IllegalArgumentException("Max age must not be negative: " + maxAge);
+        }
+        int stripeCount = stripeCount(maxEntries);
+        int stripeCapacity = (int) Math.min(Integer.MAX_VALUE, (maxEntries + stripeCount - 1) / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeCapacity, evictions);
+        }
+        this.maxEntries = (long) stripeCapacity * stripeCount;
+        this.maxAgeNanos = maxAge.isZero() ? Long.MAX_VALUE : maxAge.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    // Sizes the cache from a heap budget using ESTIMATED_ENTRY_BYTES
+    public static RiskResultCache withMemoryBudget(long maxBytes, Duration maxAge) {
+        return new RiskResultCache(Math.max(1, maxBytes / ESTIMATED_ENTRY_BYTES), maxAge);
+    }
+
+    // Cached metric, or NaN on a miss
+    public double get(double notional, double expectedReturn, double volatility, int iterations) {
+        Key key = new Key(notional, expectedReturn, volatility, iterations);
+        Stripe stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+        stripe.lock.lock();
+        try {
+            CachedMetric entry = stripe.entries.get(key);
+            if (entry != null) {
+                if (now - entry.createdNanos <= maxAgeNanos) {
+                    hits.increment();
+                    return entry.value;
+                }
+                stripe.entries.remove(key);
+                expirations.increment();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        misses.increment();
+        return Double.NaN;
+    }
+
+    public void put(double notional, double expectedReturn, double volatility, int iterations, double value) {
+        Key key = new Key(notional, expectedReturn, volatility, iterations);
+        Stripe stripe = stripeFor(key);
+        CachedMetric entry = new CachedMetric(value, nanoClock.getAsLong());
+        stripe.lock.lock();
+        try {
+            stripe.entries.put(key, entry);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.entries.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    // Entries dropped to stay within maxEntries
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    // Entries dropped on lookup because they were older than maxAge
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    private Stripe stripeFor(Key key) {
+        // Fibonacci hashing: doubles of round values differ mostly in their high bits
+        int hash = key.hashCode() * 0x9E3779B9;
+        return stripes[(hash >>> 16) & (stripes.length - 1)];
+    }
+
+    // Four stripes per processor, but never stripes that would hold fewer than 16 entries each
+    private static int stripeCount(long maxEntries) {
+        long wanted = Math.min(Runtime.getRuntime().availableProcessors() * 4L, Math.max(1, maxEntries / 16));
+        return Integer.highestOneBit((int) Math.min(1 << 16, wanted));
+    }
+
+    private record Key(double notional, double expectedReturn, double volatility, int iterations) {
+    }
+
+    private record CachedMetric(double value, long createdNanos) {
+    }
+
+    private static final class Stripe {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<Key, CachedMetric> entries;
+
+        Stripe(int capacity, LongAdder evictions) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, CachedMetric> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.MarketScenario;
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.model.WarmupReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+
+// Startup warm-up so the first real batches after a deploy do not run at interpreter or C1
+// speed while C2 compiles the kernel and the stream pipelines. Each round runs every execution
+// path of FinancialCalculationService (adaptive and explicit, list and columnar, sequential,
+// common pool, custom pool, fork/join, seeded, precision-targeted, async, cancellable, tail risk
+// and scenario grid) on a fresh synthetic book, with the service's own kernel and iteration
+// count. The warm-up stops once stableRounds rounds in a row took within tolerance of the round
+// before and the JIT compiled for less than tolerance of the round's wall time, or at maxRounds
+// or maxDuration, whichever comes first. Every round draws
+// new portfolio parameters so a result cache cannot answer it, and the cache is cleared after.
+// Metrics are paused for the whole warm-up and the strategy router is reset afterwards, so
+// neither the dashboards nor the router's latency estimates see the synthetic, half-compiled rounds.
+public class RiskWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskWarmup.class);
+
+    private static final long SEED = 42L;
+
+    private final FinancialCalculationService calculationService;
+    private final int portfolios;
+    private final int maxRounds;
+    private final int stableRounds;
+    private final double tolerance;
+    private final Duration maxDuration;
+
+    public RiskWarmup(FinancialCalculationService calculationService, int portfolios, int maxRounds,
+                      int stableRounds, double tolerance, Duration maxDuration) {
+        if (portfolios < 1 || maxRounds < 1 || stableRounds < 1) {
+            throw new IllegalArgumentException("Portfolios, rounds and stable rounds must be positive");
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Tolerance must be positive: " + tolerance);
+        }
+        this.calculationService = calculationService;
+        this.portfolios = portfolios;
+        this.maxRounds = maxRounds;
+        this.stableRounds = stableRounds;
+        this.tolerance = tolerance;
+        this.maxDuration = maxDuration;
+    }
+
+    public WarmupReport run() {
+        CalculationMetrics metrics = calculationService.getMetrics();
+        metrics.pause();
+        try {
+            return runRounds();
+        } finally {
+            metrics.resume();
+        }
+    }
+
+    private WarmupReport runRounds() {
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean compilationTimed = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long compilationStart = compilationTimed ? compiler.getTotalCompilationTime() : 0;
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        int rounds = 0;
+        int stable = 0;
+        long firstRoundNanos = 0;
+        long previousRoundNanos = 0;
+        long lastRoundNanos = 0;
+        while (rounds < maxRounds && stable < stableRounds) {
+            long compiledBefore = compilationTimed ? compiler.getTotalCompilationTime() : 0;
+            long roundStart = System.nanoTime();
+            runRound(rounds);
+            lastRoundNanos = System.nanoTime() - roundStart;
+            long compiledMillis = compilationTimed ? compiler.getTotalCompilationTime() - compiledBefore : 0;
+
+            if (rounds == 0) {
+                firstRoundNanos = lastRoundNanos;
+            } else {
+                boolean timeSettled = Math.abs(lastRoundNanos - previousRoundNanos) <= tolerance * previousRoundNanos;
+                boolean jitSettled = compiledMillis * 1_000_000.0 <= tolerance * lastRoundNanos;
+                stable = timeSettled && jitSettled ? stable + 1 : 0;
+            }
+            previousRoundNanos = lastRoundNanos;
+            rounds++;
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+
+        calculationService.getResultCache().ifPresent(RiskResultCache::clear);
+        calculationService.getStrategyRouter().reset();
+        long compilationMillis = compilationTimed ? compiler.getTotalCompilationTime() - compilationStart : 0;
+        WarmupReport report = new WarmupReport(rounds, stable >= stableRounds, System.nanoTime() - start,
+                firstRoundNanos, lastRoundNanos, compilationMillis);
+        if (log.isInfoEnabled()) {
+            log.info("Risk warm-up {} after {} rounds in {} ms (first round {}x the last, JIT {} ms)",
+                    report.settled() ? "settled" : "stopped", report.rounds(), report.elapsedNanos() / 1_000_000,
+                    String.format("%.1f", report.firstRoundSlowdown()), report.compilationMillis());
+        }
+        return report;
+    }
+
+    private void runRound(int round) {
+        // The same portfolios as a book and as a list
+        PortfolioBook book = SyntheticPortfolios.book("WARMUP_", portfolios, SEED + round);
+        List<Portfolio> portfolioList = SyntheticPortfolios.generate("WARMUP_", portfolios, SEED + round);
+        double[] results = new double[portfolios];
+        PrecisionTarget target = calculationService.precisionTarget(0.01);
+
+        // First, so its completion callback has long run before metrics resume
+        calculationService.submitRiskMetrics(book).await();
+        calculationService.calculateRiskMetrics(portfolioList);
+        calculationService.calculateRiskMetrics(portfolioList, SEED);
+        calculationService.calculateRiskMetrics(book, results);
+        calculationService.calculateRiskMetricsSequential(portfolioList);
+        calculationService.calculateRiskMetricsParallel(portfolioList);
+        calculationService.calculateRiskMetricsCustomPool(portfolioList);
+        calculationService.calculateRiskMetricsCustomPool(portfolioList, SEED);
+        calculationService.calculateRiskMetricsSequential(book, results);
+        calculationService.calculateRiskMetricsParallel(book, results);
+        calculationService.calculateRiskMetricsCustomPool(book, results);
+        calculationService.calculateRiskMetricsForkJoin(book, results);
+        calculationService.calculateRiskMetricsForkJoin(book, SEED, results, ForkJoinRiskEngine.DEFAULT_LEAF_SIZE);
+        calculationService.calculateRiskMetricsToTarget(portfolioList, target);
+        calculationService.calculateRiskMetricsToTarget(book, target);
+        calculationService.calculateRiskMetricsToTarget(book, target, SEED);
+        calculationService.calculateRiskMetricsAsync(book).join();
+        calculationService.calculateRiskMetricsAsync(book, 0, portfolios, results).join();
+        calculationService.calculateRiskMetricAsync(portfolioList.get(0)).join();
+        calculationService.calculateTailRisk(book, id -> "WARMUP", ExecutionStrategy.CUSTOM_POOL);
+        calculationService.calculateScenarioGrid(book, List.of(MarketScenario.BASE), SEED);
+    }
+}
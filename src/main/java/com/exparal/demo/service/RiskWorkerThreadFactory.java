@@ -0,0 +1,197 @@
+package com.exparal.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Worker threads for the custom ForkJoinPool, named prefix + sequence number.
+// With pinning on (Linux only), each worker binds itself to one CPU as it starts: the CPU with
+// the fewest live workers, in NUMA order, so a pool smaller than the machine fills one node
+// before spilling onto the next and its workers share that node's caches and memory. The JDK
+// has no affinity API, so the worker runs taskset on its own thread id (/proc/thread-self).
+// CPUs come from Cpus_allowed_list, so a container's cpuset is respected. Where taskset or
+// /proc is missing the pool runs unpinned, with one warning.
+// Pinning costs a taskset fork per worker start, so it is meant for fixed-size pools whose
+// workers do not retire: build the pool with newPool, which keeps idle pinned workers alive
+// instead of letting them time out and be recreated, and pinned again, by the next batch.
+public class RiskWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskWorkerThreadFactory.class);
+    private static final AtomicBoolean PINNING_WARNED = new AtomicBoolean();
+    // ForkJoinPool's own defaults for the settings newPool does not change
+    private static final int MAX_POOL_SIZE = 0x7fff;
+    private static final int MIN_RUNNABLE = 1;
+    private static final long UNPINNED_KEEP_ALIVE_SECONDS = 60;
+    private static final long PINNED_KEEP_ALIVE_SECONDS = TimeUnit.DAYS.toSeconds(365);
+
+    private final String threadNamePrefix;
+    private final AtomicInteger sequence = new AtomicInteger();
+    // Empty when pinning is off or not possible on this host
+    private final int[] cpus;
+    private final int[] workersPerCpu;
+
+    public RiskWorkerThreadFactory(String threadNamePrefix, boolean pinWorkers) {
+        this.threadNamePrefix = threadNamePrefix;
+        this.cpus = pinWorkers ? numaOrderedCpus() : new int[0];
+        this.workersPerCpu = new int[cpus.length];
+        if (pinWorkers && cpus.length == 0) {
+            warnUnpinned("no CPU list under /proc and /sys");
+        }
+    }
+
+    public boolean isPinning() {
+        return cpus.length > 0;
+    }
+
+    // Workers of an unpinned pool retire after ForkJoinPool's usual 60 s idle; pinned ones stay
+    public ForkJoinPool newPool(int parallelism, boolean asyncMode) {
+        long keepAliveSeconds = isPinning() ? PINNED_KEEP_ALIVE_SECONDS : UNPINNED_KEEP_ALIVE_SECONDS;
+        return new ForkJoinPool(parallelism, this, null, asyncMode, 0, MAX_POOL_SIZE, MIN_RUNNABLE, null,
+                keepAliveSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = cpus.length > 0
+                ? new PinnedWorkerThread(pool)
+                : ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName(threadNamePrefix + sequence.getAndIncrement());
+        return thread;
+    }
+
+    private synchronized int claimCpu() {
+        int least = 0;
+        for (int i = 1; i < cpus.length; i++) {
+            if (workersPerCpu[i] < workersPerCpu[least]) {
+                least = i;
+            }
+        }
+        workersPerCpu[least]++;
+        return least;
+    }
+
+    private synchronized void releaseCpu(int index) {
+        workersPerCpu[index]--;
+    }
+
+    private final class PinnedWorkerThread extends ForkJoinWorkerThread {
+
+        private int cpuIndex = -1;
+
+        PinnedWorkerThread(ForkJoinPool pool) {
+            super(pool);
+        }
+
+        @Override
+        protected void onStart() {
+            super.onStart();
+            cpuIndex = claimCpu();
+            pinCurrentThread(cpus[cpuIndex]);
+        }
+
+        @Override
+        protected void onTermination(Throwable exception) {
+            if (cpuIndex >= 0) {
+                releaseCpu(cpuIndex);
+            }
+            super.onTermination(exception);
+        }
+    }
+
+    // Binds the calling thread to one CPU; false (after one warning) if that is not possible
+    static boolean pinCurrentThread(int cpu) {
+        try {
+            String threadId = Files.readSymbolicLink(Path.of("/proc/thread-self")).getFileName().toString();
+            Process taskset = new ProcessBuilder("taskset", "-p", "-c", String.valueOf(cpu), threadId)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (!taskset.waitFor(5, TimeUnit.SECONDS)) {
+                taskset.destroyForcibly();
+                warnUnpinned("taskset timed out");
+                return false;
+            }
+            if (taskset.exitValue() != 0) {
+                warnUnpinned("taskset exited with " + taskset.exitValue());
+                return false;
+            }
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            warnUnpinned(e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // CPUs this process may run on, node by node; just the allowed list where /sys has no NUMA nodes
+    static int[] numaOrderedCpus() {
+        Set<Integer> allowed = new LinkedHashSet<>(readCpuList(Path.of("/proc/self/status"), "Cpus_allowed_list:"));
+        if (allowed.isEmpty()) {
+            return new int[0];
+        }
+        Set<Integer> ordered = new LinkedHashSet<>();
+        for (int node = 0; ; node++) {
+            Path cpuList = Path.of("/sys/devices/system/node/node" + node, "cpulist");
+            if (!Files.exists(cpuList)) {
+                break;
+            }
+            for (int cpu : readCpuList(cpuList, "")) {
+                if (allowed.contains(cpu)) {
+                    ordered.add(cpu);
+                }
+            }
+        }
+        ordered.addAll(allowed);
+        return ordered.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Parses a Linux CPU list such as "0-3,8,10-11"
+    static List<Integer> parseCpuList(String list) {
+        List<Integer> cpus = new ArrayList<>();
+        for (String part : list.trim().split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int dash = part.indexOf('-');
+            int first = Integer.parseInt(part.substring(0, dash < 0 ? part.length() : dash).trim());
+            int last = dash < 0 ? first : Integer.parseInt(part.substring(dash + 1).trim());
+            for (int cpu = first; cpu <= last; cpu++) {
+                cpus.add(cpu);
+            }
+        }
+        return cpus;
+    }
+
+    private static List<Integer> readCpuList(Path file, String prefix) {
+        try {
+            for (String line : Files.readAllLines(file)) {
+                if (line.startsWith(prefix)) {
+                    return parseCpuList(line.substring(prefix.length()));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux, or a format we do not know: run unpinned
+        }
+        return List.of();
+    }
+
+    private static void warnUnpinned(String reason) {
+        if (PINNING_WARNED.compareAndSet(false, true)) {
+            log.warn("Risk pool workers not pinned to CPUs: {}", reason);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.exparal.demo.service;
+
+import java.util.function.BooleanSupplier;
+import java.util.random.RandomGenerator;
+
+// Times a sample of kernel calls into CalculationMetrics; unsampled calls pay one random draw
+public class SampledTimingRiskKernel implements RiskKernel {
+
+    private final RiskKernel delegate;
+    private final CalculationMetrics metrics;
+
+    public SampledTimingRiskKernel(RiskKernel delegate, CalculationMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+        if (!metrics.samplePortfolio()) {
+            return delegate.simulate(notional, expectedReturn, volatility, iterations);
+        }
+        long start = System.nanoTime();
+        double result = delegate.simulate(notional, expectedReturn, volatility, iterations);
+        metrics.recordPortfolio(System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                           RandomGenerator random) {
+        if (!metrics.samplePortfolio()) {
+            return delegate.simulate(notional, expectedReturn, volatility, iterations, random);
+        }
+        long start = System.nanoTime();
+        double result = delegate.simulate(notional, expectedReturn, volatility, iterations, random);
+        metrics.recordPortfolio(System.nanoTime() - start);
+        return result;
+    }
+
+    // A stopped simulation is not timed, since it did only part of the work
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                           BooleanSupplier stop) {
+        if (!metrics.samplePortfolio()) {
+            return delegate.simulate(notional, expectedReturn, volatility, iterations, stop);
+        }
+        long start = System.nanoTime();
+        double result = delegate.simulate(notional, expectedReturn, volatility, iterations, stop);
+        if (!Double.isNaN(result)) {
+            metrics.recordPortfolio(System.nanoTime() - start);
+        }
+        return result;
+    }
+}
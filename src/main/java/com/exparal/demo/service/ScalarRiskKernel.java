@@ -0,0 +1,54 @@
+package com.exparal.demo.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+import java.util.random.RandomGenerator;
+
+// Portable kernel: one Gaussian draw per iteration
+public class ScalarRiskKernel implements RiskKernel {
+
+    public static final String NAME = "scalar";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+        return simulate(notional, expectedReturn, volatility, iterations, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                           RandomGenerator random) {
+        return simulate(notional, expectedReturn, volatility, iterations, random, null);
+    }
+
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                           BooleanSupplier stop) {
+        return simulate(notional, expectedReturn, volatility, iterations, ThreadLocalRandom.current(), stop);
+    }
+
+    // A null stop never stops
+    private static double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                                   RandomGenerator random, BooleanSupplier stop) {
+        double result = 0.0;
+
+        for (int start = 0, end; start < iterations; start = end) {
+            if (stop != null && stop.getAsBoolean()) {
+                return Double.NaN;
+            }
+            end = iterations - start > STOP_CHECK_INTERVAL ? start + STOP_CHECK_INTERVAL : iterations;
+            for (int i = start; i < end; i++) {
+                // Monte Carlo simulation for risk calculation
+                double randomValue = random.nextGaussian();
+                double portfolioReturn = RiskKernel.portfolioReturn(expectedReturn, volatility, randomValue);
+                result += Math.max(0, notional - portfolioReturn);
+            }
+        }
+
+        return RiskKernel.finish(result, iterations);
+    }
+}
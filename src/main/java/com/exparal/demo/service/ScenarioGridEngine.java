@@ -0,0 +1,103 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.MarketScenario;
+import com.exparal.demo.model.PortfolioColumns;
+import com.exparal.demo.model.ScenarioMatrix;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Full revaluation of a book under many market scenarios with common random numbers.
+// Every scenario of a portfolio sees the same Gaussian draws: the portfolio's seeded stream
+// (PortfolioRandomStreams) fills a block of PATH_BLOCK draws, and each scenario of the tile then
+// sweeps that block while it is still in L1, instead of every scenario drawing its own paths.
+// The (portfolio x scenario) space is cut into tiles of ROW_TILE rows by SCENARIO_TILE scenarios;
+// a tile is one task, so a parallel stream spreads tiles over the pool it runs in. A portfolio's
+// draws are regenerated once per scenario tile, which keeps the per-tile sums small enough to
+// stay in cache. The metric per cell is the scalar kernel's shortfall with the shocked inputs, so
+// the BASE scenario matches a seeded ScalarRiskKernel run bit for bit.
+public final class ScenarioGridEngine {
+
+    // 4 KB of draws, reused by every scenario of a tile
+    static final int PATH_BLOCK = 512;
+    static final int SCENARIO_TILE = 64;
+    static final int ROW_TILE = 16;
+
+    private final PortfolioColumns book;
+    private final List<MarketScenario> scenarios;
+    private final int iterations;
+    private final long seed;
+    private final int scenarioTiles;
+
+    public ScenarioGridEngine(PortfolioColumns book, List<MarketScenario> scenarios, int iterations, long seed) {
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("At least one scenario is required");
+        }
+        if ((long) book.size() * scenarios.size() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(book.size() + " portfolios x " + scenarios.size()
+                    + " scenarios do not fit in one matrix");
+        }
+        this.book = book;
+        this.scenarios = List.copyOf(scenarios);
+        this.iterations = iterations;
+        this.seed = seed;
+        this.scenarioTiles = (scenarios.size() + SCENARIO_TILE - 1) / SCENARIO_TILE;
+    }
+
+    public int tileCount() {
+        return (book.size() + ROW_TILE - 1) / ROW_TILE * scenarioTiles;
+    }
+
+    // Computes the given tiles; a parallel stream spreads them over the pool it runs in
+    public ScenarioMatrix compute(IntStream tiles) {
+        double[] values = new double[book.size() * scenarios.size()];
+        tiles.forEach(tile -> computeTile(tile, values));
+        return new ScenarioMatrix(book.size(), scenarios, values);
+    }
+
+    void computeTile(int tile, double[] values) {
+        int rowFrom = tile / scenarioTiles * ROW_TILE;
+        int rowTo = Math.min(book.size(), rowFrom + ROW_TILE);
+        int scenarioFrom = tile % scenarioTiles * SCENARIO_TILE;
+        int width = Math.min(scenarios.size(), scenarioFrom + SCENARIO_TILE) - scenarioFrom;
+
+        double[] draws = new double[PATH_BLOCK];
+        double[] shockedReturns = new double[width];
+        double[] shockedVolatilities = new double[width];
+        double[] shortfallSums = new double[width];
+        for (int row = rowFrom; row < rowTo; row++) {
+            double notional = book.getNotional(row);
+            for (int s = 0; s < width; s++) {
+                MarketScenario scenario = scenarios.get(scenarioFrom + s);
+                shockedReturns[s] = scenario.shockedReturn(book.getExpectedReturn(row));
+                shockedVolatilities[s] = scenario.shockedVolatility(book.getVolatility(row));
+                shortfallSums[s] = 0;
+            }
+
+            SplittableRandom random = PortfolioRandomStreams.forPortfolio(seed, book.getId(row));
+            for (int blockStart = 0; blockStart < iterations; blockStart += PATH_BLOCK) {
+                int blockSize = Math.min(PATH_BLOCK, iterations - blockStart);
+                for (int i = 0; i < blockSize; i++) {
+                    draws[i] = random.nextGaussian();
+                }
+                for (int s = 0; s < width; s++) {
+                    double expectedReturn = shockedReturns[s];
+                    double volatility = shockedVolatilities[s];
+                    // Summed in path order, as ScalarRiskKernel does
+                    double shortfall = shortfallSums[s];
+                    for (int i = 0; i < blockSize; i++) {
+                        double portfolioReturn = RiskKernel.portfolioReturn(expectedReturn, volatility, draws[i]);
+                        shortfall += Math.max(0, notional - portfolioReturn);
+                    }
+                    shortfallSums[s] = shortfall;
+                }
+            }
+
+            int offset = row * scenarios.size() + scenarioFrom;
+            for (int s = 0; s < width; s++) {
+                values[offset + s] = RiskKernel.finish(shortfallSums[s], iterations);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.RiskResult;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+// Stand-in for market-data fetch and result publishing: sleeps for a fixed latency per call
+public class SimulatedIoStage implements PortfolioIoStage {
+
+    private final Duration fetchLatency;
+    private final Duration publishLatency;
+    private final LongAdder published = new LongAdder();
+
+    public SimulatedIoStage(Duration fetchLatency, Duration publishLatency) {
+        this.fetchLatency = fetchLatency;
+        this.publishLatency = publishLatency;
+    }
+
+    @Override
+    public Portfolio fetch(Portfolio portfolio) throws InterruptedException {
+        pause(fetchLatency);
+        return portfolio;
+    }
+
+    @Override
+    public void publish(RiskResult result) throws InterruptedException {
+        pause(publishLatency);
+        published.increment();
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    private static void pause(Duration latency) throws InterruptedException {
+        if (!latency.isZero()) {
+            Thread.sleep(latency);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.PortfolioColumns;
+import com.exparal.demo.model.TailRisk;
+import com.exparal.demo.model.TailRiskReport;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+// Book-level VaR and Expected Shortfall over simulated paths.
+// Each path draws every portfolio's return from the risk kernel's model
+// (RiskKernel.portfolioReturn, z standard normal) and books the loss
+// -notional * return to the portfolio's sub-book. Unseeded runs draw from the worker's
+// ThreadLocalRandom; seeded runs give every chunk its own PortfolioRandomStreams stream, so the
+// same seed reproduces the same paths under any strategy. Path losses per sub-book and for the
+// whole book go into LossHistograms, so no path is stored. Paths are simulated in chunks;
+// a parallel stream collects one accumulator per split and merges them when splits join,
+// so workers never share a histogram. Each histogram spans its sub-book's mean loss plus or
+// minus RANGE_SIGMAS standard deviations, with draws assumed independent across portfolios.
+public final class TailRiskAggregator {
+
+    public static final double[] DEFAULT_CONFIDENCE_LEVELS = {0.95, 0.99};
+    public static final String BOOK = "BOOK";
+
+    static final int BINS = 2048;
+    static final double RANGE_SIGMAS = 8;
+    static final int PATHS_PER_CHUNK = 256;
+
+    private final PortfolioColumns book;
+    private final int[] subBookOfRow;
+    private final String[] subBookNames;
+    private final int[] subBookSizes;
+    // Index 0 is the whole book, index s + 1 is sub-book s
+    private final double[] lowerBounds;
+    private final double[] upperBounds;
+
+    // subBookOf maps a portfolio id to its sub-book name
+    public TailRiskAggregator(PortfolioColumns book, Function<String, String> subBookOf) {
+        this.book = book;
+        this.subBookOfRow = new int[book.size()];
+        Map<String, Integer> indexByName = new LinkedHashMap<>();
+        for (int row = 0; row < book.size(); row++) {
+            String name = subBookOf.apply(book.getId(row));
+            subBookOfRow[row] = indexByName.computeIfAbsent(name, key -> indexByName.size());
+        }
+        this.subBookNames = indexByName.keySet().toArray(new String[0]);
+        this.subBookSizes = new int[subBookNames.length];
+
+        double[] mean = new double[subBookNames.length + 1];
+        double[] variance = new double[subBookNames.length + 1];
+        for (int row = 0; row < book.size(); row++) {
+            int slot = subBookOfRow[row] + 1;
+            double rowMean = -book.getNotional(row) * book.getExpectedReturn(row);
+            double rowSd = book.getNotional(row) * book.getVolatility(row);
+            subBookSizes[slot - 1]++;
+            mean[slot] += rowMean;
+            variance[slot] += rowSd * rowSd;
+            mean[0] += rowMean;
+            variance[0] += rowSd * rowSd;
+        }
+        this.lowerBounds = new double[mean.length];
+        this.upperBounds = new double[mean.length];
+        for (int slot = 0; slot < mean.length; slot++) {
+            // Zero-volatility books still need a non-empty range
+            double halfWidth = Math.max(RANGE_SIGMAS * Math.sqrt(variance[slot]), 1e-9 * Math.max(1, Math.abs(mean[slot])));
+            lowerBounds[slot] = mean[slot] - halfWidth;
+            upperBounds[slot] = mean[slot] + halfWidth;
+        }
+    }
+
+    public int getSubBookCount() {
+        return subBookNames.length;
+    }
+
+    // Simulates paths [0, paths) over the given chunk indices; a parallel stream spreads the
+    // chunks over the pool it runs in
+    public Accumulator simulate(IntStream chunks, int paths) {
+        return chunks.collect(this::newAccumulator,
+                (accumulator, chunk) -> simulateChunk(accumulator, chunk, paths, ThreadLocalRandom.current()),
+                Accumulator::merge);
+    }
+
+    // Seeded variant: chunk k always draws from PortfolioRandomStreams.forPathChunk(seed, k)
+    public Accumulator simulate(IntStream chunks, int paths, long seed) {
+        return chunks.collect(this::newAccumulator,
+                (accumulator, chunk) -> simulateChunk(accumulator, chunk, paths,
+                        PortfolioRandomStreams.forPathChunk(seed, chunk)),
+                Accumulator::merge);
+    }
+
+    public int chunkCount(int paths) {
+        return (paths + PATHS_PER_CHUNK - 1) / PATHS_PER_CHUNK;
+    }
+
+    public TailRiskReport report(Accumulator accumulator, double[] confidenceLevels) {
+        TailRisk whole = tailRisk(BOOK, book.size(), accumulator.histograms[0], confidenceLevels);
+        Map<String, TailRisk> subBooks = new LinkedHashMap<>();
+        for (int s = 0; s < subBookNames.length; s++) {
+            subBooks.put(subBookNames[s],
+                    tailRisk(subBookNames[s], subBookSizes[s], accumulator.histograms[s + 1], confidenceLevels));
+        }
+        return new TailRiskReport(whole, subBooks);
+    }
+
+    Accumulator newAccumulator() {
+        LossHistogram[] histograms = new LossHistogram[lowerBounds.length];
+        for (int slot = 0; slot < histograms.length; slot++) {
+            histograms[slot] = new LossHistogram(lowerBounds[slot], upperBounds[slot], BINS);
+        }
+        return new Accumulator(histograms, new double[subBookNames.length]);
+    }
+
+    void simulateChunk(Accumulator accumulator, int chunk, int paths, RandomGenerator random) {
+        int end = Math.min(paths, (chunk + 1) * PATHS_PER_CHUNK);
+        double[] pathLoss = accumulator.pathLoss;
+        for (int path = chunk * PATHS_PER_CHUNK; path < end; path++) {
+            double bookLoss = 0;
+            for (int row = 0; row < book.size(); row++) {
+                double portfolioReturn = RiskKernel.portfolioReturn(book.getExpectedReturn(row),
+                        book.getVolatility(row), random.nextGaussian());
+                double loss = -book.getNotional(row) * portfolioReturn;
+                pathLoss[subBookOfRow[row]] += loss;
+                bookLoss += loss;
+            }
+            accumulator.histograms[0].add(bookLoss);
+            for (int s = 0; s < pathLoss.length; s++) {
+                accumulator.histograms[s + 1].add(pathLoss[s]);
+                pathLoss[s] = 0;
+            }
+        }
+    }
+
+    private static TailRisk tailRisk(String name, int portfolios, LossHistogram histogram, double[] confidenceLevels) {
+        double[] valueAtRisk = new double[confidenceLevels.length];
+        double[] expectedShortfall = new double[confidenceLevels.length];
+        for (int i = 0; i < confidenceLevels.length; i++) {
+            valueAtRisk[i] = histogram.valueAtRisk(confidenceLevels[i]);
+            expectedShortfall[i] = histogram.expectedShortfall(confidenceLevels[i]);
+        }
+        return new TailRisk(name, portfolios, histogram.count(), confidenceLevels.clone(), valueAtRisk,
+                expectedShortfall);
+    }
+
+    // One worker's histograms plus its per-path scratch buffer
+    public static final class Accumulator {
+
+        private final LossHistogram[] histograms;
+        private final double[] pathLoss;
+
+        private Accumulator(LossHistogram[] histograms, double[] pathLoss) {
+            this.histograms = histograms;
+            this.pathLoss = pathLoss;
+        }
+
+        private void merge(Accumulator other) {
+            for (int slot = 0; slot < histograms.length; slot++) {
+                histograms[slot].merge(other.histograms[slot]);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.exparal.demo.service;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.RiskResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+// Mixed I/O + CPU pipeline: fetch market data, compute the risk metric, publish the result.
+// Each portfolio gets a virtual thread, so thousands of fetches and publishes can wait on I/O
+// at once without a platform thread each. The CPU stage is handed to the service's custom
+// ForkJoinPool (sized to cores); the virtual thread parks on the future meanwhile, so the
+// Monte Carlo loop never occupies the virtual-thread scheduler's carriers. A semaphore caps
+// the portfolios in flight so a huge batch cannot start unbounded concurrent I/O.
+@Service
+public class VirtualThreadRiskPipeline {
+
+    private final FinancialCalculationService calculationService;
+    private final PortfolioIoStage ioStage;
+    private final int maxInFlight;
+
+    public VirtualThreadRiskPipeline(FinancialCalculationService calculationService, PortfolioIoStage ioStage,
+                                     @Value("${risk.pipeline.max-in-flight:10000}") int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in-flight portfolios must be positive: " + maxInFlight);
+        }
+        this.calculationService = calculationService;
+        this.ioStage = ioStage;
+        this.maxInFlight = maxInFlight;
+    }
+
+    // Results are returned in input order
+    public List<RiskResult> process(List<Portfolio> portfolios) {
+        RiskResult[] results = new RiskResult[portfolios.size()];
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<Future<?>> tasks = new ArrayList<>(portfolios.size());
+
+        try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (int i = 0; i < portfolios.size(); i++) {
+                    inFlight.acquire();
+                    int index = i;
+                    tasks.add(virtualThreads.submit(() -> {
+                        try {
+                            results[index] = processOne(portfolios.get(index));
+                        } finally {
+                            inFlight.release();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+            } catch (InterruptedException e) {
+                // Cancel before close() so it does not wait for the remaining portfolios
+                tasks.forEach(task -> task.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Pipeline interrupted", e);
+            } catch (ExecutionException e) {
+                tasks.forEach(task -> task.cancel(true));
+                throw new RuntimeException("Pipeline stage failed", e.getCause());
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private RiskResult processOne(Portfolio portfolio) throws Exception {
+        Portfolio priced = ioStage.fetch(portfolio);
+        // get() rather than join(): the virtual thread parks interruptibly while the custom pool computes
+        BigDecimal metric = calculationService.calculateRiskMetricAsync(priced).get();
+        RiskResult result = new RiskResult(priced.getId(), metric);
+        ioStage.publish(result);
+        return result;
+    }
+}
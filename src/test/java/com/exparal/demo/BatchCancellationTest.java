@@ -0,0 +1,138 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.BatchResult;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.BatchHandle;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.RiskKernel;
+import com.exparal.demo.service.ScalarRiskKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchCancellationTest {
+
+    // Deterministic stand-in kernel that takes about a millisecond per portfolio,
+    // so a 20,000-row book on two workers would run for ten seconds
+    private static final RiskKernel SLOW_ECHO_KERNEL = new RiskKernel() {
+        @Override
+        public String name() {
+            return "slow-echo";
+        }
+
+        @Override
+        public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+            LockSupport.parkNanos(1_000_000);
+            return notional + iterations;
+        }
+    };
+
+    private final FinancialCalculationService calculationService =
+            new FinancialCalculationService(2, 1000, SLOW_ECHO_KERNEL);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("A batch that is not stopped completes every row")
+    void testCompletes() {
+        PortfolioBook book = SyntheticPortfolios.book(200);
+
+        BatchResult result = calculationService.submitRiskMetrics(book).await();
+
+        assertThat(result.status()).isEqualTo(BatchResult.Status.COMPLETED);
+        assertThat(result.completedCount()).isEqualTo(book.size());
+        for (int row = 0; row < book.size(); row++) {
+            assertThat(result.results()[row]).isEqualTo(book.getNotional(row) + 1000);
+        }
+    }
+
+    @Test
+    @DisplayName("Cancel frees the workers within milliseconds and keeps the finished rows")
+    void testCancel() {
+        PortfolioBook book = SyntheticPortfolios.book(20_000);
+        BatchHandle handle = calculationService.submitRiskMetrics(book);
+        LockSupport.parkNanos(Duration.ofMillis(100).toNanos());
+
+        long start = System.nanoTime();
+        assertThat(handle.cancel()).isTrue();
+        BatchResult result = handle.await();
+        long stopMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Cancelled after %d of %d rows, workers stopped in %d ms%n",
+                result.completedCount(), book.size(), stopMillis);
+        assertThat(stopMillis).isLessThan(500);
+        assertThat(result.status()).isEqualTo(BatchResult.Status.CANCELLED);
+        assertThat(result.completedCount()).isPositive().isLessThan(book.size());
+        assertThat(handle.getCompletedCount()).isEqualTo(result.completedCount());
+        assertPartialResults(book, result);
+        assertThat(handle.cancel()).isFalse();
+    }
+
+    @Test
+    @DisplayName("A batch past its deadline stops with the rows it finished")
+    void testDeadline() {
+        PortfolioBook book = SyntheticPortfolios.book(20_000);
+
+        BatchResult result = calculationService.submitRiskMetrics(book, Duration.ofMillis(100)).await();
+
+        assertThat(result.status()).isEqualTo(BatchResult.Status.DEADLINE_EXCEEDED);
+        assertThat(result.completedCount()).isPositive().isLessThan(book.size());
+        assertPartialResults(book, result);
+    }
+
+    @Test
+    @DisplayName("A caller that stops waiting cancels the batch")
+    void testAwaitTimeout() {
+        PortfolioBook book = SyntheticPortfolios.book(20_000);
+        BatchHandle handle = calculationService.submitRiskMetrics(book);
+
+        BatchResult result = handle.await(Duration.ofMillis(100));
+
+        assertThat(handle.isCancelled()).isTrue();
+        assertThat(result.status()).isEqualTo(BatchResult.Status.CANCELLED);
+        assertPartialResults(book, result);
+    }
+
+    @Test
+    @DisplayName("Cancel stops a portfolio in the middle of its simulation")
+    void testCancelInsidePortfolio() {
+        // Two rows of Integer.MAX_VALUE iterations each run for many seconds on the scalar kernel
+        FinancialCalculationService longRunning =
+                new FinancialCalculationService(2, Integer.MAX_VALUE, new ScalarRiskKernel());
+        try {
+            BatchHandle handle = longRunning.submitRiskMetrics(SyntheticPortfolios.book(2));
+            LockSupport.parkNanos(Duration.ofMillis(100).toNanos());
+
+            long start = System.nanoTime();
+            handle.cancel();
+            BatchResult result = handle.await();
+            long stopMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(stopMillis).isLessThan(500);
+            assertThat(result.status()).isEqualTo(BatchResult.Status.CANCELLED);
+            assertThat(result.completedCount()).isZero();
+            assertThat(result.results()).containsOnly(Double.NaN);
+        } finally {
+            longRunning.shutdown();
+        }
+    }
+
+    private static void assertPartialResults(PortfolioBook book, BatchResult result) {
+        for (int row = 0; row < book.size(); row++) {
+            if (result.isCompleted(row)) {
+                assertThat(result.results()[row]).isEqualTo(book.getNotional(row) + 1000);
+            } else {
+                assertThat(result.results()[row]).isNaN();
+            }
+        }
+    }
+}
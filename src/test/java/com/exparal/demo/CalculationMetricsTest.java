@@ -0,0 +1,121 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.BatchPriority;
+import com.exparal.demo.service.FairRiskScheduler;
+import com.exparal.demo.service.FinancialCalculationService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CalculationMetricsTest {
+
+    private final FinancialCalculationService calculationService = new FinancialCalculationService(2, 100);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+        registry.close();
+    }
+
+    @Test
+    @DisplayName("Batches are recorded per strategy with their portfolio counts")
+    void testBatchMetrics() {
+        calculationService.getMetrics().bindTo(registry);
+        List<Portfolio> portfolios = SyntheticPortfolios.generate(500);
+
+        calculationService.calculateRiskMetrics(portfolios);
+        calculationService.calculateRiskMetricsForkJoin(PortfolioBook.of(portfolios), new double[portfolios.size()]);
+
+        String strategy = calculationService.getStrategyRouter().getLastStrategy().name();
+        assertThat(registry.get("risk.batch.duration").tag("strategy", strategy).timer().count()).isEqualTo(1);
+        assertThat(registry.get("risk.portfolios").tag("strategy", strategy).counter().count()).isEqualTo(500);
+        assertThat(registry.get("risk.batch.duration").tag("strategy", FinancialCalculationService.FORK_JOIN_STRATEGY)
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Every explicit strategy overload records exactly one batch")
+    void testExplicitOverloadsRecordOnce() {
+        calculationService.getMetrics().bindTo(registry);
+        List<Portfolio> portfolios = SyntheticPortfolios.generate(100);
+        PortfolioBook book = PortfolioBook.of(portfolios);
+        double[] results = new double[book.size()];
+
+        calculationService.calculateRiskMetricsSequential(portfolios);
+        calculationService.calculateRiskMetricsSequential(book, 7L, results);
+        calculationService.calculateRiskMetricsParallel(book, results);
+        calculationService.calculateRiskMetricsParallel(portfolios, 7L);
+        calculationService.calculateRiskMetricsParallel(book, DoubleBuffer.allocate(book.size()));
+        calculationService.calculateRiskMetricsCustomPool(book);
+        calculationService.calculateRiskMetricsCustomPool(portfolios, 7L);
+        calculationService.calculateRiskMetricsCustomPool(book, 7L, results);
+
+        assertThat(registry.get("risk.batch.duration").tag("strategy", "SEQUENTIAL").timer().count()).isEqualTo(2);
+        assertThat(registry.get("risk.batch.duration").tag("strategy", "COMMON_POOL").timer().count()).isEqualTo(3);
+        assertThat(registry.get("risk.batch.duration").tag("strategy", "CUSTOM_POOL").timer().count()).isEqualTo(3);
+        assertThat(registry.get("risk.portfolios").tag("strategy", "CUSTOM_POOL").counter().count()).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("Per-portfolio compute time is sampled, not recorded for every portfolio")
+    void testSampledPortfolioTiming() {
+        calculationService.getMetrics().bindTo(registry);
+        List<Portfolio> portfolios = SyntheticPortfolios.generate(5000);
+
+        calculationService.calculateRiskMetricsCustomPool(portfolios);
+
+        Timer portfolioTimer = registry.get("risk.portfolio.duration").timer();
+        assertThat(portfolioTimer.count()).isBetween(1L, 500L);
+    }
+
+    @Test
+    @DisplayName("Custom pool gauges are published and nothing is recorded before binding")
+    void testPoolGaugesAndUnboundNoOp() {
+        calculationService.calculateRiskMetrics(SyntheticPortfolios.generate(10));
+        calculationService.getMetrics().bindTo(registry);
+
+        assertThat(registry.get("executor.parallelism").tag("name", "risk.customPool").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("executor.steals").tag("name", "risk.customPool").functionCounter()).isNotNull();
+        assertThat(registry.find("risk.batch.duration").timer()).isNull();
+    }
+
+    @Test
+    @DisplayName("Precision-targeted batches are recorded under their own tag")
+    void testPrecisionTargetMetrics() {
+        calculationService.getMetrics().bindTo(registry);
+        List<Portfolio> portfolios = SyntheticPortfolios.generate(50);
+        PortfolioBook book = PortfolioBook.of(portfolios);
+
+        calculationService.calculateRiskMetricsToTarget(portfolios, calculationService.precisionTarget(0.01));
+        calculationService.calculateRiskMetricsToTarget(book, calculationService.precisionTarget(0.01));
+        calculationService.calculateRiskMetricsToTarget(book, calculationService.precisionTarget(0.01), 7L);
+
+        String strategy = FinancialCalculationService.PRECISION_TARGET_STRATEGY;
+        assertThat(registry.get("risk.batch.duration").tag("strategy", strategy).timer().count()).isEqualTo(3);
+        assertThat(registry.get("risk.portfolios").tag("strategy", strategy).counter().count()).isEqualTo(150);
+    }
+
+    @Test
+    @DisplayName("Scheduler slices are recorded under their own tag, one batch per slice")
+    void testSchedulerSliceMetrics() {
+        calculationService.getMetrics().bindTo(registry);
+        FairRiskScheduler scheduler = new FairRiskScheduler(calculationService, 64, 2);
+
+        scheduler.submit("tenant", BatchPriority.NORMAL, SyntheticPortfolios.generate(200)).join();
+
+        String strategy = FinancialCalculationService.SCHEDULED_SLICE_STRATEGY;
+        assertThat(registry.get("risk.batch.duration").tag("strategy", strategy).timer().count()).isEqualTo(4);
+        assertThat(registry.get("risk.portfolios").tag("strategy", strategy).counter().count()).isEqualTo(200);
+    }
+}
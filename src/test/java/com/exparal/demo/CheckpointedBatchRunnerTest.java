@@ -0,0 +1,167 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.CheckpointedBatchResult;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.CheckpointedBatchRunner;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.RiskKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CheckpointedBatchRunnerTest {
+
+    private static final int CHUNK_ROWS = 100;
+    private static final int RECORD_BYTES = 12 + CHUNK_ROWS * Double.BYTES;
+
+    // Deterministic stand-in kernel so every row's expected metric is known
+    private static final RiskKernel ECHO_KERNEL = new RiskKernel() {
+        @Override
+        public String name() {
+            return "echo";
+        }
+
+        @Override
+        public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+            return notional + iterations;
+        }
+    };
+
+    private final FinancialCalculationService calculationService =
+            new FinancialCalculationService(2, 1000, ECHO_KERNEL);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("A run that dies part way resumes from its durable chunks and matches an uninterrupted run")
+    void testResumeAfterFailure() throws IOException {
+        PortfolioBook book = SyntheticPortfolios.book(1050);
+        Path checkpoint = directory.resolve("batch.rcp");
+        AtomicInteger calls = new AtomicInteger();
+        FinancialCalculationService dyingService = new FinancialCalculationService(2, 1000, new RiskKernel() {
+            @Override
+            public String name() {
+                return "dying-echo";
+            }
+
+            @Override
+            public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+                if (calls.incrementAndGet() > 650) {
+                    throw new IllegalStateException("Simulated crash");
+                }
+                return notional + iterations;
+            }
+        });
+        try {
+            CheckpointedBatchRunner dyingRunner = new CheckpointedBatchRunner(dyingService, CHUNK_ROWS, Duration.ZERO);
+            assertThatThrownBy(() -> dyingRunner.run(book, checkpoint)).isInstanceOf(RuntimeException.class);
+        } finally {
+            dyingService.shutdown();
+        }
+
+        CheckpointedBatchResult resumed =
+                new CheckpointedBatchRunner(calculationService, CHUNK_ROWS, Duration.ZERO).run(book, checkpoint);
+
+        assertThat(resumed.resumed()).isTrue();
+        assertThat(resumed.resumedRows() % CHUNK_ROWS).isZero();
+        assertThat(resumed.resumedRows()).isBetween(CHUNK_ROWS, 600);
+        assertThat(resumed.resumedRows() + resumed.computedRows()).isEqualTo(book.size());
+        for (int row = 0; row < book.size(); row++) {
+            assertThat(resumed.results()[row]).isEqualTo(book.getNotional(row) + 1000);
+        }
+
+        CheckpointedBatchResult complete =
+                new CheckpointedBatchRunner(calculationService, CHUNK_ROWS, Duration.ZERO).run(book, checkpoint);
+        assertThat(complete.resumedRows()).isEqualTo(book.size());
+        assertThat(complete.computedRows()).isZero();
+        assertThat(complete.results()).containsExactly(resumed.results());
+    }
+
+    @Test
+    @DisplayName("Seeded runs resume bit for bit")
+    void testSeededResume() throws IOException {
+        FinancialCalculationService seededService = new FinancialCalculationService(2, 2000);
+        try {
+            PortfolioBook book = SyntheticPortfolios.book(500);
+            Path checkpoint = directory.resolve("seeded.rcp");
+            double[] expected = new double[book.size()];
+            seededService.calculateRiskMetricsCustomPool(book, 7L, expected);
+            CheckpointedBatchRunner runner = new CheckpointedBatchRunner(seededService, CHUNK_ROWS, Duration.ZERO);
+
+            runner.run(book, 7L, checkpoint);
+            truncate(checkpoint, Files.size(checkpoint) - 2L * RECORD_BYTES);
+            CheckpointedBatchResult resumed = runner.run(book, 7L, checkpoint);
+
+            assertThat(resumed.resumedRows()).isEqualTo(300);
+            assertThat(resumed.results()).containsExactly(expected);
+        } finally {
+            seededService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Torn and corrupted records are cut off and recomputed")
+    void testDamagedCheckpoint() throws IOException {
+        PortfolioBook book = SyntheticPortfolios.book(1000);
+        Path checkpoint = directory.resolve("damaged.rcp");
+        CheckpointedBatchRunner runner = new CheckpointedBatchRunner(calculationService, CHUNK_ROWS, Duration.ZERO);
+        CheckpointedBatchResult first = runner.run(book, checkpoint);
+        assertThat(first.bytesWritten()).isEqualTo(10L * RECORD_BYTES);
+        assertThat(Files.size(checkpoint)).isEqualTo(64 + 10L * RECORD_BYTES);
+
+        truncate(checkpoint, Files.size(checkpoint) - 100);
+        CheckpointedBatchResult torn = runner.run(book, checkpoint);
+        assertThat(torn.resumedRows()).isEqualTo(900);
+        assertThat(torn.discardedBytes()).isEqualTo(RECORD_BYTES - 100);
+
+        try (FileChannel channel = FileChannel.open(checkpoint, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), 64 + 3L * RECORD_BYTES + 100);
+        }
+        CheckpointedBatchResult corrupted = runner.run(book, checkpoint);
+        assertThat(corrupted.resumedRows()).isEqualTo(300);
+        assertThat(corrupted.computedRows()).isEqualTo(700);
+        assertThat(corrupted.results()).containsExactly(first.results());
+    }
+
+    @Test
+    @DisplayName("A checkpoint of another batch is refused")
+    void testDifferentBatchRefused() throws IOException {
+        PortfolioBook book = SyntheticPortfolios.book(300);
+        Path checkpoint = directory.resolve("other.rcp");
+        CheckpointedBatchRunner runner = new CheckpointedBatchRunner(calculationService, CHUNK_ROWS, Duration.ZERO);
+        runner.run(book, 1L, checkpoint);
+
+        assertThatThrownBy(() -> runner.run(book, 2L, checkpoint)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> runner.run(SyntheticPortfolios.book(301), 1L, checkpoint)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new CheckpointedBatchRunner(calculationService, 50, Duration.ZERO)
+                .run(book, 1L, checkpoint)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new CheckpointedBatchRunner(calculationService, 0, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+}
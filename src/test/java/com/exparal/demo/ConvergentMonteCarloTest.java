@@ -0,0 +1,86 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.RiskEstimate;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.ConvergentMonteCarlo;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.PrecisionTarget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class ConvergentMonteCarloTest {
+
+    // notional == expectedReturn, so the shortfall is volatility * max(0, -z)
+    // with mean volatility / sqrt(2 * pi); the metric is that mean to the power 0.75
+    private static final double VOLATILITY = 0.3;
+    private static final double EXPECTED_METRIC = Math.pow(VOLATILITY / Math.sqrt(2 * Math.PI), 0.75);
+
+    private final FinancialCalculationService calculationService = new FinancialCalculationService(2, 100_000);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Stops once the standard error target is met and reports the draws used")
+    void testStopsAtTarget() {
+        PrecisionTarget target = PrecisionTarget.relative(1e-3, 10_000_000);
+
+        RiskEstimate estimate = ConvergentMonteCarlo.simulate(0.1, 0.1, VOLATILITY, target, new SplittableRandom(42));
+
+        assertThat(estimate.standardError()).isLessThanOrEqualTo(1e-3 * estimate.riskMetric());
+        assertThat(estimate.iterations()).isBetween(target.minIterations(), target.maxIterations());
+        assertThat(estimate.riskMetric()).isCloseTo(EXPECTED_METRIC, within(5 * estimate.standardError()));
+    }
+
+    @Test
+    @DisplayName("Portfolios whose shortfall is never floored stop at the minimum with zero error")
+    void testLowVolatilityStopsEarly() {
+        PrecisionTarget target = PrecisionTarget.relative(1e-6, 100_000);
+
+        RiskEstimate estimate = ConvergentMonteCarlo.simulate(5_000_000, 0.1, 0.3, target, new SplittableRandom(42));
+
+        assertThat(estimate.iterations()).isEqualTo(target.minIterations());
+        assertThat(estimate.standardError()).isZero();
+        assertThat(estimate.riskMetric()).isCloseTo(Math.pow(5_000_000 - 0.1, 0.75), within(1e-6));
+    }
+
+    @Test
+    @DisplayName("An unreachable target runs to the iteration cap")
+    void testIterationCap() {
+        PrecisionTarget target = new PrecisionTarget(1e-9, 1000, 2000, 10_000);
+
+        RiskEstimate estimate = ConvergentMonteCarlo.simulate(0.1, 0.1, VOLATILITY, target, new SplittableRandom(42));
+
+        assertThat(estimate.iterations()).isEqualTo(10_000);
+        assertThat(estimate.standardError()).isGreaterThan(1e-9 * estimate.riskMetric());
+        assertThatThrownBy(() -> new PrecisionTarget(0, 1000, 2000, 10_000)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Book runs use far fewer draws than the fixed iteration count and are reproducible when seeded")
+    void testBookToTarget() {
+        PortfolioBook book = SyntheticPortfolios.book(200);
+        PrecisionTarget target = calculationService.precisionTarget(1e-4);
+
+        RiskEstimate[] estimates = calculationService.calculateRiskMetricsToTarget(book, target, 7L);
+        double[] fixed = calculationService.calculateRiskMetricsSequential(book);
+
+        long draws = 0;
+        for (int row = 0; row < book.size(); row++) {
+            draws += estimates[row].iterations();
+            assertThat(estimates[row].riskMetric()).isCloseTo(fixed[row], within(fixed[row] * 1e-4));
+        }
+        assertThat(draws).isLessThan((long) book.size() * calculationService.getIterations() / 10);
+        assertThat(calculationService.calculateRiskMetricsToTarget(book, target, 7L)).containsExactly(estimates);
+    }
+}
@@ -0,0 +1,221 @@
+package com.exparal.demo;
+
+import com.exparal.demo.distributed.DistributedBatchResult;
+import com.exparal.demo.distributed.RiskCoordinator;
+import com.exparal.demo.distributed.RiskWorker;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.RiskKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DistributedExecutionTest {
+
+    // Deterministic stand-in kernel so distributed and local results can be compared exactly
+    private static final RiskKernel ECHO_KERNEL = new RiskKernel() {
+        @Override
+        public String name() {
+            return "echo";
+        }
+
+        @Override
+        public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+            return notional + iterations;
+        }
+    };
+
+    private final List<RiskWorker> workers = new ArrayList<>();
+    private final List<Process> workerProcesses = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (RiskWorker worker : workers) {
+            worker.close();
+        }
+        workerProcesses.forEach(Process::destroy);
+    }
+
+    @Test
+    @DisplayName("Chunks spread over every worker and come back in book order")
+    void testDistributesAcrossWorkers() throws IOException {
+        List<InetSocketAddress> addresses = List.of(startWorker(ECHO_KERNEL), startWorker(ECHO_KERNEL),
+                startWorker(ECHO_KERNEL));
+        PortfolioBook book = SyntheticPortfolios.book(5000);
+
+        DistributedBatchResult result = new RiskCoordinator(addresses, 1000, options(100)).calculate(book);
+
+        assertEchoResults(book, result);
+        assertThat(result.chunks()).isEqualTo(50);
+        assertThat(result.chunksPerWorker()).hasSize(3);
+        assertThat(result.chunksPerWorker().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Rows are positional: a batch that repeats an id is computed like the local path")
+    void testRepeatedIds() throws IOException {
+        List<InetSocketAddress> addresses = List.of(startWorker(ECHO_KERNEL));
+        PortfolioBook book = new PortfolioBook(3);
+        book.add("SAME", 1_000_000, 0.1, 0.2);
+        book.add("SAME", 2_000_000, 0.1, 0.2);
+        book.add("OTHER", 3_000_000, 0.1, 0.2);
+
+        DistributedBatchResult result = new RiskCoordinator(addresses, 1000, options(100)).calculate(book);
+
+        assertEchoResults(book, result);
+    }
+
+    @Test
+    @DisplayName("Failed chunks and unreachable workers are retried on the remaining workers")
+    void testRetriesFailures() throws IOException {
+        AtomicInteger failuresLeft = new AtomicInteger(3);
+        RiskKernel flakyKernel = new RiskKernel() {
+            @Override
+            public String name() {
+                return "flaky-echo";
+            }
+
+            @Override
+            public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+                if (failuresLeft.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Injected kernel failure");
+                }
+                return notional + iterations;
+            }
+        };
+        List<InetSocketAddress> addresses = List.of(startWorker(flakyKernel), startWorker(ECHO_KERNEL), unusedAddress());
+        PortfolioBook book = SyntheticPortfolios.book(2000);
+
+        DistributedBatchResult result = new RiskCoordinator(addresses, 1000, options(100)).calculate(book);
+
+        assertEchoResults(book, result);
+        assertThat(result.retries()).isPositive();
+        assertThatThrownBy(() -> new RiskCoordinator(List.of(unusedAddress()), 1000, options(100)).calculate(book))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Distributed calculation failed");
+    }
+
+    @Test
+    @DisplayName("A straggling worker's chunk is re-executed speculatively on an idle worker")
+    void testSpeculativeExecution() throws IOException {
+        RiskKernel slowKernel = new RiskKernel() {
+            @Override
+            public String name() {
+                return "slow-echo";
+            }
+
+            @Override
+            public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+                LockSupport.parkNanos(Duration.ofMillis(100).toNanos());
+                return notional + iterations;
+            }
+        };
+        List<InetSocketAddress> addresses = List.of(startWorker(slowKernel), startWorker(ECHO_KERNEL));
+        PortfolioBook book = SyntheticPortfolios.book(400);
+        RiskCoordinator.Options options = new RiskCoordinator.Options(20, 1, 3, Duration.ofSeconds(30), 2.0,
+                Duration.ofMillis(50));
+
+        DistributedBatchResult result = new RiskCoordinator(addresses, 1000, options).calculate(book);
+
+        // The slow worker needs a second per chunk; without speculation the batch would wait for it
+        System.out.printf("Speculative executions: %d, elapsed %d ms, chunks per worker %s%n",
+                result.speculativeExecutions(), result.elapsedNanos() / 1_000_000, result.chunksPerWorker());
+        assertEchoResults(book, result);
+        assertThat(result.speculativeExecutions()).isPositive();
+        assertThat(result.chunksPerWorker().get(addresses.get(1).getHostString() + ":" + addresses.get(1).getPort()))
+                .isGreaterThanOrEqualTo(result.chunks() - 1L);
+    }
+
+    @Test
+    @DisplayName("Scaling efficiency as worker processes are added on one host")
+    void testScalingAcrossWorkerProcesses() throws IOException {
+        int maxWorkers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < maxWorkers; i++) {
+            addresses.add(startWorkerProcess(1, 20_000));
+        }
+        PortfolioBook book = SyntheticPortfolios.book(2000);
+        RiskCoordinator.Options options = RiskCoordinator.Options.defaults();
+
+        System.out.println("\nWorkers | Time (ms) | Speedup | Efficiency");
+        long baselineNanos = 0;
+        for (int workerCount = 1; workerCount <= maxWorkers; workerCount *= 2) {
+            RiskCoordinator coordinator = new RiskCoordinator(addresses.subList(0, workerCount), 20_000, options);
+            coordinator.calculate(book); // warm up the workers' JIT
+            DistributedBatchResult result = coordinator.calculate(book);
+            if (workerCount == 1) {
+                baselineNanos = result.elapsedNanos();
+            }
+            double speedup = (double) baselineNanos / result.elapsedNanos();
+            System.out.printf("%7d | %9d | %7.2f | %9.1f%%%n", workerCount, result.elapsedNanos() / 1_000_000,
+                    speedup, 100 * speedup / workerCount);
+
+            assertThat(result.results()).hasSize(book.size());
+            assertThat(Arrays.stream(result.results())).allMatch(metric -> metric > 0);
+            assertThat(result.chunksPerWorker()).hasSize(workerCount);
+        }
+    }
+
+    private InetSocketAddress startWorker(RiskKernel kernel) throws IOException {
+        RiskWorker worker = new RiskWorker(new FinancialCalculationService(2, 1000, kernel),
+                InetAddress.getLoopbackAddress(), 0);
+        workers.add(worker);
+        return worker.getAddress();
+    }
+
+    // Separate JVM on this host running the real kernel, started on a free port
+    private InetSocketAddress startWorkerProcess(int parallelism, int iterations) throws IOException {
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Process process = new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+                RiskWorker.class.getName(), "0", String.valueOf(parallelism), String.valueOf(iterations),
+                "127.0.0.1")
+                .redirectErrorStream(true)
+                .start();
+        workerProcesses.add(process);
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String line;
+        while ((line = output.readLine()) != null) {
+            if (line.startsWith("RiskWorker listening on ")) {
+                int port = Integer.parseInt(line.substring("RiskWorker listening on ".length()).trim());
+                return new InetSocketAddress("127.0.0.1", port);
+            }
+        }
+        throw new IOException("Worker process exited before listening");
+    }
+
+    // A loopback port with nothing listening on it
+    private static InetSocketAddress unusedAddress() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return new InetSocketAddress("127.0.0.1", socket.getLocalPort());
+        }
+    }
+
+    private static RiskCoordinator.Options options(int chunkSize) {
+        return new RiskCoordinator.Options(chunkSize, 2, 3, Duration.ofSeconds(30), 2.0, Duration.ofSeconds(5));
+    }
+
+    private static void assertEchoResults(PortfolioBook book, DistributedBatchResult result) {
+        assertThat(result.results()).hasSize(book.size());
+        for (int row = 0; row < book.size(); row++) {
+            assertThat(result.results()[row]).isEqualTo(book.getNotional(row) + 1000);
+        }
+    }
+}
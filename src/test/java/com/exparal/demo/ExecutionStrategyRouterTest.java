@@ -0,0 +1,92 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.service.ExecutionStrategy;
+import com.exparal.demo.service.ExecutionStrategyRouter;
+import com.exparal.demo.service.FinancialCalculationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecutionStrategyRouterTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Single-item batches always run sequentially")
+    void testTrivialBatch() {
+        ExecutionStrategyRouter router = new ExecutionStrategyRouter(pool);
+
+        assertThat(router.choose(1, 100_000)).isEqualTo(ExecutionStrategy.SEQUENTIAL);
+        assertThat(router.getSelectionCount(ExecutionStrategy.SEQUENTIAL)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Cold start measures every strategy on small batches")
+    void testColdStartExploration() {
+        ExecutionStrategyRouter router = new ExecutionStrategyRouter(pool);
+        List<ExecutionStrategy> chosen = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            ExecutionStrategy strategy = router.choose(20, 1000);
+            chosen.add(strategy);
+            router.record(strategy, 20, 1000, 1_000_000);
+        }
+
+        assertThat(chosen).containsExactlyInAnyOrder(ExecutionStrategy.values());
+    }
+
+    @Test
+    @DisplayName("Learned latencies decide the strategy and the parallel threshold")
+    void testLearnsFromLatencies() {
+        ExecutionStrategyRouter router = new ExecutionStrategyRouter(pool);
+        // Small batches: sequential wins. Large batches: the custom pool wins.
+        router.record(ExecutionStrategy.SEQUENTIAL, 10, 1000, 100_000);
+        router.record(ExecutionStrategy.COMMON_POOL, 10, 1000, 400_000);
+        router.record(ExecutionStrategy.CUSTOM_POOL, 10, 1000, 500_000);
+        router.record(ExecutionStrategy.SEQUENTIAL, 10_000, 1000, 100_000_000);
+        router.record(ExecutionStrategy.COMMON_POOL, 10_000, 1000, 40_000_000);
+        router.record(ExecutionStrategy.CUSTOM_POOL, 10_000, 1000, 26_000_000);
+
+        assertThat(router.choose(10, 1000)).isEqualTo(ExecutionStrategy.SEQUENTIAL);
+        assertThat(router.choose(10_000, 1000)).isEqualTo(ExecutionStrategy.CUSTOM_POOL);
+        assertThat(router.getLastStrategy()).isEqualTo(ExecutionStrategy.CUSTOM_POOL);
+        assertThat(router.getLearnedParallelThreshold()).isBetween(1L << 23, 10_000L * 1000);
+    }
+
+    @Test
+    @DisplayName("Adaptive entry point returns one result per portfolio and records its choice")
+    void testAdaptiveEntryPoint() {
+        FinancialCalculationService calculationService = new FinancialCalculationService(2, 1000);
+        try {
+            List<Portfolio> portfolios = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                portfolios.add(new Portfolio("PORTFOLIO_" + i, 1_000_000, 0.1, 0.2));
+            }
+
+            for (int run = 0; run < 5; run++) {
+                List<BigDecimal> results = calculationService.calculateRiskMetrics(portfolios);
+                assertThat(results).hasSize(portfolios.size());
+            }
+
+            ExecutionStrategyRouter router = calculationService.getStrategyRouter();
+            long total = router.getSelectionCounts().values().stream().mapToLong(Long::longValue).sum();
+            assertThat(total).isEqualTo(5);
+            assertThat(router.getLastStrategy()).isNotNull();
+        } finally {
+            calculationService.shutdown();
+        }
+    }
+}
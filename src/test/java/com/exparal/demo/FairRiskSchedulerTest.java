@@ -0,0 +1,126 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.PortfolioColumns;
+import com.exparal.demo.service.BatchPriority;
+import com.exparal.demo.service.FairRiskScheduler;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.RiskKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FairRiskSchedulerTest {
+
+    // Deterministic stand-in kernel with a fixed cost per portfolio
+    private static final RiskKernel SLOW_ECHO_KERNEL = new RiskKernel() {
+        @Override
+        public String name() {
+            return "slow-echo";
+        }
+
+        @Override
+        public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            return notional + iterations;
+        }
+    };
+
+    private final FinancialCalculationService calculationService =
+            new FinancialCalculationService(2, 1000, SLOW_ECHO_KERNEL);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Every batch gets each of its rows computed once")
+    void testResults() {
+        FairRiskScheduler scheduler = new FairRiskScheduler(calculationService, 16, 2);
+        List<PortfolioBook> books = new ArrayList<>();
+        List<CompletableFuture<double[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            PortfolioBook book = generateTestBook("T" + i, 37 * (i + 1));
+            books.add(book);
+            futures.add(scheduler.submit("tenant-" + (i % 3), BatchPriority.values()[i % 3], book));
+        }
+
+        for (int i = 0; i < books.size(); i++) {
+            PortfolioBook book = books.get(i);
+            double[] results = futures.get(i).join();
+            for (int row = 0; row < book.size(); row++) {
+                assertThat(results[row]).isEqualTo(book.getNotional(row) + 1000);
+            }
+        }
+        assertThat(scheduler.getQueuedBatchCount()).isZero();
+        assertThat(scheduler.submit("empty", BatchPriority.LOW, new PortfolioBook()).join()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A small urgent batch overtakes a large batch that is already running")
+    void testUrgentBatchIsNotBlocked() {
+        FairRiskScheduler scheduler = new FairRiskScheduler(calculationService, 16, 2);
+        // ~4000 x 100us over 2 workers: at least 200 ms of work
+        CompletableFuture<double[]> large = scheduler.submit("desk-a", BatchPriority.NORMAL,
+                generateTestBook("LARGE", 4000));
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+
+        long start = System.nanoTime();
+        double[] urgent = scheduler.submit("desk-b", BatchPriority.URGENT, generateTestBook("URGENT", 32)).join();
+        long urgentMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(urgent).hasSize(32);
+        assertThat(large).isNotDone();
+        assertThat(urgentMillis).isLessThan(100);
+        assertThat(large.join()).hasSize(4000);
+    }
+
+    @Test
+    @DisplayName("A chunk the pool refuses fails its batch and frees its slot for the next batch")
+    void testLaunchFailureFreesSlot() {
+        FinancialCalculationService refusingService = new FinancialCalculationService(2, 1000, SLOW_ECHO_KERNEL) {
+            @Override
+            public CompletableFuture<Void> calculateRiskMetricsAsync(PortfolioColumns book, int fromRow, int toRow,
+                                                                    double[] results) {
+                if (book.getId(fromRow).startsWith("REFUSED")) {
+                    throw new RejectedExecutionException("Pool refused the chunk");
+                }
+                return super.calculateRiskMetricsAsync(book, fromRow, toRow, results);
+            }
+        };
+        try {
+            FairRiskScheduler scheduler = new FairRiskScheduler(refusingService, 16, 1);
+
+            CompletableFuture<double[]> refused = scheduler.submit("desk-a", BatchPriority.NORMAL,
+                    generateTestBook("REFUSED", 40));
+            PortfolioBook book = generateTestBook("ACCEPTED", 40);
+            double[] accepted = scheduler.submit("desk-b", BatchPriority.NORMAL, book).join();
+
+            assertThat(refused).isCompletedExceptionally();
+            assertThatThrownBy(refused::join).hasCauseInstanceOf(RejectedExecutionException.class);
+            assertThat(accepted[39]).isEqualTo(book.getNotional(39) + 1000);
+            assertThat(scheduler.getQueuedBatchCount()).isZero();
+        } finally {
+            refusingService.shutdown();
+        }
+    }
+
+    private PortfolioBook generateTestBook(String prefix, int count) {
+        PortfolioBook book = new PortfolioBook(count);
+        for (int i = 0; i < count; i++) {
+            book.add(prefix + "_" + i, 1_000_000 + i, 0.1, 0.2);
+        }
+        return book;
+    }
+}
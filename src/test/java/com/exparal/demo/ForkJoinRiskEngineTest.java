@@ -0,0 +1,93 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.ForkJoinRiskEngine;
+import com.exparal.demo.service.RiskKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class ForkJoinRiskEngineTest {
+
+    // Deterministic stand-in kernel so every row's inputs can be checked exactly
+    private static final RiskKernel ECHO_KERNEL = new RiskKernel() {
+        @Override
+        public String name() {
+            return "echo";
+        }
+
+        @Override
+        public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+            return notional + iterations;
+        }
+    };
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Every row is computed exactly once for any leaf size")
+    void testEveryRowWritten() {
+        PortfolioBook book = SyntheticPortfolios.book(1003);
+        ForkJoinRiskEngine engine = new ForkJoinRiskEngine(pool, ECHO_KERNEL);
+
+        for (int leafSize : new int[]{1, 8, 64, 5000}) {
+            double[] results = new double[book.size()];
+            engine.calculate(book, 1000, results, leafSize);
+            for (int row = 0; row < book.size(); row++) {
+                assertThat(results[row]).isEqualTo(book.getNotional(row) + 1000);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Cost-weighted splitting uses each row's own iteration count")
+    void testCostWeightedSplitting() {
+        PortfolioBook book = SyntheticPortfolios.book(500);
+        int[] iterations = new int[book.size()];
+        for (int row = 0; row < iterations.length; row++) {
+            // Heavily skewed: the last tenth of the book carries most of the cost
+            iterations[row] = row >= 450 ? 100_000 : 100;
+        }
+        double[] results = new double[book.size()];
+
+        new ForkJoinRiskEngine(pool, ECHO_KERNEL).calculate(book, iterations, results, 4);
+
+        for (int row = 0; row < book.size(); row++) {
+            assertThat(results[row]).isEqualTo(book.getNotional(row) + iterations[row]);
+        }
+    }
+
+    @Test
+    @DisplayName("Service fork/join path agrees with the sequential path")
+    void testServiceForkJoinPath() {
+        FinancialCalculationService calculationService = new FinancialCalculationService(2, 2000);
+        try {
+            PortfolioBook book = SyntheticPortfolios.book(100);
+            double[] expected = calculationService.calculateRiskMetricsSequential(book);
+            double[] results = new double[book.size()];
+
+            calculationService.calculateRiskMetricsForkJoin(book, results);
+
+            for (int row = 0; row < book.size(); row++) {
+                assertThat(results[row]).isCloseTo(expected[row], within(expected[row] * 1e-4));
+            }
+            assertThatThrownBy(() -> calculationService.calculateRiskMetricsForkJoin(book, results, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            calculationService.shutdown();
+        }
+    }
+}
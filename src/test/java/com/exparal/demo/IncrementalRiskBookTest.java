@@ -0,0 +1,140 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.BookTotals;
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.RiskDeltaResult;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.IncrementalRiskBook;
+import com.exparal.demo.service.RiskKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class IncrementalRiskBookTest {
+
+    private final AtomicInteger kernelCalls = new AtomicInteger();
+
+    // Deterministic stand-in kernel that counts how many portfolios were recomputed
+    private final RiskKernel countingKernel = new RiskKernel() {
+        @Override
+        public String name() {
+            return "counting-echo";
+        }
+
+        @Override
+        public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+            kernelCalls.incrementAndGet();
+            return notional * volatility;
+        }
+    };
+
+    private final FinancialCalculationService calculationService =
+            new FinancialCalculationService(4, 1000, countingKernel);
+    private final IncrementalRiskBook riskBook = new IncrementalRiskBook(calculationService);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("A delta recomputes only the changed portfolios and keeps the totals exact")
+    void testDeltaRecomputesChangedOnly() {
+        List<Portfolio> portfolios = SyntheticPortfolios.generate(10_000);
+        riskBook.upsert(portfolios);
+        assertThat(kernelCalls.get()).isEqualTo(10_000);
+
+        List<Portfolio> upserts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Portfolio old = portfolios.get(i);
+            Portfolio moved = new Portfolio(old.getId(), old.getNotional() * 1.1, old.getExpectedReturn(), 0.25);
+            portfolios.set(i, moved);
+            upserts.add(moved);
+        }
+        upserts.add(portfolios.get(100)); // unchanged inputs
+        upserts.add(new Portfolio("PORTFOLIO_NEW", 2_000_000, 0.1, 0.2));
+        kernelCalls.set(0);
+
+        RiskDeltaResult result = riskBook.apply(upserts, List.of("PORTFOLIO_500", "PORTFOLIO_501", "UNKNOWN"));
+
+        assertThat(kernelCalls.get()).isEqualTo(11);
+        assertThat(result.recomputed()).isEqualTo(11);
+        assertThat(result.unchanged()).isEqualTo(1);
+        assertThat(result.deleted()).isEqualTo(2);
+        assertThat(result.bookSize()).isEqualTo(10_000 - 2 + 1);
+        assertThat(riskBook.getRiskMetric("PORTFOLIO_0")).hasValue(portfolios.get(0).getNotional() * 0.25);
+        assertThat(riskBook.getRiskMetric("PORTFOLIO_500")).isEmpty();
+
+        double expectedNotional = 2_000_000;
+        double expectedRisk = 2_000_000 * 0.2;
+        for (Portfolio portfolio : portfolios) {
+            if (!portfolio.getId().equals("PORTFOLIO_500") && !portfolio.getId().equals("PORTFOLIO_501")) {
+                expectedNotional += portfolio.getNotional();
+                expectedRisk += portfolio.getNotional() * portfolio.getVolatility();
+            }
+        }
+        assertThat(result.totalNotional()).isCloseTo(expectedNotional, within(1e-6 * expectedNotional));
+        assertThat(riskBook.getTotalRiskMetric()).isCloseTo(expectedRisk, within(1e-6 * expectedRisk));
+        assertThat(riskBook.snapshot()).hasSize(riskBook.size());
+    }
+
+    @Test
+    @DisplayName("A portfolio cannot be upserted and deleted in the same delta")
+    void testConflictingDelta() {
+        riskBook.upsert(SyntheticPortfolios.generate(10));
+
+        assertThatThrownBy(() -> riskBook.apply(List.of(new Portfolio("PORTFOLIO_1", 1_000_000, 0.1, 0.2)),
+                List.of("PORTFOLIO_1")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(riskBook.size()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Small deltas next to a huge portfolio are not rounded away, and an empty book totals zero")
+    void testTotalsDoNotDrift() {
+        riskBook.upsert(List.of(new Portfolio("HUGE", 1e17, 0.1, 0.2)));
+        for (int i = 0; i < 1000; i++) {
+            riskBook.upsert(List.of(new Portfolio("SMALL_" + i, 3.3, 0.1, 0.5)));
+        }
+        riskBook.delete(List.of("HUGE"));
+
+        BookTotals totals = riskBook.getTotals();
+        assertThat(totals.portfolios()).isEqualTo(1000);
+        assertThat(totals.totalNotional()).isCloseTo(3300, within(1e-6));
+        assertThat(totals.totalRiskMetric()).isCloseTo(1650, within(1e-6));
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add("SMALL_" + i);
+        }
+        RiskDeltaResult emptied = riskBook.delete(ids);
+        assertThat(emptied.totalNotional()).isZero();
+        assertThat(riskBook.getTotals()).isEqualTo(new BookTotals(0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Reconciling sums the book again without changing the totals or recomputing anything")
+    void testReconcile() {
+        riskBook.upsert(SyntheticPortfolios.generate(50));
+        riskBook.delete(List.of("PORTFOLIO_7", "PORTFOLIO_8"));
+        BookTotals before = riskBook.getTotals();
+        int callsBefore = kernelCalls.get();
+
+        BookTotals reconciled = riskBook.reconcile();
+
+        assertThat(reconciled).isSameAs(riskBook.getTotals());
+        assertThat(reconciled.portfolios()).isEqualTo(48);
+        assertThat(reconciled.totalNotional()).isCloseTo(before.totalNotional(), within(1e-6));
+        assertThat(reconciled.totalRiskMetric()).isCloseTo(before.totalRiskMetric(), within(1e-6));
+        assertThat(kernelCalls.get()).isEqualTo(callsBefore);
+    }
+}
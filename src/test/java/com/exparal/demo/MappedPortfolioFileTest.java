@@ -0,0 +1,106 @@
+package com.exparal.demo;
+
+import com.exparal.demo.io.MappedPortfolioFile;
+import com.exparal.demo.io.PortfolioFileWriter;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.RiskKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MappedPortfolioFileTest {
+
+    // Deterministic stand-in kernel so partitioned and whole-file results can be compared exactly
+    private static final RiskKernel ECHO_KERNEL = new RiskKernel() {
+        @Override
+        public String name() {
+            return "echo";
+        }
+
+        @Override
+        public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+            return notional * expectedReturn + volatility;
+        }
+    };
+
+    private final FinancialCalculationService calculationService =
+            new FinancialCalculationService(2, 1000, ECHO_KERNEL);
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Mapped file reads back every id and column written from a book")
+    void testRoundTrip() throws IOException {
+        PortfolioBook book = SyntheticPortfolios.book(1000);
+        book.add("PORTFÖLIO_ü", 1_000_000, 0.1, 0.2); // multi-byte UTF-8 id
+        Path path = tempDir.resolve("book.pfb");
+
+        PortfolioFileWriter.write(path, book);
+        MappedPortfolioFile file = MappedPortfolioFile.open(path);
+
+        assertThat(file.size()).isEqualTo(book.size());
+        for (int row = 0; row < book.size(); row++) {
+            assertThat(file.getId(row)).isEqualTo(book.getId(row));
+            assertThat(file.getNotional(row)).isEqualTo(book.getNotional(row));
+            assertThat(file.getExpectedReturn(row)).isEqualTo(book.getExpectedReturn(row));
+            assertThat(file.getVolatility(row)).isEqualTo(book.getVolatility(row));
+        }
+        assertThatThrownBy(() -> file.getNotional(book.size())).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    @DisplayName("Partitions cover the file once and compute the same metrics as the whole file")
+    void testPartitions() throws IOException {
+        PortfolioBook book = SyntheticPortfolios.book(1003);
+        Path path = tempDir.resolve("book.pfb");
+        PortfolioFileWriter.write(path, book);
+        MappedPortfolioFile file = MappedPortfolioFile.open(path);
+
+        double[] expected = new double[file.size()];
+        calculationService.calculateRiskMetricsForkJoin(file, expected);
+
+        List<MappedPortfolioFile> partitions = file.partition(4);
+        assertThat(partitions).hasSize(4);
+        assertThat(partitions.stream().mapToInt(MappedPortfolioFile::size).sum()).isEqualTo(file.size());
+
+        double[] results = new double[file.size()];
+        CompletableFuture.allOf(partitions.stream()
+                .map(partition -> calculationService.calculateRiskMetricsAsync(partition).thenAccept(metrics ->
+                        System.arraycopy(metrics, 0, results, partition.getFirstRow(), metrics.length)))
+                .toArray(CompletableFuture[]::new)).join();
+
+        assertThat(results).containsExactly(expected);
+        MappedPortfolioFile last = partitions.get(3);
+        assertThat(last.getId(last.size() - 1)).isEqualTo("PORTFOLIO_1002");
+        assertThat(file.partition(5000)).hasSize(file.size());
+    }
+
+    @Test
+    @DisplayName("Files that are not portfolio files are rejected")
+    void testRejectsForeignFile() throws IOException {
+        Path path = tempDir.resolve("book.csv");
+        Files.writeString(path, "id,notional,expectedReturn,volatility\n".repeat(4));
+
+        assertThatThrownBy(() -> MappedPortfolioFile.open(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("bad magic");
+    }
+}
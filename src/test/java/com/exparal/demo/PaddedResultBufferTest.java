@@ -0,0 +1,165 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.BatchResult;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.BatchHandle;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.PaddedResultBuffer;
+import com.exparal.demo.service.RiskKernel;
+import com.exparal.demo.service.RiskWorkerThreadFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PaddedResultBufferTest {
+
+    // Deterministic stand-in kernel so every row's expected metric is known
+    private static final RiskKernel ECHO_KERNEL = new RiskKernel() {
+        @Override
+        public String name() {
+            return "echo";
+        }
+
+        @Override
+        public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+            return notional + iterations;
+        }
+    };
+
+    private final FinancialCalculationService calculationService =
+            new FinancialCalculationService(4, 1000, ECHO_KERNEL);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Rows round-trip through the padded layout and pack back in order")
+    void testRoundTrip() {
+        for (int size : new int[]{0, 1, 7, 8, 9, 100}) {
+            PaddedResultBuffer buffer = new PaddedResultBuffer(size);
+            for (int row = 0; row < size; row++) {
+                buffer.set(row, row * 1.5);
+            }
+
+            double[] packed = buffer.toArray();
+
+            assertThat(packed).hasSize(size);
+            for (int row = 0; row < size; row++) {
+                assertThat(packed[row]).isEqualTo(row * 1.5);
+                assertThat(buffer.get(row)).isEqualTo(row * 1.5);
+            }
+        }
+        PaddedResultBuffer buffer = new PaddedResultBuffer(10);
+        assertThatThrownBy(() -> buffer.set(10, 1.0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> buffer.copyTo(new double[9])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Split points land on block boundaries whenever one lies inside the range")
+    void testAlignedSplits() {
+        int block = PaddedResultBuffer.BLOCK_ROWS;
+        for (int from = 0; from < 40; from++) {
+            for (int to = from + 2; to < 80; to++) {
+                int mid = (from + to) >>> 1;
+                int split = PaddedResultBuffer.alignSplit(from, to, mid);
+
+                assertThat(split).isStrictlyBetween(from, to);
+                boolean boundaryInside = (from / block + 1) * block < to;
+                if (boundaryInside) {
+                    assertThat(split % block).isZero();
+                } else {
+                    assertThat(split).isEqualTo(mid);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The fork/join engine returns the same metrics in place and through the padded buffer at every leaf size")
+    void testForkJoinEngineResults() {
+        PortfolioBook book = SyntheticPortfolios.book(1001);
+        for (int leafSize : new int[]{1, 3, 8, 64, 2000}) {
+            double[] results = new double[book.size() + 1];
+            results[book.size()] = Double.NaN;
+            calculationService.calculateRiskMetricsForkJoin(book, results, leafSize);
+            for (int row = 0; row < book.size(); row++) {
+                assertThat(results[row]).isEqualTo(book.getNotional(row) + 1000);
+            }
+            // Written in place: nothing beyond the book is touched
+            assertThat(results[book.size()]).isNaN();
+        }
+
+        BatchResult submitted = calculationService.submitRiskMetrics(book).await();
+        assertThat(submitted.status()).isEqualTo(BatchResult.Status.COMPLETED);
+        assertThat(submitted.completedCount()).isEqualTo(book.size());
+        assertThat(submitted.results()[1000]).isEqualTo(book.getNotional(1000) + 1000);
+    }
+
+    @Test
+    @DisplayName("Cancelled batches report exactly the rows whose metrics were written")
+    void testPartialResultsMatchCompletionMap() {
+        PortfolioBook book = SyntheticPortfolios.book(500);
+        FinancialCalculationService slowService = new FinancialCalculationService(2, 1000, new RiskKernel() {
+            @Override
+            public String name() {
+                return "slow-echo";
+            }
+
+            @Override
+            public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                return notional + iterations;
+            }
+        });
+        try {
+            BatchHandle handle = slowService.submitRiskMetrics(book);
+            BatchResult partial = handle.await(Duration.ofMillis(50));
+
+            assertThat(partial.status()).isEqualTo(BatchResult.Status.CANCELLED);
+            for (int row = 0; row < book.size(); row++) {
+                assertThat(Double.isNaN(partial.results()[row])).isEqualTo(!partial.isCompleted(row));
+            }
+            assertThat((long) partial.completedCount()).isEqualTo(handle.getCompletedCount());
+        } finally {
+            slowService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Worker threads get distinct prefixed names, pinned or not")
+    void testWorkerThreadFactory() throws InterruptedException {
+        for (boolean pin : new boolean[]{false, true}) {
+            RiskWorkerThreadFactory factory = new RiskWorkerThreadFactory("Test-", pin);
+            ForkJoinPool pool = factory.newPool(3, false);
+            try {
+                Set<String> names = ConcurrentHashMap.newKeySet();
+                pool.submit(() -> IntStream.range(0, 64).parallel().forEach(i -> {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+                    names.add(Thread.currentThread().getName());
+                })).join();
+
+                assertThat(names).isNotEmpty().allMatch(name -> name.matches("Test-\\d+"));
+                if (!pin) {
+                    assertThat(factory.isPinning()).isFalse();
+                }
+            } finally {
+                pool.shutdown();
+                pool.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
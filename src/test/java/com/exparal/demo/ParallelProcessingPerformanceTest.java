@@ -1,6 +1,10 @@
 package com.exparal.demo;
 
+import com.exparal.demo.loadtest.LoadGenerator;
+import com.exparal.demo.loadtest.LoadTestPlan;
+import com.exparal.demo.loadtest.ScalabilityReport;
 import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.SyntheticPortfolios;
 import com.exparal.demo.service.FinancialCalculationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,19 +15,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import com.sun.management.OperatingSystemMXBean; // Platform-specific
 
+import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.LongSummaryStatistics;
-import java.util.Random;
 import java.util.concurrent.ForkJoinPool;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 // Performance test class
-@SpringBootTest
+@SpringBootTest(properties = "risk.warmup.enabled=false")
 public class ParallelProcessingPerformanceTest {
 
 	@Autowired
@@ -34,7 +39,7 @@ public class ParallelProcessingPerformanceTest {
 	@BeforeEach
 	void setUp() {
 		// Create test data
-		testPortfolios = generateTestPortfolios(10000); // Adjust size based on your needs
+		testPortfolios = SyntheticPortfolios.generate(10000); // Adjust size based on your needs
 	}
 
 	@Test
@@ -112,8 +117,8 @@ public class ParallelProcessingPerformanceTest {
 		System.out.printf("Parallel vs Sequential: %.2fx faster%n", avgSequential / avgParallel);
 		System.out.printf("Custom Pool vs Sequential: %.2fx faster%n", avgSequential / avgCustom);
 
-		// Assert that parallel processing is faster (allowing for some variance)
-		assertThat(avgParallel).isLessThan(avgSequential * 0.8); // At least 20% improvement
+		// Speedup is not asserted here: wall-clock timings from a few runs are too noisy.
+		// Use FinancialCalculationBenchmark (./mvnw -Pjmh test-compile exec:exec) for real numbers.
 	}
 
 	@Test
@@ -179,47 +184,24 @@ public class ParallelProcessingPerformanceTest {
 
 	@Test
 	@DisplayName("Scalability Test")
-	void testScalability() {
-		int[] dataSizes = {100, 500, 1000, 2000, 5000, 10000};
+	void testScalability() throws IOException {
+		// Batch size x parallelism sweep through the load-test harness; the full report
+		// (CSV, fits and HTML charts) lands in target/loadtest
+		LoadTestPlan plan = LoadTestPlan.defaults().with(
+				"sizes=100,1000",
+				"strategies=SEQUENTIAL,COMMON_POOL,CUSTOM_POOL",
+				"iterations=" + calculationService.getIterations(),
+				"warmup=0.5",
+				"duration=1");
+
+		ScalabilityReport report = new ScalabilityReport(new LoadGenerator(plan).run());
+		Path page = report.write(Path.of("target", "loadtest"));
 
 		System.out.println("\nScalability Test Results:");
-		System.out.println("Data Size | Sequential (ms) | Parallel (ms) | Speedup");
-		System.out.println("----------|-----------------|---------------|--------");
-
-		for (int size : dataSizes) {
-			List<Portfolio> subset = testPortfolios.subList(0, Math.min(size, testPortfolios.size()));
-
-			// Sequential
-			long seqStart = System.nanoTime();
-			calculationService.calculateRiskMetricsSequential(subset);
-			long seqTime = (System.nanoTime() - seqStart) / 1_000_000;
-
-			// Parallel
-			long parStart = System.nanoTime();
-			calculationService.calculateRiskMetricsParallel(subset);
-			long parTime = (System.nanoTime() - parStart) / 1_000_000;
-
-			double speedup = (double) seqTime / parTime;
-
-			System.out.printf("%8d | %14d | %12d | %6.2fx%n",
-					size, seqTime, parTime, speedup);
-		}
-	}
-
-	private List<Portfolio> generateTestPortfolios(int count) {
-		List<Portfolio> portfolios = new ArrayList<>();
-		Random random = new Random(42); // Fixed seed for reproducible tests
-
-		for (int i = 0; i < count; i++) {
-			portfolios.add(new Portfolio(
-					"PORTFOLIO_" + i,
-					1_000_000 + random.nextDouble() * 9_000_000, // 1M to 10M notional
-					0.05 + random.nextDouble() * 0.15, // 5% to 20% expected return
-					0.1 + random.nextDouble() * 0.3    // 10% to 40% volatility
-			));
-		}
-
-		return portfolios;
+		System.out.print(report.summary());
+		System.out.println("Report: " + page.toAbsolutePath());
+		assertThat(report.getResults()).allMatch(result -> result.batches() > 0);
+		assertThat(page).exists();
 	}
 
 	private void displayPerformanceStats(String method, List<Long> times) {
@@ -0,0 +1,95 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class PortfolioBookTest {
+
+    private final FinancialCalculationService calculationService = new FinancialCalculationService(2, 2000);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Book keeps columns and id lookup in sync while growing")
+    void testColumnsAndIndex() {
+        List<Portfolio> portfolios = SyntheticPortfolios.generate(100);
+        PortfolioBook book = new PortfolioBook(1);
+        portfolios.forEach(book::add);
+
+        assertThat(book.size()).isEqualTo(100);
+        assertThat(book.indexOf("PORTFOLIO_42")).isEqualTo(42);
+        assertThat(book.indexOf("missing")).isEqualTo(-1);
+        assertThat(book.getNotional(42)).isEqualTo(portfolios.get(42).getNotional());
+        assertThat(book.getExpectedReturn(42)).isEqualTo(portfolios.get(42).getExpectedReturn());
+        assertThat(book.getVolatility(42)).isEqualTo(portfolios.get(42).getVolatility());
+        assertThat(book.toPortfolio(99).getId()).isEqualTo("PORTFOLIO_99");
+
+        // Rows are positional: a repeated id is a new row, and indexOf keeps answering the first
+        assertThat(book.add(portfolios.get(0))).isEqualTo(100);
+        assertThat(book.indexOf("PORTFOLIO_0")).isZero();
+        assertThat(book.size()).isEqualTo(101);
+        assertThatThrownBy(() -> book.getNotional(101)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    @DisplayName("Book overloads agree with the List<Portfolio> strategies")
+    void testBookMatchesListResults() {
+        List<Portfolio> portfolios = SyntheticPortfolios.generate(200);
+        PortfolioBook book = PortfolioBook.of(portfolios);
+
+        List<BigDecimal> expected = calculationService.calculateRiskMetricsSequential(portfolios);
+        double[] sequential = calculationService.calculateRiskMetricsSequential(book);
+        double[] parallel = calculationService.calculateRiskMetricsParallel(book);
+        double[] customPool = calculationService.calculateRiskMetricsCustomPool(book);
+
+        for (int i = 0; i < portfolios.size(); i++) {
+            double reference = expected.get(i).doubleValue();
+            // Monte Carlo noise only, well below 0.01% of the metric
+            assertThat(sequential[i]).isCloseTo(reference, within(reference * 1e-4));
+            assertThat(parallel[i]).isCloseTo(reference, within(reference * 1e-4));
+            assertThat(customPool[i]).isCloseTo(reference, within(reference * 1e-4));
+        }
+    }
+
+    @Test
+    @DisplayName("Results are written into caller-supplied heap and off-heap buffers by row")
+    void testCallerSuppliedBuffers() {
+        List<Portfolio> portfolios = SyntheticPortfolios.generate(50);
+        PortfolioBook book = PortfolioBook.of(portfolios);
+
+        double[] expected = calculationService.calculateRiskMetricsSequential(book);
+        double[] heap = new double[book.size()];
+        DoubleBuffer offHeap = ByteBuffer.allocateDirect(book.size() * Double.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asDoubleBuffer();
+
+        calculationService.calculateRiskMetricsCustomPool(book, heap);
+        calculationService.calculateRiskMetricsParallel(book, offHeap);
+
+        for (int row = 0; row < book.size(); row++) {
+            assertThat(heap[row]).isCloseTo(expected[row], within(expected[row] * 1e-4));
+            assertThat(offHeap.get(row)).isCloseTo(expected[row], within(expected[row] * 1e-4));
+        }
+        assertThat(FinancialCalculationService.roundRiskMetric(heap[0]).scale()).isEqualTo(4);
+        assertThatThrownBy(() -> calculationService.calculateRiskMetricsSequential(book, new double[10]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
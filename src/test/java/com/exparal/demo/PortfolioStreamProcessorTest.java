@@ -0,0 +1,140 @@
+package com.exparal.demo;
+
+import com.exparal.demo.controller.RiskStreamController;
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.PortfolioStreamProcessor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PortfolioStreamProcessorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FinancialCalculationService calculationService = new FinancialCalculationService(2, 1000);
+    private final PortfolioStreamProcessor streamProcessor = new PortfolioStreamProcessor(calculationService, objectMapper);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Ordered streaming emits one result per portfolio in input order")
+    void testOrderedStreaming() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long processed = streamProcessor.process(new ByteArrayInputStream(generateNdjson(1000)), output,
+                new PortfolioStreamProcessor.Options(64, 3, true));
+
+        List<String> ids = resultIds(output);
+        assertThat(processed).isEqualTo(1000);
+        assertThat(ids).hasSize(1000);
+        for (int i = 0; i < ids.size(); i++) {
+            assertThat(ids.get(i)).isEqualTo("PORTFOLIO_" + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Unordered streaming emits every portfolio exactly once")
+    void testUnorderedStreaming() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        streamProcessor.process(new ByteArrayInputStream(generateNdjson(777)), output,
+                new PortfolioStreamProcessor.Options(50, 1, false));
+
+        List<String> ids = resultIds(output);
+        assertThat(ids).hasSize(777).doesNotHaveDuplicates();
+        assertThat(ids).contains("PORTFOLIO_0", "PORTFOLIO_776");
+    }
+
+    @Test
+    @DisplayName("A chunk that repeats an id is processed row by row like any other")
+    void testRepeatedIds() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] once = generateNdjson(10);
+        byte[] twice = new byte[2 * once.length];
+        System.arraycopy(once, 0, twice, 0, once.length);
+        System.arraycopy(once, 0, twice, once.length, once.length);
+
+        long processed = streamProcessor.process(new ByteArrayInputStream(twice), output,
+                new PortfolioStreamProcessor.Options(64, 1, true));
+
+        List<String> ids = resultIds(output);
+        assertThat(processed).isEqualTo(20);
+        assertThat(ids.subList(10, 20)).isEqualTo(ids.subList(0, 10));
+    }
+
+    @Test
+    @DisplayName("NDJSON endpoint streams results back")
+    void testStreamEndpoint() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new RiskStreamController(streamProcessor, 10_000)).build();
+
+        MvcResult pending = mockMvc.perform(post("/api/risk/stream")
+                        .param("chunkSize", "16")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(generateNdjson(100)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(100);
+        assertThat(objectMapper.readTree(lines[99]).get("portfolioId").asText()).isEqualTo("PORTFOLIO_99");
+    }
+
+    @Test
+    @DisplayName("NDJSON endpoint rejects chunk sizes outside [1, max-chunk-size] with 400")
+    void testStreamEndpointRejectsBadChunkSize() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new RiskStreamController(streamProcessor, 1000)).build();
+
+        for (String chunkSize : new String[]{"0", "-5", "1001"}) {
+            mockMvc.perform(post("/api/risk/stream")
+                            .param("chunkSize", chunkSize)
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(generateNdjson(10)))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private List<String> resultIds(ByteArrayOutputStream output) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode result = objectMapper.readTree(line);
+            assertThat(result.get("riskMetric").isNumber()).isTrue();
+            ids.add(result.get("portfolioId").asText());
+        }
+        return ids;
+    }
+
+    private byte[] generateNdjson(int count) {
+        StringBuilder ndjson = new StringBuilder();
+        for (Portfolio portfolio : SyntheticPortfolios.generate(count)) {
+            ndjson.append(String.format("{\"id\":\"%s\",\"notional\":%f,\"expectedReturn\":%f,\"volatility\":%f}%n",
+                    portfolio.getId(), portfolio.getNotional(), portfolio.getExpectedReturn(), portfolio.getVolatility()));
+        }
+
+        return ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,177 @@
+package com.exparal.demo;
+
+import com.exparal.demo.config.RiskPoolProperties;
+import com.exparal.demo.controller.RiskCalculationController;
+import com.exparal.demo.distributed.RiskCoordinator;
+import com.exparal.demo.distributed.RiskWorker;
+import com.exparal.demo.service.FinancialCalculationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "risk.warmup.enabled=false")
+@AutoConfigureMockMvc
+public class RiskCalculationControllerTest {
+
+    private static final String BATCH = """
+            [
+              {"id": "PORTFOLIO_0", "notional": 1000000, "expectedReturn": 0.10, "volatility": 0.20},
+              {"id": "PORTFOLIO_1", "notional": 5000000, "expectedReturn": 0.15, "volatility": 0.30},
+              {"id": "PORTFOLIO_2", "notional": 9000000, "expectedReturn": 0.05, "volatility": 0.10}
+            ]
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Batch is computed asynchronously and returned in request order")
+    void testBatchSubmission() throws Exception {
+        MvcResult pending = mockMvc.perform(post("/api/risk/batches")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BATCH))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(3))
+                .andExpect(jsonPath("$.results[0].portfolioId").value("PORTFOLIO_0"))
+                .andExpect(jsonPath("$.results[2].portfolioId").value("PORTFOLIO_2"))
+                .andExpect(jsonPath("$.results[1].riskMetric").isNumber());
+    }
+
+    @Test
+    @DisplayName("Saturated executor rejects with 429 and reports queue depth")
+    void testBackpressure() throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        FinancialCalculationService calculationService = new FinancialCalculationService(1, 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // One task running, one queued: the executor is full
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+
+            MockMvc standalone = MockMvcBuilders.standaloneSetup(
+                    new RiskCalculationController(calculationService, executor, Optional.empty(), 2)).build();
+
+            standalone.perform(post("/api/risk/batches")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(BATCH))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "2"))
+                    .andExpect(header().string(RiskCalculationController.QUEUE_DEPTH_HEADER, "1"))
+                    .andExpect(header().string(RiskCalculationController.QUEUE_CAPACITY_HEADER, "1"))
+                    .andExpect(jsonPath("$.queueDepth").value(1));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            calculationService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A batch dropped by DISCARD_OLDEST is answered with 503 instead of hanging")
+    void testDiscardedBatchCompletes() throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(RiskPoolProperties.RejectionPolicy.DISCARD_OLDEST.newHandler());
+        executor.initialize();
+        FinancialCalculationService calculationService = new FinancialCalculationService(1, 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            MockMvc standalone = MockMvcBuilders.standaloneSetup(
+                    new RiskCalculationController(calculationService, executor, Optional.empty(), 2)).build();
+
+            // The first batch queues, the second pushes it out
+            MvcResult dropped = standalone.perform(post("/api/risk/batches")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(BATCH))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            MvcResult kept = standalone.perform(post("/api/risk/batches")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(BATCH))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            standalone.perform(asyncDispatch(dropped))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "2"));
+            release.countDown();
+            standalone.perform(asyncDispatch(kept))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.results.length()").value(3));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            calculationService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A batch that repeats an id succeeds on the distributed path as it does locally")
+    void testDistributedRepeatedIds() throws Exception {
+        FinancialCalculationService workerService = new FinancialCalculationService(1, 1000);
+        FinancialCalculationService calculationService = new FinancialCalculationService(1, 1000);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.initialize();
+        try (RiskWorker worker = new RiskWorker(workerService, InetAddress.getLoopbackAddress(), 0)) {
+            RiskCoordinator coordinator = new RiskCoordinator(List.of(worker.getAddress()), 1000,
+                    RiskCoordinator.Options.defaults());
+            MockMvc standalone = MockMvcBuilders.standaloneSetup(
+                    new RiskCalculationController(calculationService, executor, Optional.of(coordinator), 2)).build();
+
+            MvcResult pending = standalone.perform(post("/api/risk/batches")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(BATCH.replace("PORTFOLIO_1", "PORTFOLIO_0")))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            standalone.perform(asyncDispatch(pending))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.results.length()").value(3))
+                    .andExpect(jsonPath("$.results[1].portfolioId").value("PORTFOLIO_0"));
+        } finally {
+            executor.shutdown();
+            calculationService.shutdown();
+            workerService.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.exparal.demo;
+
+import com.exparal.demo.config.RiskCacheProperties;
+import com.exparal.demo.config.RiskDistributedProperties;
+import com.exparal.demo.config.RiskIoProperties;
+import com.exparal.demo.config.RiskWarmupProperties;
+import com.exparal.demo.distributed.RiskCoordinator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RiskConfigurationPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfiguration.class);
+
+    @Test
+    @DisplayName("Unset properties fall back to the documented defaults")
+    void testDefaults() {
+        contextRunner.run(context -> {
+            assertThat(context.getBean(RiskCacheProperties.class))
+                    .isEqualTo(new RiskCacheProperties(64, Duration.ofMinutes(15)));
+            assertThat(context.getBean(RiskIoProperties.class))
+                    .isEqualTo(new RiskIoProperties(Duration.ZERO, Duration.ZERO));
+            assertThat(context.getBean(RiskDistributedProperties.class).toOptions())
+                    .isEqualTo(RiskCoordinator.Options.defaults());
+            assertThat(context.getBean(RiskWarmupProperties.class))
+                    .isEqualTo(new RiskWarmupProperties(32, 20, 2, 0.1, Duration.ofSeconds(30)));
+        });
+    }
+
+    @Test
+    @DisplayName("Set properties bind, including the worker list")
+    void testBinding() {
+        contextRunner.withPropertyValues("risk.distributed.workers=localhost:9101,localhost:9102",
+                        "risk.distributed.chunk-size=64", "risk.cache.max-memory-mb=8", "risk.io.fetch-latency=20ms")
+                .run(context -> {
+                    RiskDistributedProperties distributed = context.getBean(RiskDistributedProperties.class);
+                    assertThat(distributed.workers()).isEqualTo(List.of("localhost:9101", "localhost:9102"));
+                    assertThat(distributed.chunkSize()).isEqualTo(64);
+                    assertThat(context.getBean(RiskCacheProperties.class).maxMemoryBytes()).isEqualTo(8L << 20);
+                    assertThat(context.getBean(RiskIoProperties.class).fetchLatency()).isEqualTo(Duration.ofMillis(20));
+                });
+    }
+
+    @Test
+    @DisplayName("Invalid values stop the context at startup")
+    void testValidation() {
+        for (String invalid : List.of("risk.cache.max-memory-mb=0", "risk.io.publish-latency=-1ms",
+                "risk.distributed.chunk-size=0", "risk.distributed.speculation-factor=0.5",
+                "risk.warmup.tolerance=0", "risk.warmup.stable-rounds=0")) {
+            contextRunner.withPropertyValues(invalid)
+                    .run(context -> assertThat(context).as(invalid).hasFailed());
+        }
+    }
+
+    @Configuration
+    @EnableConfigurationProperties({RiskCacheProperties.class, RiskIoProperties.class,
+            RiskDistributedProperties.class, RiskWarmupProperties.class})
+    static class PropertiesConfiguration {
+    }
+}
@@ -0,0 +1,67 @@
+package com.exparal.demo;
+
+import com.exparal.demo.service.RiskKernel;
+import com.exparal.demo.service.RiskKernels;
+import com.exparal.demo.service.ScalarRiskKernel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class RiskKernelTest {
+
+    // notional == expectedReturn, so the shortfall is volatility * max(0, -z)
+    // with mean volatility / sqrt(2 * pi); the metric is that mean to the power 0.75
+    private static final double VOLATILITY = 0.3;
+    private static final double EXPECTED_METRIC = Math.pow(VOLATILITY / Math.sqrt(2 * Math.PI), 0.75);
+
+    @Test
+    @DisplayName("Scalar kernel converges to the analytic shortfall")
+    void testScalarKernel() {
+        assertConverges(new ScalarRiskKernel());
+    }
+
+    @Test
+    @DisplayName("Vector kernel converges to the analytic shortfall (requires -Pvector)")
+    void testVectorKernel() {
+        assumeTrue(RiskKernels.isVectorAvailable(), "Vector kernel not compiled in or module not resolved");
+        RiskKernel kernel = RiskKernels.select("vector");
+
+        assertThat(kernel.name()).isEqualTo("vector");
+        assertConverges(kernel);
+        // Odd iteration count exercises the scalar tail
+        assertThat(kernel.simulate(0.1, 0.1, VOLATILITY, 200_003)).isCloseTo(EXPECTED_METRIC, within(EXPECTED_METRIC * 0.02));
+    }
+
+    @Test
+    @DisplayName("Seeded generators make the scalar kernel reproducible")
+    void testSeededScalarKernel() {
+        RiskKernel kernel = new ScalarRiskKernel();
+
+        double first = kernel.simulate(0.1, 0.1, VOLATILITY, 200_000, new SplittableRandom(42));
+        double second = kernel.simulate(0.1, 0.1, VOLATILITY, 200_000, new SplittableRandom(42));
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first).isCloseTo(EXPECTED_METRIC, within(EXPECTED_METRIC * 0.02));
+    }
+
+    @Test
+    @DisplayName("Kernel selection falls back to scalar and rejects unknown names")
+    void testSelection() {
+        assertThat(RiskKernels.select("scalar").name()).isEqualTo(ScalarRiskKernel.NAME);
+        if (!RiskKernels.isVectorAvailable()) {
+            assertThat(RiskKernels.select("vector").name()).isEqualTo(ScalarRiskKernel.NAME);
+        }
+        assertThatThrownBy(() -> RiskKernels.select("gpu")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertConverges(RiskKernel kernel) {
+        double metric = kernel.simulate(0.1, 0.1, VOLATILITY, 200_000);
+        assertThat(metric).isCloseTo(EXPECTED_METRIC, within(EXPECTED_METRIC * 0.02));
+    }
+}
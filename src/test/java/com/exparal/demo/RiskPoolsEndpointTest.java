@@ -0,0 +1,137 @@
+package com.exparal.demo;
+
+import com.exparal.demo.config.RiskPoolProperties;
+import com.exparal.demo.config.RiskPoolsEndpoint;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RiskPoolsEndpointTest {
+
+    private final RiskPoolProperties poolProperties = bind(Map.of(
+            "risk.pools.custom-pool.parallelism", "2",
+            "risk.pools.custom-pool.async-mode", "true",
+            "risk.pools.task-executor.core-pool-size", "2",
+            "risk.pools.task-executor.max-pool-size", "3",
+            "risk.pools.task-executor.queue-capacity", "50",
+            "risk.pools.task-executor.rejection-policy", "discard-oldest"));
+
+    private final FinancialCalculationService calculationService =
+            new FinancialCalculationService(Optional.empty(), poolProperties);
+    private final ThreadPoolTaskExecutor taskExecutor = newTaskExecutor(poolProperties.getTaskExecutor());
+    private final RiskPoolsEndpoint endpoint = new RiskPoolsEndpoint(calculationService, taskExecutor);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+        taskExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("risk.pools.* binds onto both pools, and 0 sizes follow the processor count")
+    void testPropertyBinding() {
+        assertThat(poolProperties.getTaskExecutor().getRejectionPolicy())
+                .isEqualTo(RiskPoolProperties.RejectionPolicy.DISCARD_OLDEST);
+        assertThat(poolProperties.getCustomPool().getThreadNamePrefix()).isEqualTo("RiskPool-");
+
+        Map<String, Map<String, Object>> pools = endpoint.pools();
+        assertThat(pools.get(RiskPoolsEndpoint.CUSTOM_POOL))
+                .containsEntry("parallelism", 2)
+                .containsEntry("asyncMode", true);
+        assertThat(pools.get(RiskPoolsEndpoint.TASK_EXECUTOR))
+                .containsEntry("corePoolSize", 2)
+                .containsEntry("maxPoolSize", 3)
+                .containsEntry("queueCapacity", 50);
+
+        RiskPoolProperties defaults = new RiskPoolProperties();
+        int processors = Runtime.getRuntime().availableProcessors();
+        assertThat(defaults.getCustomPool().resolvedParallelism()).isEqualTo(processors);
+        assertThat(defaults.getTaskExecutor().resolvedCorePoolSize()).isEqualTo(processors);
+        assertThat(defaults.getTaskExecutor().resolvedMaxPoolSize()).isEqualTo(processors * 2);
+    }
+
+    @Test
+    @DisplayName("The custom pool is resized live and keeps computing")
+    void testResizeCustomPool() {
+        PortfolioBook book = SyntheticPortfolios.book(200);
+        double[] before = new double[book.size()];
+        calculationService.calculateRiskMetricsCustomPool(book, 42L, before);
+
+        Map<String, Map<String, Object>> pools = endpoint.resize(RiskPoolsEndpoint.CUSTOM_POOL, 4, null, null);
+
+        assertThat(pools.get(RiskPoolsEndpoint.CUSTOM_POOL)).containsEntry("parallelism", 4);
+        assertThat(calculationService.getParallelism()).isEqualTo(4);
+        double[] after = new double[book.size()];
+        calculationService.calculateRiskMetricsCustomPool(book, 42L, after);
+        assertThat(after).containsExactly(before);
+
+        endpoint.resize(RiskPoolsEndpoint.CUSTOM_POOL, 1, null, null);
+        assertThat(calculationService.getParallelism()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("The executor grows and shrinks without ever having core above max")
+    void testResizeTaskExecutor() {
+        endpoint.resize(RiskPoolsEndpoint.TASK_EXECUTOR, null, 6, 8);
+        assertThat(taskExecutor.getCorePoolSize()).isEqualTo(6);
+        assertThat(taskExecutor.getMaxPoolSize()).isEqualTo(8);
+
+        endpoint.resize(RiskPoolsEndpoint.TASK_EXECUTOR, null, 1, 2);
+        assertThat(taskExecutor.getCorePoolSize()).isEqualTo(1);
+        assertThat(taskExecutor.getMaxPoolSize()).isEqualTo(2);
+
+        // Only one size given: the other one stays
+        endpoint.resize(RiskPoolsEndpoint.TASK_EXECUTOR, null, null, 5);
+        assertThat(taskExecutor.getCorePoolSize()).isEqualTo(1);
+        assertThat(taskExecutor.getMaxPoolSize()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Invalid sizes and unknown pools are rejected and leave the pools unchanged")
+    void testInvalidRequests() {
+        assertThatThrownBy(() -> endpoint.resize(RiskPoolsEndpoint.CUSTOM_POOL, 0, null, null))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+        assertThatThrownBy(() -> endpoint.resize(RiskPoolsEndpoint.CUSTOM_POOL, null, null, null))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+        assertThatThrownBy(() -> endpoint.resize(RiskPoolsEndpoint.TASK_EXECUTOR, null, 4, 2))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+        assertThatThrownBy(() -> endpoint.resize("commonPool", 4, null, null))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+        assertThatThrownBy(() -> calculationService.setParallelism(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(calculationService.getParallelism()).isEqualTo(2);
+        assertThat(taskExecutor.getCorePoolSize()).isEqualTo(2);
+        assertThat(taskExecutor.getMaxPoolSize()).isEqualTo(3);
+    }
+
+    private static RiskPoolProperties bind(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bind("risk.pools", RiskPoolProperties.class)
+                .get();
+    }
+
+    private static ThreadPoolTaskExecutor newTaskExecutor(RiskPoolProperties.TaskExecutor settings) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(settings.resolvedCorePoolSize());
+        executor.setMaxPoolSize(settings.resolvedMaxPoolSize());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setThreadNamePrefix(settings.getThreadNamePrefix());
+        executor.setRejectedExecutionHandler(settings.getRejectionPolicy().newHandler());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,85 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.RiskResultCache;
+import com.exparal.demo.service.ScalarRiskKernel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RiskResultCacheTest {
+
+    @Test
+    @DisplayName("Lookups count hits and misses and return the stored metric")
+    void testHitsAndMisses() {
+        RiskResultCache cache = new RiskResultCache(100, Duration.ZERO);
+
+        assertThat(cache.get(1_000_000, 0.1, 0.2, 1000)).isNaN();
+        cache.put(1_000_000, 0.1, 0.2, 1000, 42.0);
+
+        assertThat(cache.get(1_000_000, 0.1, 0.2, 1000)).isEqualTo(42.0);
+        assertThat(cache.get(1_000_000, 0.1, 0.2, 2000)).isNaN(); // iterations are part of the key
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThatThrownBy(() -> new RiskResultCache(0, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Size bound evicts least recently used entries")
+    void testSizeEviction() {
+        RiskResultCache cache = new RiskResultCache(1000, Duration.ZERO);
+
+        for (int i = 0; i < 5000; i++) {
+            cache.put(i, 0.1, 0.2, 1000, i);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(cache.getMaxEntries());
+        assertThat(cache.getEvictionCount()).isEqualTo(5000 - cache.size());
+        assertThat(cache.get(4999, 0.1, 0.2, 1000)).isEqualTo(4999.0);
+        assertThat(cache.get(0, 0.1, 0.2, 1000)).isNaN();
+    }
+
+    @Test
+    @DisplayName("Entries older than the max age are treated as misses")
+    void testExpiry() {
+        AtomicLong clock = new AtomicLong();
+        RiskResultCache cache = new RiskResultCache(100, Duration.ofSeconds(10), clock::get);
+
+        cache.put(1_000_000, 0.1, 0.2, 1000, 42.0);
+        clock.set(Duration.ofSeconds(10).toNanos());
+        assertThat(cache.get(1_000_000, 0.1, 0.2, 1000)).isEqualTo(42.0);
+
+        clock.set(Duration.ofSeconds(11).toNanos());
+        assertThat(cache.get(1_000_000, 0.1, 0.2, 1000)).isNaN();
+        assertThat(cache.getExpirationCount()).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("A rerun on the custom pool is served entirely from the cache")
+    void testParallelRerunHitsCache() {
+        RiskResultCache cache = new RiskResultCache(10_000, Duration.ZERO);
+        FinancialCalculationService calculationService =
+                new FinancialCalculationService(4, 1000, new ScalarRiskKernel(), cache);
+        try {
+            PortfolioBook book = SyntheticPortfolios.book(2000);
+
+            double[] first = calculationService.calculateRiskMetricsCustomPool(book);
+            double[] second = calculationService.calculateRiskMetricsCustomPool(book);
+
+            assertThat(second).containsExactly(first);
+            assertThat(cache.getMissCount()).isEqualTo(book.size());
+            assertThat(cache.getHitCount()).isEqualTo(book.size());
+            assertThat(calculationService.getResultCache()).containsSame(cache);
+        } finally {
+            calculationService.shutdown();
+        }
+    }
+}
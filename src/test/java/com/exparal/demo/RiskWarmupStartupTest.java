@@ -0,0 +1,41 @@
+package com.exparal.demo;
+
+import com.exparal.demo.service.ExecutionStrategy;
+import com.exparal.demo.service.FinancialCalculationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The only Spring context that runs the startup warm-up; every other @SpringBootTest turns it off
+@SpringBootTest(properties = {
+        "risk.warmup.enabled=true",
+        "risk.warmup.portfolios=4",
+        "risk.warmup.max-rounds=2",
+        "risk.warmup.max-duration=30s"
+})
+public class RiskWarmupStartupTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private FinancialCalculationService calculationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("The warm-up runs before the context is ready and leaves no batches in the metrics or router")
+    void testWarmupRunsAtStartup() {
+        assertThat(context.getBean("riskWarmup")).isInstanceOf(ApplicationRunner.class);
+        assertThat(meterRegistry.find("risk.batch.duration").timers()).isEmpty();
+        assertThat(calculationService.getStrategyRouter().getSelectionCount(ExecutionStrategy.SEQUENTIAL)).isZero();
+        assertThat(calculationService.getStrategyRouter().getLastStrategy()).isNull();
+    }
+}
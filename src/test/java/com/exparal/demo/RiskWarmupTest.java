@@ -0,0 +1,87 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.WarmupReport;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.RiskResultCache;
+import com.exparal.demo.service.RiskWarmup;
+import com.exparal.demo.service.ScalarRiskKernel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RiskWarmupTest {
+
+    private final RiskResultCache resultCache = new RiskResultCache(10_000, Duration.ZERO);
+    private final FinancialCalculationService calculationService =
+            new FinancialCalculationService(2, 10_000, new ScalarRiskKernel(), resultCache);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Warm-up runs every path until rounds settle or the round limit, and leaves the cache empty")
+    void testWarmupSettles() {
+        WarmupReport report = new RiskWarmup(calculationService, 16, 30, 2, 0.1, Duration.ofSeconds(60)).run();
+
+        System.out.printf("Warm-up: %d rounds, settled %b, first round %.1fx the last, JIT %d ms%n",
+                report.rounds(), report.settled(), report.firstRoundSlowdown(), report.compilationMillis());
+        assertThat(report.rounds()).isBetween(1, 30);
+        assertThat(report.firstRoundNanos()).isPositive();
+        assertThat(report.lastRoundNanos()).isPositive();
+        if (report.settled()) {
+            assertThat(report.rounds()).isGreaterThanOrEqualTo(3);
+        }
+        assertThat(resultCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Warm-up batches reach neither the meters nor the strategy router")
+    void testWarmupLeavesNoMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        calculationService.getMetrics().bindTo(registry);
+
+        new RiskWarmup(calculationService, 8, 2, 1, 0.1, Duration.ofSeconds(60)).run();
+
+        assertThat(registry.find("risk.batch.duration").timers()).isEmpty();
+        assertThat(registry.find("risk.portfolios").counters()).isEmpty();
+        assertThat(calculationService.getStrategyRouter().getSelectionCounts().values()).containsOnly(0L);
+        assertThat(calculationService.getStrategyRouter().getLastStrategy()).isNull();
+
+        calculationService.calculateRiskMetricsSequential(PortfolioBook.of(List.of(
+                new Portfolio("P1", 1_000_000, 0.1, 0.2))));
+        assertThat(registry.get("risk.batch.duration").tag("strategy", "SEQUENTIAL").timer().count()).isEqualTo(1);
+        registry.close();
+    }
+
+    @Test
+    @DisplayName("The time limit stops the warm-up after the round in progress")
+    void testMaxDuration() {
+        WarmupReport report = new RiskWarmup(calculationService, 8, 30, 2, 0.1, Duration.ZERO).run();
+
+        assertThat(report.rounds()).isEqualTo(1);
+        assertThat(report.settled()).isFalse();
+        assertThat(report.firstRoundNanos()).isEqualTo(report.lastRoundNanos());
+    }
+
+    @Test
+    @DisplayName("Invalid warm-up settings are rejected")
+    void testInvalidSettings() {
+        assertThatThrownBy(() -> new RiskWarmup(calculationService, 0, 10, 2, 0.1, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RiskWarmup(calculationService, 8, 10, 0, 0.1, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RiskWarmup(calculationService, 8, 10, 2, 0, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
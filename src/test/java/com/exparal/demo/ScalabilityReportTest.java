@@ -0,0 +1,121 @@
+package com.exparal.demo;
+
+import com.exparal.demo.loadtest.LoadGenerator;
+import com.exparal.demo.loadtest.LoadStrategy;
+import com.exparal.demo.loadtest.LoadTestPlan;
+import com.exparal.demo.loadtest.LoadTestResult;
+import com.exparal.demo.loadtest.ScalabilityFit;
+import com.exparal.demo.loadtest.ScalabilityReport;
+import com.exparal.demo.service.RiskKernel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class ScalabilityReportTest {
+
+    // Deterministic stand-in kernel so cells finish quickly
+    private static final RiskKernel ECHO_KERNEL = new RiskKernel() {
+        @Override
+        public String name() {
+            return "echo";
+        }
+
+        @Override
+        public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+            return notional + iterations;
+        }
+    };
+
+    @Test
+    @DisplayName("USL and Amdahl fits recover the coefficients of exact curves")
+    void testFitsRecoverCoefficients() {
+        int[] parallelisms = {1, 2, 4, 8, 16, 32, 64};
+        double[] usl = new double[parallelisms.length];
+        double[] amdahl = new double[parallelisms.length];
+        for (int i = 0; i < parallelisms.length; i++) {
+            int p = parallelisms[i];
+            usl[i] = 10.0 * p / (1 + 0.05 * (p - 1) + 0.001 * p * (p - 1));
+            amdahl[i] = 10.0 * p / (1 + 0.1 * (p - 1));
+        }
+
+        ScalabilityFit uslFit = ScalabilityFit.fit(ScalabilityFit.Model.USL, parallelisms, usl);
+        ScalabilityFit amdahlFit = ScalabilityFit.fit(ScalabilityFit.Model.AMDAHL, parallelisms, amdahl);
+
+        assertThat(uslFit.lambda()).isCloseTo(10.0, within(1e-6));
+        assertThat(uslFit.sigma()).isCloseTo(0.05, within(1e-6));
+        assertThat(uslFit.kappa()).isCloseTo(0.001, within(1e-9));
+        assertThat(uslFit.peakParallelism()).isCloseTo(Math.sqrt(0.95 / 0.001), within(1e-3));
+        assertThat(uslFit.rSquared()).isCloseTo(1.0, within(1e-9));
+        assertThat(amdahlFit.sigma()).isCloseTo(0.1, within(1e-6));
+        assertThat(amdahlFit.peakParallelism()).isInfinite();
+        assertThat(amdahlFit.peakSpeedup()).isCloseTo(10.0, within(1e-4));
+    }
+
+    @Test
+    @DisplayName("Coefficients are pinned to their physical range")
+    void testFitsStayPhysical() {
+        int[] parallelisms = {1, 2, 4, 8};
+
+        ScalabilityFit superlinear = ScalabilityFit.fit(ScalabilityFit.Model.USL, parallelisms,
+                new double[]{10, 21, 44, 90});
+        ScalabilityFit flat = ScalabilityFit.fit(ScalabilityFit.Model.AMDAHL, parallelisms,
+                new double[]{10, 9, 8.5, 8});
+
+        assertThat(superlinear.sigma()).isZero();
+        assertThat(superlinear.kappa()).isZero();
+        assertThat(flat.sigma()).isCloseTo(1.0, within(1e-12));
+        assertThatThrownBy(() -> ScalabilityFit.fit(ScalabilityFit.Model.USL, new int[]{1, 2}, new double[]{1, 2}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("The generator sweeps closed and open loop cells and the report writes CSV and HTML")
+    void testSweepAndReport(@TempDir Path directory) throws IOException {
+        LoadTestPlan plan = new LoadTestPlan(new int[]{50, 200}, new int[]{1, 2, 3},
+                List.of(LoadStrategy.SEQUENTIAL, LoadStrategy.CUSTOM_POOL, LoadStrategy.FORK_JOIN),
+                new int[]{1, 2}, new double[]{200}, 1000, Duration.ofMillis(20), Duration.ofMillis(100));
+
+        List<LoadTestResult> results = new LoadGenerator(plan, ECHO_KERNEL).run();
+        ScalabilityReport report = new ScalabilityReport(results);
+        Path page = report.write(directory);
+
+        // Sequential once per size and load; the custom-pool paths at every parallelism
+        assertThat(results).hasSize(2 * 3 + 2 * 3 * 2 * 3);
+        assertThat(results).allMatch(result -> result.batches() > 0 && result.p99Millis() >= result.p50Millis());
+        assertThat(results).filteredOn(result -> result.strategy() == LoadStrategy.SEQUENTIAL)
+                .allMatch(result -> result.parallelism() == 1);
+        assertThat(report.getCurves()).hasSize(2 * 2 * 2)
+                .allMatch(curve -> curve.amdahl() != null && curve.usl() != null);
+        assertThat(Files.readAllLines(directory.resolve(ScalabilityReport.RESULTS_FILE))).hasSize(results.size() + 1);
+        assertThat(Files.readAllLines(directory.resolve(ScalabilityReport.FITS_FILE))).hasSize(2 * 8 + 1);
+        assertThat(Files.readString(page)).contains("<svg", "CUSTOM_POOL, 200 rows, 2 clients");
+    }
+
+    @Test
+    @DisplayName("Plan overrides parse from key=value arguments and bad plans are rejected")
+    void testPlanOverrides() {
+        LoadTestPlan plan = LoadTestPlan.defaults().with("sizes=10,20", "parallelism=4,1,2",
+                "strategies=custom_pool", "rates=5.5", "duration=PT3S", "warmup=0.25");
+
+        assertThat(plan.batchSizes()).containsExactly(10, 20);
+        assertThat(plan.parallelisms()).containsExactly(1, 2, 4);
+        assertThat(plan.strategies()).containsExactly(LoadStrategy.CUSTOM_POOL);
+        assertThat(plan.arrivalRates()).containsExactly(5.5);
+        assertThat(plan.duration()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(plan.warmup()).isEqualTo(Duration.ofMillis(250));
+        assertThat(LoadTestPlan.doublingUpTo(6)).containsExactly(1, 2, 4, 6);
+        assertThatThrownBy(() -> plan.with("threads=4")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> plan.with("parallelism=0")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> plan.with("clients=", "rates=")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
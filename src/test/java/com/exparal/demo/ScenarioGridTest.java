@@ -0,0 +1,103 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.MarketScenario;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.ScenarioMatrix;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.ScalarRiskKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.DoubleStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ScenarioGridTest {
+
+    private static final long SEED = 42L;
+
+    private final FinancialCalculationService calculationService =
+            new FinancialCalculationService(4, 1000, new ScalarRiskKernel());
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("The BASE scenario matches a seeded scalar-kernel run bit for bit")
+    void testBaseScenarioMatchesSeededRun() {
+        PortfolioBook book = SyntheticPortfolios.book(100);
+        double[] expected = new double[book.size()];
+        calculationService.calculateRiskMetricsSequential(book, SEED, expected);
+
+        ScenarioMatrix matrix = calculationService.calculateScenarioGrid(book,
+                List.of(MarketScenario.BASE, new MarketScenario("VOL_UP", 0.0, 2.0)), SEED);
+
+        assertThat(matrix.column(0)).containsExactly(expected);
+        assertThat(matrix.portfolios()).isEqualTo(book.size());
+        assertThat(matrix.values()).hasSize(book.size() * 2);
+    }
+
+    @Test
+    @DisplayName("Every cell is independent of tiling and pool size, because scenarios share each portfolio's draws")
+    void testTilingAndParallelismDoNotChangeResults() {
+        // 37 rows and 130 scenarios leave partial tiles in both directions
+        PortfolioBook book = SyntheticPortfolios.book(37);
+        double[] volatilityScales = DoubleStream.iterate(0.25, scale -> scale + 0.25).limit(13).toArray();
+        List<MarketScenario> scenarios = MarketScenario.grid(
+                new double[]{-5e6, -2e6, -1e6, -5e5, 0, 5e5, 1e6, 2e6, 4e6, 8e6}, volatilityScales);
+
+        ScenarioMatrix matrix = calculationService.calculateScenarioGrid(book, scenarios, SEED);
+        FinancialCalculationService singleThreaded = new FinancialCalculationService(1, 1000, new ScalarRiskKernel());
+        try {
+            assertThat(singleThreaded.calculateScenarioGrid(book, scenarios, SEED).values())
+                    .containsExactly(matrix.values());
+            for (int scenario : new int[]{0, 63, 64, 129}) {
+                ScenarioMatrix alone = singleThreaded.calculateScenarioGrid(book, List.of(scenarios.get(scenario)), SEED);
+                assertThat(alone.column(0)).containsExactly(matrix.column(scenario));
+            }
+        } finally {
+            singleThreaded.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("With common random numbers the metric falls path by path as returns are shocked up")
+    void testCommonRandomNumbersGiveMonotoneShocks() {
+        PortfolioBook book = SyntheticPortfolios.book(50);
+        double[] returnShifts = {-4e6, -2e6, -1e6, 0, 1e6, 2e6, 4e6};
+        List<MarketScenario> scenarios = new ArrayList<>(MarketScenario.grid(returnShifts, new double[]{1.0}));
+        scenarios.add(new MarketScenario("BASE_AGAIN", 0.0, 1.0));
+
+        ScenarioMatrix matrix = calculationService.calculateScenarioGrid(book, scenarios, SEED);
+
+        for (int row = 0; row < book.size(); row++) {
+            double[] metrics = matrix.row(row);
+            for (int s = 1; s < returnShifts.length; s++) {
+                assertThat(metrics[s]).isLessThanOrEqualTo(metrics[s - 1]);
+            }
+            // Same shock, same draws, same metric
+            assertThat(metrics[returnShifts.length]).isEqualTo(metrics[3]);
+        }
+        assertThat(matrix.total(0)).isGreaterThan(matrix.total(returnShifts.length - 1));
+    }
+
+    @Test
+    @DisplayName("Empty scenario lists and invalid shocks are rejected")
+    void testInvalidScenarios() {
+        PortfolioBook book = SyntheticPortfolios.book(10);
+
+        assertThatThrownBy(() -> calculationService.calculateScenarioGrid(book, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new MarketScenario("NEGATIVE_VOL", 0.0, -1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new MarketScenario("NAN_SHIFT", Double.NaN, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.ScalarRiskKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SeededRiskCalculationTest {
+
+    private static final long SEED = 20240607L;
+
+    private final FinancialCalculationService singleThreaded = new FinancialCalculationService(1, 2000, new ScalarRiskKernel());
+    private final FinancialCalculationService multiThreaded = new FinancialCalculationService(4, 2000, new ScalarRiskKernel());
+
+    @AfterEach
+    void tearDown() {
+        singleThreaded.shutdown();
+        multiThreaded.shutdown();
+    }
+
+    @Test
+    @DisplayName("Seeded book runs are bit-identical across strategies, leaf sizes and pool sizes")
+    void testBookStrategiesAgree() {
+        PortfolioBook book = PortfolioBook.of(SyntheticPortfolios.generate(500));
+
+        double[] expected = new double[book.size()];
+        singleThreaded.calculateRiskMetricsSequential(book, SEED, expected);
+
+        double[] results = new double[book.size()];
+        multiThreaded.calculateRiskMetricsParallel(book, SEED, results);
+        assertThat(results).containsExactly(expected);
+        multiThreaded.calculateRiskMetricsCustomPool(book, SEED, results);
+        assertThat(results).containsExactly(expected);
+        for (int leafSize : new int[]{1, 7, 64}) {
+            multiThreaded.calculateRiskMetricsForkJoin(book, SEED, results, leafSize);
+            assertThat(results).containsExactly(expected);
+        }
+        singleThreaded.calculateRiskMetricsCustomPool(book, SEED, results);
+        assertThat(results).containsExactly(expected);
+    }
+
+    @Test
+    @DisplayName("A portfolio's metric depends on its id and the seed, not on its position in the batch")
+    void testListStrategiesAgree() {
+        List<Portfolio> portfolios = SyntheticPortfolios.generate(300);
+        List<Portfolio> shuffled = new ArrayList<>(portfolios);
+        Collections.shuffle(shuffled, new Random(7));
+
+        List<BigDecimal> expected = singleThreaded.calculateRiskMetricsSequential(portfolios, SEED);
+        List<BigDecimal> shuffledResults = multiThreaded.calculateRiskMetricsCustomPool(shuffled, SEED);
+
+        assertThat(multiThreaded.calculateRiskMetricsParallel(portfolios, SEED)).isEqualTo(expected);
+        assertThat(multiThreaded.calculateRiskMetrics(portfolios, SEED)).isEqualTo(expected);
+        for (int i = 0; i < shuffled.size(); i++) {
+            assertThat(shuffledResults.get(i)).isEqualTo(expected.get(portfolios.indexOf(shuffled.get(i))));
+        }
+        assertThat(singleThreaded.calculateRiskMetricsSequential(portfolios, SEED + 1)).isNotEqualTo(expected);
+    }
+}
@@ -14,7 +14,7 @@ import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-@SpringBootTest
+@SpringBootTest(properties = "risk.warmup.enabled=false")
 public class SimpleParallelTest {
 
     @Test
@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-@SpringBootTest
+@SpringBootTest(properties = "risk.warmup.enabled=false")
 public class SimpleParallelWithHigherLoadTest {
 
     @Test
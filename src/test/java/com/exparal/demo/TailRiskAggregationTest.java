@@ -0,0 +1,121 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.PortfolioBook;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.model.TailRisk;
+import com.exparal.demo.model.TailRiskReport;
+import com.exparal.demo.service.ExecutionStrategy;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.LossHistogram;
+import com.exparal.demo.service.TailRiskAggregator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class TailRiskAggregationTest {
+
+    // Standard normal quantile and Expected Shortfall multiplier at 99%
+    private static final double Z_99 = 2.326348;
+    private static final double ES_99 = 2.665214;
+
+    private final FinancialCalculationService calculationService = new FinancialCalculationService(4, 50_000);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Every strategy matches the analytic normal VaR and ES of a single portfolio")
+    void testSinglePortfolioMatchesNormal() {
+        PortfolioBook book = new PortfolioBook(1);
+        book.add("P1", 1_000_000, 0.1, 0.2);
+        // Loss is normal with mean -100,000 and standard deviation 200,000
+        double mean = -100_000;
+        double sd = 200_000;
+
+        for (ExecutionStrategy strategy : ExecutionStrategy.values()) {
+            TailRisk risk = calculationService.calculateTailRisk(book, id -> "ALL", strategy, 0.99).book();
+
+            assertThat(risk.paths()).isEqualTo(50_000);
+            assertThat(risk.valueAtRisk(0.99)).isCloseTo(mean + Z_99 * sd, within(0.1 * sd));
+            assertThat(risk.expectedShortfall(0.99)).isCloseTo(mean + ES_99 * sd, within(0.1 * sd));
+        }
+    }
+
+    @Test
+    @DisplayName("Sub-books are reported separately and diversify into the book")
+    void testSubBooks() {
+        PortfolioBook book = SyntheticPortfolios.book(40);
+        double mean = 0;
+        double variance = 0;
+        for (int row = 0; row < book.size(); row++) {
+            mean -= book.getNotional(row) * book.getExpectedReturn(row);
+            variance += Math.pow(book.getNotional(row) * book.getVolatility(row), 2);
+        }
+        double sd = Math.sqrt(variance);
+
+        TailRiskReport report = calculationService.calculateTailRisk(book,
+                id -> Integer.parseInt(id.substring("PORTFOLIO_".length())) % 2 == 0 ? "EVEN" : "ODD",
+                0.95, 0.99);
+
+        assertThat(report.subBooks()).containsOnlyKeys("EVEN", "ODD");
+        assertThat(report.subBooks().values()).extracting(TailRisk::portfolios).containsExactly(20, 20);
+        assertThat(report.book().name()).isEqualTo(TailRiskAggregator.BOOK);
+        assertThat(report.book().valueAtRisk(0.99)).isCloseTo(mean + Z_99 * sd, within(0.1 * sd));
+        assertThat(report.book().expectedShortfall(0.99)).isCloseTo(mean + ES_99 * sd, within(0.1 * sd));
+        assertThat(report.book().expectedShortfall(0.99)).isGreaterThan(report.book().valueAtRisk(0.99))
+                .isLessThan(report.subBooks().get("EVEN").expectedShortfall(0.99)
+                        + report.subBooks().get("ODD").expectedShortfall(0.99));
+        assertThat(report.book().valueAtRisk(0.95)).isLessThan(report.book().valueAtRisk(0.99));
+        assertThatThrownBy(() -> calculationService.calculateTailRisk(book, id -> "ALL", 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Seeded runs repeat exactly and agree across strategies")
+    void testSeededTailRisk() {
+        PortfolioBook book = SyntheticPortfolios.book(40);
+
+        TailRisk first = calculationService.calculateTailRisk(book, 7L, id -> "ALL", ExecutionStrategy.CUSTOM_POOL, 0.99)
+                .book();
+        TailRisk again = calculationService.calculateTailRisk(book, 7L, id -> "ALL", ExecutionStrategy.CUSTOM_POOL, 0.99)
+                .book();
+        TailRisk other = calculationService.calculateTailRisk(book, 8L, id -> "ALL", ExecutionStrategy.CUSTOM_POOL, 0.99)
+                .book();
+
+        assertThat(again.valueAtRisk(0.99)).isEqualTo(first.valueAtRisk(0.99));
+        assertThat(other.valueAtRisk(0.99)).isNotEqualTo(first.valueAtRisk(0.99));
+        for (ExecutionStrategy strategy : ExecutionStrategy.values()) {
+            TailRisk risk = calculationService.calculateTailRisk(book, 7L, id -> "ALL", strategy, 0.99).book();
+            // Paths are identical; only the order bin loss sums are added in may differ
+            assertThat(risk.valueAtRisk(0.99)).isCloseTo(first.valueAtRisk(0.99), within(1e-6));
+            assertThat(risk.expectedShortfall(0.99)).isCloseTo(first.expectedShortfall(0.99), within(1e-6));
+        }
+    }
+
+    @Test
+    @DisplayName("Merged histograms give the same tail as one histogram over all losses")
+    void testHistogramMerge() {
+        LossHistogram whole = new LossHistogram(0, 10_000, 1000);
+        LossHistogram left = new LossHistogram(0, 10_000, 1000);
+        LossHistogram right = new LossHistogram(0, 10_000, 1000);
+        for (int loss = 0; loss < 10_000; loss++) {
+            whole.add(loss);
+            (loss % 3 == 0 ? left : right).add(loss);
+        }
+
+        left.merge(right);
+
+        assertThat(left.count()).isEqualTo(10_000);
+        assertThat(left.valueAtRisk(0.99)).isEqualTo(whole.valueAtRisk(0.99)).isCloseTo(9900, within(10.0));
+        assertThat(left.expectedShortfall(0.99)).isEqualTo(whole.expectedShortfall(0.99)).isCloseTo(9949.5, within(10.0));
+        assertThatThrownBy(() -> left.merge(new LossHistogram(0, 5_000, 1000)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
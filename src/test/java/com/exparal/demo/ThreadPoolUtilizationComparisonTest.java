@@ -1,6 +1,7 @@
 package com.exparal.demo;
 
 import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.SyntheticPortfolios;
 import com.exparal.demo.service.FinancialCalculationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,15 +12,13 @@ import com.sun.management.OperatingSystemMXBean; // Platform-specific
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.LongSummaryStatistics;
-import java.util.Random;
 import java.util.concurrent.ForkJoinPool;
 import static org.assertj.core.api.Assertions.assertThat;
 
 // Performance test class
-@SpringBootTest
+@SpringBootTest(properties = "risk.warmup.enabled=false")
 public class ThreadPoolUtilizationComparisonTest {
 
     @Autowired
@@ -30,7 +29,7 @@ public class ThreadPoolUtilizationComparisonTest {
     @BeforeEach
     void setUp() {
         // Create test data
-        testPortfolios = generateTestPortfolios(10000); // Adjust size based on your need
+        testPortfolios = SyntheticPortfolios.generate(10000); // Adjust size based on your need
     }
 
 
@@ -124,22 +123,6 @@ public class ThreadPoolUtilizationComparisonTest {
         }
     }
 
-    private List<Portfolio> generateTestPortfolios(int count) {
-        List<Portfolio> portfolios = new ArrayList<>();
-        Random random = new Random(42); // Fixed seed for reproducible tests
-
-        for (int i = 0; i < count; i++) {
-            portfolios.add(new Portfolio(
-                    "PORTFOLIO_" + i,
-                    1_000_000 + random.nextDouble() * 9_000_000, // 1M to 10M notional
-                    0.05 + random.nextDouble() * 0.15, // 5% to 20% expected return
-                    0.1 + random.nextDouble() * 0.3    // 10% to 40% volatility
-            ));
-        }
-
-        return portfolios;
-    }
-
     private void displayPerformanceStats(String method, List<Long> times) {
         LongSummaryStatistics stats = times.stream().mapToLong(Long::longValue).summaryStatistics();
 
@@ -0,0 +1,98 @@
+package com.exparal.demo;
+
+import com.exparal.demo.model.Portfolio;
+import com.exparal.demo.model.RiskResult;
+import com.exparal.demo.model.SyntheticPortfolios;
+import com.exparal.demo.service.FinancialCalculationService;
+import com.exparal.demo.service.PortfolioIoStage;
+import com.exparal.demo.service.SimulatedIoStage;
+import com.exparal.demo.service.VirtualThreadRiskPipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class VirtualThreadRiskPipelineTest {
+
+    private final FinancialCalculationService calculationService = new FinancialCalculationService(2, 1000);
+
+    @AfterEach
+    void tearDown() {
+        calculationService.shutdown();
+    }
+
+    @Test
+    @DisplayName("I/O waits overlap on virtual threads and results keep input order")
+    void testIoOverlaps() {
+        SimulatedIoStage ioStage = new SimulatedIoStage(Duration.ofMillis(20), Duration.ofMillis(20));
+        VirtualThreadRiskPipeline pipeline = new VirtualThreadRiskPipeline(calculationService, ioStage, 1000);
+        List<Portfolio> portfolios = SyntheticPortfolios.generate(500);
+
+        long start = System.nanoTime();
+        List<RiskResult> results = pipeline.process(portfolios);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 500 x 40 ms of I/O would take 20 s back to back, and 10 s on the custom pool's 2 workers
+        assertThat(elapsedMillis).isLessThan(5_000);
+        assertThat(ioStage.getPublishedCount()).isEqualTo(500);
+        for (int i = 0; i < portfolios.size(); i++) {
+            assertThat(results.get(i).portfolioId()).isEqualTo(portfolios.get(i).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("I/O stages run on virtual threads and the in-flight cap is respected")
+    void testStagesAndInFlightCap() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Boolean> virtualFetches = Collections.synchronizedList(new ArrayList<>());
+        PortfolioIoStage ioStage = new PortfolioIoStage() {
+            @Override
+            public Portfolio fetch(Portfolio portfolio) throws InterruptedException {
+                virtualFetches.add(Thread.currentThread().isVirtual());
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                Thread.sleep(5);
+                return portfolio;
+            }
+
+            @Override
+            public void publish(RiskResult result) {
+                active.decrementAndGet();
+            }
+        };
+        VirtualThreadRiskPipeline pipeline = new VirtualThreadRiskPipeline(calculationService, ioStage, 8);
+
+        pipeline.process(SyntheticPortfolios.generate(100));
+
+        assertThat(virtualFetches).hasSize(100).containsOnly(true);
+        assertThat(maxActive.get()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("A failing I/O stage fails the batch")
+    void testStageFailure() {
+        PortfolioIoStage failing = new PortfolioIoStage() {
+            @Override
+            public Portfolio fetch(Portfolio portfolio) throws Exception {
+                throw new IOException("market data unavailable");
+            }
+
+            @Override
+            public void publish(RiskResult result) {
+            }
+        };
+        VirtualThreadRiskPipeline pipeline = new VirtualThreadRiskPipeline(calculationService, failing, 10);
+
+        assertThatThrownBy(() -> pipeline.process(SyntheticPortfolios.generate(10)))
+                .hasRootCauseInstanceOf(IOException.class);
+    }
+}
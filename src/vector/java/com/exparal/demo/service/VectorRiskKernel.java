@@ -0,0 +1,132 @@
+package com.exparal.demo.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+import java.util.random.RandomGenerator;
+
+// SIMD kernel built on jdk.incubator.vector (compiled with the 'vector' Maven profile).
+// Each lane runs its own xorshift128+ generator; uniforms are turned into Gaussian pairs
+// with a lane-wise Box-Muller transform and the max(0, notional - return) shortfall is
+// accumulated in lanes, reduced once at the end.
+public class VectorRiskKernel implements RiskKernel {
+
+    public static final String NAME = "vector";
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final int LANES = DOUBLES.length();
+
+    // Exponent bits of 1.0: OR-ed onto 52 random mantissa bits this gives a double in [1, 2)
+    private static final long ONE_EXPONENT_BITS = 0x3FF0000000000000L;
+    private static final double TWO_PI = 2.0 * Math.PI;
+
+    // Per-thread seed scratch so nothing is allocated per portfolio
+    private static final ThreadLocal<long[]> SEEDS = ThreadLocal.withInitial(() -> new long[2 * LANES]);
+
+    public VectorRiskKernel() {
+        if (LONGS.length() != LANES) {
+            throw new IllegalStateException("Long and double species differ in lane count");
+        }
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations) {
+        return simulate(notional, expectedReturn, volatility, iterations, ThreadLocalRandom.current());
+    }
+
+    // Lane generators are seeded from `random`, so a seeded generator makes the result reproducible
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                           RandomGenerator random) {
+        return simulate(notional, expectedReturn, volatility, iterations, random, null);
+    }
+
+    @Override
+    public double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                           BooleanSupplier stop) {
+        return simulate(notional, expectedReturn, volatility, iterations, ThreadLocalRandom.current(), stop);
+    }
+
+    // A null stop never stops. STOP_CHECK_INTERVAL is a multiple of the block, so checks fall between blocks.
+    private static double simulate(double notional, double expectedReturn, double volatility, int iterations,
+                                   RandomGenerator random, BooleanSupplier stop) {
+        long[] seeds = SEEDS.get();
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong() | 1L; // xorshift state must never be all zero
+        }
+        LongVector s0 = LongVector.fromArray(LONGS, seeds, 0);
+        LongVector s1 = LongVector.fromArray(LONGS, seeds, LANES);
+
+        // max(0, notional - (expectedReturn + volatility * z)) == max(0, z * -volatility + (notional - expectedReturn))
+        DoubleVector threshold = DoubleVector.broadcast(DOUBLES, notional - expectedReturn);
+        DoubleVector negatedVolatility = DoubleVector.broadcast(DOUBLES, -volatility);
+        DoubleVector sum = DoubleVector.zero(DOUBLES);
+
+        int blocked = iterations - iterations % (2 * LANES);
+        int i = 0;
+        while (i < blocked) {
+            if (stop != null && stop.getAsBoolean()) {
+                return Double.NaN;
+            }
+            int end = blocked - i > STOP_CHECK_INTERVAL ? i + STOP_CHECK_INTERVAL : blocked;
+            for (; i < end; i += 2 * LANES) {
+                // xorshift128+ step -> first uniform
+                LongVector x = s0;
+                LongVector y = s1;
+                s0 = y;
+                x = x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHL, 23));
+                s1 = x.lanewise(VectorOperators.XOR, y)
+                        .lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHR, 17))
+                        .lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.LSHR, 26));
+                DoubleVector u1 = toUnitInterval(s1.add(y));
+
+                // xorshift128+ step -> second uniform
+                x = s0;
+                y = s1;
+                s0 = y;
+                x = x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHL, 23));
+                s1 = x.lanewise(VectorOperators.XOR, y)
+                        .lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHR, 17))
+                        .lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.LSHR, 26));
+                DoubleVector u2 = toUnitInterval(s1.add(y));
+
+                // Box-Muller: two independent standard normals per pair of uniforms
+                DoubleVector radius = u1.lanewise(VectorOperators.LOG).mul(-2.0).sqrt();
+                DoubleVector theta = u2.mul(TWO_PI);
+                DoubleVector z1 = radius.mul(theta.lanewise(VectorOperators.COS));
+                DoubleVector z2 = radius.mul(theta.lanewise(VectorOperators.SIN));
+
+                sum = sum.add(z1.fma(negatedVolatility, threshold).max(0.0));
+                sum = sum.add(z2.fma(negatedVolatility, threshold).max(0.0));
+            }
+        }
+
+        double result = sum.reduceLanes(VectorOperators.ADD);
+
+        // Scalar tail for iteration counts that are not a multiple of the block
+        for (; i < iterations; i++) {
+            double portfolioReturn = RiskKernel.portfolioReturn(expectedReturn, volatility, random.nextGaussian());
+            result += Math.max(0, notional - portfolioReturn);
+        }
+
+        return RiskKernel.finish(result, iterations);
+    }
+
+    // Maps random bits to (0, 1], so log() never sees zero
+    private static DoubleVector toUnitInterval(LongVector bits) {
+        DoubleVector oneToTwo = bits.lanewise(VectorOperators.LSHR, 12)
+                .lanewise(VectorOperators.OR, ONE_EXPONENT_BITS)
+                .reinterpretAsDoubles();
+        return oneToTwo.neg().add(2.0);
+    }
+}